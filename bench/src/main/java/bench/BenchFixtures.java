@@ -0,0 +1,85 @@
+package bench;
+
+import infra.GameConfig;
+import infra.GameSession;
+import map.MapModel;
+import model.BulletPool;
+import model.PlayerTank;
+import model.Tank;
+import sim.World;
+
+import java.util.Random;
+
+/**
+ * 基准测试公用的场景搭建工具
+ * 所有随机都用固定种子，保证每次跑出来的场景一致，前后两次测量才有可比性
+ */
+public final class BenchFixtures {
+
+    public static final long SEED = 20250101L;
+    public static final int LEVEL = 1;
+
+    private BenchFixtures() {
+    }
+
+    /**
+     * 加载第 1 关地图、放好玩家的世界（不生成敌人）
+     */
+    public static World createWorld() {
+        // AI 不设时间预算：每次测的都是全部到点的决策，不受机器负载影响
+        World world = new World(new GameSession(SEED).override(GameSession.AI_BUDGET_MICROS, 0));
+        world.loadMap(new MapModel(LEVEL));
+        double[] pos = world.findFreeSpawnPoint(true);
+        if (pos == null) {
+            pos = new double[]{0, 0};
+        }
+        world.setPlayer(new PlayerTank(pos[0], pos[1]));
+        return world;
+    }
+
+    /**
+     * 随机挑一个坦克能站的位置（允许和其他坦克重叠，大数量时地图放不下不重叠的）
+     */
+    public static double[] randomTankPosition(World world, Random random) {
+        double maxX = GameConfig.SCREEN_WIDTH - GameConfig.TANK_SIZE;
+        double maxY = GameConfig.MAP_ROWS * GameConfig.GRID_SIZE - GameConfig.TANK_SIZE;
+        for (int attempt = 0; attempt < 1000; attempt++) {
+            double x = random.nextDouble() * maxX;
+            double y = random.nextDouble() * maxY;
+            if (world.isValidTankPosition(x, y)) {
+                return new double[]{x, y};
+            }
+        }
+        return new double[]{0, 0};
+    }
+
+    /**
+     * 往世界里放 count 个敌人（三种类型轮流）
+     */
+    public static void spawnEnemies(World world, int count) {
+        Random random = new Random(SEED + 1);
+        Tank.TankType[] types = {Tank.TankType.ENEMY_NORMAL, Tank.TankType.ENEMY_FAST, Tank.TankType.ENEMY_HEAVY};
+        for (int i = 0; i < count; i++) {
+            double[] pos = randomTankPosition(world, random);
+            world.spawnEnemy(types[i % types.length], pos[0], pos[1]);
+        }
+    }
+
+    /**
+     * 在可通行位置生成 count 颗随机方向的子弹（装进一个刚好放得下的子弹池）
+     */
+    public static BulletPool createBullets(World world, int count) {
+        Random random = new Random(SEED + 2);
+        BulletPool bullets = new BulletPool(count);
+        for (int i = 0; i < count; i++) {
+            double[] pos = randomTankPosition(world, random);
+            int direction = random.nextInt(360);
+            double radians = Math.toRadians(direction);
+            double vx = Math.sin(radians) * GameConfig.BULLET_SPEED;
+            double vy = -Math.cos(radians) * GameConfig.BULLET_SPEED;
+            bullets.spawn(i % 2 == 0, 20, direction,
+                    pos[0] + GameConfig.TANK_SIZE / 2, pos[1] + GameConfig.TANK_SIZE / 2, vx, vy);
+        }
+        return bullets;
+    }
+}
@@ -0,0 +1,83 @@
+package bench;
+
+import map.MapModel;
+import model.BulletPool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sim.World;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BulletPool.update：子弹积分 + 扫掠地图碰撞 + 反弹
+ * 打到砖块/反弹次数用完的子弹在下一次调用前放回出生点，保证场上子弹数不变
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BulletUpdateBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int bulletCount;
+
+    private MapModel map;
+    private BulletPool bullets;
+    private double[] startX;
+    private double[] startY;
+    private double[] startVx;
+    private double[] startVy;
+
+    @Setup
+    public void setup() {
+        World world = BenchFixtures.createWorld();
+        map = world.getMapModel();
+        bullets = BenchFixtures.createBullets(world, bulletCount);
+
+        startX = new double[bulletCount];
+        startY = new double[bulletCount];
+        startVx = new double[bulletCount];
+        startVy = new double[bulletCount];
+        for (int i = 0; i < bulletCount; i++) {
+            startX[i] = bullets.getX(i);
+            startY[i] = bullets.getY(i);
+            startVx[i] = bullets.getSpeedX(i);
+            startVy[i] = bullets.getSpeedY(i);
+        }
+    }
+
+    /** 60Hz：每帧一次整步 */
+    @Benchmark
+    public int updateFullStep() {
+        return updateAll(1.0);
+    }
+
+    /** 120Hz 物理子步：每帧两次半步 */
+    @Benchmark
+    public int updateTwoSubsteps() {
+        return updateAll(0.5) + updateAll(0.5);
+    }
+
+    private int updateAll(double stepFraction) {
+        int alive = 0;
+        for (int i = 0; i < bullets.size(); i++) {
+            if (!bullets.isAlive(i)) {
+                bullets.reset(i, startX[i], startY[i], startVx[i], startVy[i]);
+            }
+            bullets.update(i, map, stepFraction);
+            if (bullets.isAlive(i)) alive++;
+        }
+        return alive;
+    }
+}
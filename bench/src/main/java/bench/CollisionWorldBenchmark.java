@@ -0,0 +1,134 @@
+package bench;
+
+import infra.GameConfig;
+import map.VisibilityTable;
+import model.Tank;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sim.CollisionWorld;
+import sim.SpawnIndex;
+import sim.World;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CollisionWorld 的各类查询：包围盒 vs 地形、包围盒 vs 坦克、射线、出生点占位、出生点挑选，
+ * 以及 AI 视线表（VisibilityTable，和逐格走的射线对照）
+ * 每次调用跑 queryCount 个随机查询（场上固定 1000 个敌人）
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CollisionWorldBenchmark {
+
+    private static final int TANK_COUNT = 1000;
+
+    @Param({"10", "100", "1000", "10000"})
+    public int queryCount;
+
+    private CollisionWorld collision;
+    private VisibilityTable visibility;
+    private double[] probeX;
+    private double[] probeY;
+    private double[] targetX;
+    private double[] targetY;
+    private final List<Tank> buffer = new ArrayList<>();
+    private final Random spawnRandom = new Random(BenchFixtures.SEED + 6);
+
+    @Setup
+    public void setup() {
+        World world = BenchFixtures.createWorld();
+        BenchFixtures.spawnEnemies(world, TANK_COUNT);
+        collision = world.getCollision();
+        visibility = world.getVisibility();
+
+        Random random = new Random(BenchFixtures.SEED + 5);
+        double mapHeight = GameConfig.MAP_ROWS * GameConfig.GRID_SIZE;
+        probeX = new double[queryCount];
+        probeY = new double[queryCount];
+        targetX = new double[queryCount];
+        targetY = new double[queryCount];
+        for (int i = 0; i < queryCount; i++) {
+            probeX[i] = random.nextDouble() * GameConfig.SCREEN_WIDTH;
+            probeY[i] = random.nextDouble() * mapHeight;
+            targetX[i] = random.nextDouble() * GameConfig.SCREEN_WIDTH;
+            targetY[i] = random.nextDouble() * mapHeight;
+        }
+    }
+
+    @Benchmark
+    public int terrainBoxes() {
+        int clear = 0;
+        for (int i = 0; i < queryCount; i++) {
+            if (collision.isTankPositionValid(probeX[i], probeY[i])) clear++;
+        }
+        return clear;
+    }
+
+    @Benchmark
+    public int tankQueries() {
+        int hits = 0;
+        for (int i = 0; i < queryCount; i++) {
+            buffer.clear();
+            collision.queryTanks(probeX[i], probeY[i], GameConfig.TANK_SIZE, GameConfig.TANK_SIZE, buffer);
+            hits += buffer.size();
+        }
+        return hits;
+    }
+
+    @Benchmark
+    public int lineOfSight() {
+        int visible = 0;
+        for (int i = 0; i < queryCount; i++) {
+            if (collision.hasLineOfSight(probeX[i], probeY[i], targetX[i], targetY[i])) visible++;
+        }
+        return visible;
+    }
+
+    @Benchmark
+    public int visibilityTable() {
+        int visible = 0;
+        for (int i = 0; i < queryCount; i++) {
+            if (visibility.canSee(probeX[i], probeY[i], targetX[i], targetY[i])) visible++;
+        }
+        return visible;
+    }
+
+    @Benchmark
+    public int occupancy() {
+        int occupied = 0;
+        double minDist = GameConfig.TANK_SIZE + 5.0;
+        for (int i = 0; i < queryCount; i++) {
+            if (collision.isOccupied(probeX[i], probeY[i], minDist)) occupied++;
+        }
+        return occupied;
+    }
+
+    /**
+     * 出生点空闲索引：每次都重新排除全部坦克再挑一格（地形没变，不会重算 fits）
+     */
+    @Benchmark
+    public int spawnPicks() {
+        int sum = 0;
+        for (int i = 0; i < queryCount; i++) {
+            SpawnIndex index = collision.prepareSpawnIndex(GameConfig.TANK_SIZE + 5.0);
+            sum += index.pick(0, 0, GameConfig.MAP_ROWS - 1, GameConfig.MAP_COLS - 1, spawnRandom);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,112 @@
+package bench;
+
+import infra.GameConfig;
+import map.FlowField;
+import map.InfluenceMap;
+import map.MapModel;
+import map.VisibilityTable;
+import model.BulletPool;
+import model.EnemyTank;
+import model.PlayerTank;
+import model.Tank;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sim.AiScheduler;
+import sim.World;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * EnemyTank.updateAI：按 AI 频率（15Hz）调用一次所有敌人的决策
+ * AiScheduler：World 实际走的分时调度，一个逻辑帧里到点的决策（有预算上限）
+ * InfluenceMap：每帧的增量更新（威胁层命中缓存，子弹道和敌人密度重新盖章）
+ * 以及共享流场的整张重建（与敌人数量无关，玩家换格子时才发生）
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EnemyAIBenchmark {
+
+    private static final double AI_DT = 1.0 / GameConfig.AI_HZ;
+
+    @Param({"10", "100", "1000", "10000"})
+    public int enemyCount;
+
+    private MapModel map;
+    private PlayerTank player;
+    private List<Tank> enemies;
+    private FlowField flowField;
+    private int flowTarget;
+    private AiScheduler aiScheduler;
+    private long tick;
+    private InfluenceMap influence;
+    private VisibilityTable visibility;
+    private BulletPool bullets;
+
+    @Setup
+    public void setup() {
+        World world = BenchFixtures.createWorld();
+        map = world.getMapModel();
+        player = world.getPlayer();
+        BenchFixtures.spawnEnemies(world, enemyCount);
+        enemies = world.getEnemyTanks();
+        flowField = world.getFlowField();
+        flowField.update(map, player.getCenterX(), player.getCenterY());
+        aiScheduler = world.getAiScheduler();
+        influence = world.getInfluence();
+        visibility = world.getVisibility();
+        bullets = BenchFixtures.createBullets(world, 64);
+        influence.update(map, visibility, player, bullets, enemies);
+    }
+
+    @Benchmark
+    public int thinkAll() {
+        int moving = 0;
+        for (int i = 0; i < enemies.size(); i++) {
+            EnemyTank enemy = (EnemyTank) enemies.get(i);
+            enemy.updateAI(map, player, AI_DT);
+            if (enemy.isMovingForward()) moving++;
+            // 丢掉 AI 开出的子弹，避免跨调用堆积
+            enemy.clearPendingShot();
+        }
+        return moving;
+    }
+
+    /**
+     * 推进一个逻辑帧的 AI 调度（坦克不移动，只量决策本身）
+     */
+    @Benchmark
+    public int scheduledTick() {
+        return aiScheduler.run(++tick, map, player);
+    }
+
+    @Benchmark
+    public int updateInfluence() {
+        influence.update(map, visibility, player, bullets, enemies);
+        return influence.getThreatBuildCount();
+    }
+
+    /**
+     * 目标在两个格子之间来回切换，每次调用都强制整张重建
+     */
+    @Benchmark
+    public int rebuildFlowField() {
+        flowTarget ^= 1;
+        double x = player.getCenterX() + flowTarget * GameConfig.GRID_SIZE;
+        flowField.update(map, x, player.getCenterY());
+        return flowField.getReachableCount();
+    }
+}
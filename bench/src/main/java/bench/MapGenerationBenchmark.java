@@ -0,0 +1,38 @@
+package bench;
+
+import map.BattlefieldMapGenerator;
+import map.MazeDigger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 随机地图生成（无尽模式每一波都会生成一张）
+ * 地图尺寸固定 30x22，没有实体数量可调，所以不带参数
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MapGenerationBenchmark {
+
+    @Benchmark
+    public int[][] battlefield() {
+        return new BattlefieldMapGenerator().generate();
+    }
+
+    @Benchmark
+    public int[][] maze() {
+        return new MazeDigger().generate();
+    }
+}
@@ -0,0 +1,100 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import ranking.PlayerRecord;
+import ranking.RankingManager;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 排行榜读写：loadAllRecords（整表解析）和 addRecord（读 + 排序 + 整表重写）
+ * 数据写在临时目录里，不会碰到项目目录下真实的排行榜文件
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RankingBenchmark {
+
+    private static final PlayerRecord.GameMode MODE = PlayerRecord.GameMode.ENDLESS_MODE;
+
+    /** 排行榜文件里已有的记录条数 */
+    @Param({"10", "100", "1000", "10000"})
+    public int recordCount;
+
+    private Path directory;
+    private File rankingFile;
+    private byte[] seedContent;
+    private final Random random = new Random(BenchFixtures.SEED);
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("tankwar-bench");
+        RankingManager.setDataDirectory(directory.toFile());
+
+        Random seedRandom = new Random(BenchFixtures.SEED + 4);
+        StringBuilder sb = new StringBuilder();
+        long timestamp = 1_700_000_000_000L;
+        for (int i = 0; i < recordCount; i++) {
+            sb.append(seedRandom.nextInt(100_000)).append(',')
+                    .append(seedRandom.nextInt(3600)).append(',')
+                    .append(timestamp + i).append('\n');
+        }
+        seedContent = sb.toString().getBytes(StandardCharsets.UTF_8);
+
+        // 找到 RankingManager 实际使用的文件：先写一条记录让它落盘
+        RankingManager.addRecord(0, 0, MODE);
+        try (Stream<Path> files = Files.list(directory)) {
+            rankingFile = files.findFirst().orElseThrow().toFile();
+        }
+        restoreFile();
+    }
+
+    /**
+     * addRecord 会把文件截断到前 50 名，每次调用前恢复成 recordCount 条
+     */
+    @Setup(Level.Invocation)
+    public void restoreFile() throws IOException {
+        Files.write(rankingFile.toPath(), seedContent);
+    }
+
+    @TearDown(Level.Trial)
+    public void cleanup() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public List<PlayerRecord> loadAllRecords() {
+        return RankingManager.loadAllRecords(MODE);
+    }
+
+    @Benchmark
+    public void addRecord() {
+        RankingManager.addRecord(random.nextInt(100_000), random.nextInt(3600), MODE);
+    }
+}
@@ -0,0 +1,76 @@
+package bench;
+
+import model.Tank;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sim.World;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 坦克之间的防重叠（World.resolveAllTankOverlaps → SeparationSolver 的迭代分离）
+ * 以及带 N 个敌人的完整 World.step()，作为整帧开销的基线
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TankCollisionBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int tankCount;
+
+    private World world;
+    private double[] startX;
+    private double[] startY;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        world = BenchFixtures.createWorld();
+        BenchFixtures.spawnEnemies(world, tankCount);
+
+        List<Tank> enemies = world.getEnemyTanks();
+        startX = new double[enemies.size()];
+        startY = new double[enemies.size()];
+        for (int i = 0; i < enemies.size(); i++) {
+            startX[i] = enemies.get(i).getX();
+            startY[i] = enemies.get(i).getY();
+        }
+    }
+
+    /**
+     * 推挤会改变位置，每轮测量前复位，避免坦克越推越散导致前后轮的重叠数不同
+     */
+    @Setup(Level.Iteration)
+    public void resetPositions() {
+        List<Tank> enemies = world.getEnemyTanks();
+        for (int i = 0; i < enemies.size(); i++) {
+            enemies.get(i).setX(startX[i]);
+            enemies.get(i).setY(startY[i]);
+        }
+    }
+
+    @Benchmark
+    public void resolveOverlaps() {
+        world.resolveAllTankOverlaps();
+    }
+
+    @Benchmark
+    public long worldStep() {
+        world.step();
+        return world.getTickCount();
+    }
+}
@@ -0,0 +1,86 @@
+package bench;
+
+import map.MapModel;
+import model.Tank;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sim.World;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tank.update（旋转 + 移动 + 地图碰撞）和 World.isValidTankPosition（出生点/推挤用的地图碰撞检查）
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TankUpdateBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int tankCount;
+
+    private World world;
+    private MapModel map;
+    private List<Tank> tanks;
+    private double[] probeX;
+    private double[] probeY;
+
+    @Setup
+    public void setup() {
+        world = BenchFixtures.createWorld();
+        map = world.getMapModel();
+        BenchFixtures.spawnEnemies(world, tankCount);
+        tanks = world.getEnemyTanks();
+
+        // 一半坦克前进，一半后退，转向交替，覆盖各个方向的墙体碰撞
+        for (int i = 0; i < tanks.size(); i++) {
+            Tank tank = tanks.get(i);
+            tank.setMovingForward(i % 2 == 0);
+            tank.setMovingBackward(i % 2 == 1);
+            tank.setRotatingLeft(i % 3 == 0);
+            tank.setRotatingRight(i % 3 == 1);
+        }
+
+        Random random = new Random(BenchFixtures.SEED + 3);
+        probeX = new double[tankCount];
+        probeY = new double[tankCount];
+        for (int i = 0; i < tankCount; i++) {
+            probeX[i] = random.nextDouble() * 1200;
+            probeY[i] = random.nextDouble() * 880;
+        }
+    }
+
+    @Benchmark
+    public double updateTanks() {
+        double sum = 0;
+        for (int i = 0; i < tanks.size(); i++) {
+            Tank tank = tanks.get(i);
+            tank.update(map);
+            sum += tank.getX();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int validTankPositions() {
+        int valid = 0;
+        for (int i = 0; i < probeX.length; i++) {
+            if (world.isValidTankPosition(probeX[i], probeY[i])) valid++;
+        }
+        return valid;
+    }
+}
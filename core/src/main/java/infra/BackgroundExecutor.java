@@ -0,0 +1,191 @@
+package infra;
+
+import java.lang.reflect.Method;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * 后台任务执行器（逻辑帧之外的 I/O 工作）
+ * 记录写文件、排行榜读写、下一关地图预生成、音效预加载等都提交到这里，不再各自 new Thread。
+ *
+ * 线程：运行时支持虚拟线程就用“每任务一个虚拟线程”，否则退回守护线程的缓存线程池。
+ * 回调：任务完成后的回调不在后台线程执行，而是排进队列，由逻辑帧调用 drainCompletions() 统一执行，
+ *       所以回调里可以放心读写场景/世界状态。
+ * 关闭：场景退出时调用 shutdown()，已提交的写文件任务会跑完，但不再接受新任务，也不再执行回调。
+ */
+public class BackgroundExecutor {
+
+    private final ExecutorService executor;
+    private final Queue<Runnable> completions = new ConcurrentLinkedQueue<>();
+    private volatile boolean shutdown = false;
+
+    // ========== 统计 ==========
+    private final AtomicInteger pending = new AtomicInteger();     // 已提交、尚未执行完的任务数（队列深度）
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong totalLatencyNanos = new AtomicLong(); // 提交 -> 执行完毕
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    public BackgroundExecutor(String name) {
+        this.executor = createExecutor(name);
+    }
+
+    /**
+     * 优先使用虚拟线程（JDK 21+）；当前运行时没有时退回守护线程池
+     */
+    private static ExecutorService createExecutor(String name) {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            AtomicInteger counter = new AtomicInteger();
+            return Executors.newCachedThreadPool(r -> {
+                Thread thread = new Thread(r, name + "-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * 提交一个不关心结果的后台任务
+     */
+    public void submit(Runnable work) {
+        submit(() -> {
+            work.run();
+            return null;
+        }, null);
+    }
+
+    /**
+     * 提交一个后台任务；成功后 onComplete 会在下一次 drainCompletions()（逻辑帧）里执行
+     * @return 是否成功提交（已关闭时返回 false）
+     */
+    public <T> boolean submit(Callable<T> work, Consumer<? super T> onComplete) {
+        if (shutdown) return false;
+
+        long submitTime = System.nanoTime();
+        pending.incrementAndGet();
+        submitted.incrementAndGet();
+        try {
+            executor.execute(() -> {
+                try {
+                    T result = work.call();
+                    if (onComplete != null && !shutdown) {
+                        completions.add(() -> onComplete.accept(result));
+                    }
+                    completed.incrementAndGet();
+                } catch (Exception e) {
+                    failed.incrementAndGet();
+                    System.err.println("后台任务执行失败：" + e.getMessage());
+                    e.printStackTrace();
+                } finally {
+                    recordLatency(System.nanoTime() - submitTime);
+                    pending.decrementAndGet();
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            pending.decrementAndGet();
+            submitted.decrementAndGet();
+            return false;
+        }
+    }
+
+    private void recordLatency(long nanos) {
+        totalLatencyNanos.addAndGet(nanos);
+        maxLatencyNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * 在逻辑线程执行所有已完成任务的回调（每帧调用一次）
+     * @return 本次执行的回调数量
+     */
+    public int drainCompletions() {
+        int count = 0;
+        Runnable callback;
+        while ((callback = completions.poll()) != null) {
+            if (shutdown) {
+                completions.clear();
+                break;
+            }
+            callback.run();
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * 场景退出：不再接受新任务，丢弃未执行的回调；已在跑的任务（写文件）允许跑完
+     */
+    public void shutdown() {
+        shutdown = true;
+        completions.clear();
+        executor.shutdown();
+    }
+
+    /**
+     * 关闭并最多等待 timeoutMillis 毫秒让剩余任务完成（程序退出前用）
+     */
+    public boolean shutdownAndAwait(long timeoutMillis) {
+        shutdown();
+        try {
+            return executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    // ========== 统计接口 ==========
+
+    public int getQueueDepth() {
+        return pending.get();
+    }
+
+    public int getPendingCompletions() {
+        return completions.size();
+    }
+
+    public long getSubmittedCount() {
+        return submitted.get();
+    }
+
+    public long getCompletedCount() {
+        return completed.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    /** 平均任务延迟（毫秒，提交到执行完毕） */
+    public double getAverageLatencyMillis() {
+        long finished = completed.get() + failed.get();
+        return finished == 0 ? 0 : totalLatencyNanos.get() / (double) finished / 1_000_000.0;
+    }
+
+    /** 最大任务延迟（毫秒） */
+    public double getMaxLatencyMillis() {
+        return maxLatencyNanos.get() / 1_000_000.0;
+    }
+
+    public String getStats() {
+        return String.format("后台任务: 排队 %d, 完成 %d, 失败 %d, 平均延迟 %.2fms, 最大延迟 %.2fms",
+                getQueueDepth(), getCompletedCount(), getFailedCount(),
+                getAverageLatencyMillis(), getMaxLatencyMillis());
+    }
+}
@@ -0,0 +1,75 @@
+package infra;
+
+/**
+ * 游戏时钟（逻辑时间）
+ * 只在逻辑帧推进时走动：暂停不走、卡顿补帧时按帧数走、无界面快进时跟着帧数一起快进。
+ * 所有冷却、护盾、道具寿命等计时都应该读这里，而不是 System.currentTimeMillis()。
+ * 延时事件（转场、Buff 到期等）通过自带的时间轮调度，同样只随逻辑帧推进。
+ */
+public class GameClock {
+
+    private long ticks = 0;
+    private final TimerWheel timers = new TimerWheel();
+
+    /**
+     * 推进一个逻辑帧（由 World.step() / World.idle() 调用），顺带触发到期的延时任务
+     */
+    public void tick() {
+        ticks++;
+        timers.advance();
+    }
+
+    // ========== 延时任务 ==========
+
+    /** 若干逻辑帧后执行 */
+    public TimerHandle schedule(long delayTicks, Runnable task) {
+        return timers.schedule(delayTicks, task);
+    }
+
+    /** 若干秒（逻辑时间）后执行 */
+    public TimerHandle scheduleSeconds(double seconds, Runnable task) {
+        return timers.scheduleSeconds(seconds, task);
+    }
+
+    /** 取消所有未执行的延时任务 */
+    public void cancelAllTimers() {
+        timers.cancelAll();
+    }
+
+    public TimerWheel getTimers() {
+        return timers;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    /** 逻辑时间（纳秒） */
+    public long nanos() {
+        return ticks * GameConfig.TIME_PER_FRAME;
+    }
+
+    /** 逻辑时间（毫秒），用于替换原来的 System.currentTimeMillis() */
+    public long millis() {
+        return nanos() / 1_000_000L;
+    }
+
+    /** 逻辑时间（秒） */
+    public double seconds() {
+        return nanos() / 1_000_000_000.0;
+    }
+
+    /**
+     * 把秒数换算成逻辑帧数（向上取整，至少 1 帧）
+     */
+    public static long secondsToTicks(double seconds) {
+        return Math.max(1, (long) Math.ceil(seconds * GameConfig.TARGET_FPS));
+    }
+
+    /**
+     * 把毫秒数换算成逻辑帧数（向上取整，至少 1 帧）
+     */
+    public static long millisToTicks(long millis) {
+        return secondsToTicks(millis / 1000.0);
+    }
+}
@@ -29,6 +29,8 @@ public class GameConfig {
     public static final double BULLET_SPEED = 6.0;
     // 满足你要求的 3 次反弹逻辑
     public static final int MAX_BULLET_BOUNCES = 3;
+    // 子弹池容量（场上同时存在的子弹上限，池满时新子弹直接丢弃）
+    public static final int MAX_BULLETS = 4096;
 
     // === 5. 资源路径 (UI 组参考) ===
     // 统一资源根路径，彻底解决你遇到的 NullPointerException 问题
@@ -50,6 +52,13 @@ public class GameConfig {
     // 每一帧逻辑应该消耗的纳秒数 (1秒 = 1,000,000,000 纳秒)
     // 1_000_000_000 / 60 ≈ 16,666,666 ns
     public static final long TIME_PER_FRAME = 1_000_000_000L / TARGET_FPS;
+    // 单次渲染帧最多追赶的逻辑帧数：卡顿（GC、拖动窗口）后不再无限补帧，超出部分直接丢弃，防止“死亡螺旋”
+    public static final int MAX_STEPS_PER_FRAME = 5;
+    // 各子系统自己的更新频率（见 sim.SubsystemScheduler）
+    public static final int PHYSICS_HZ = 120; // 子弹物理：每逻辑帧 2 个子步，快子弹不穿墙
+    public static final int AI_HZ = 15;       // 敌人思考的参考频率（基准测试按它换算 dt；World 里由 sim.AiScheduler 按反应时间排队）
+    public static final int AI_BUDGET_MICROS = 1000; // 每逻辑帧敌人决策的时间预算（微秒），用完的决策顺延到下一帧
+    public static final int ITEM_HZ = 30;     // 道具动画/拾取检测：每 2 帧一次
     // 在 GameConfig 类中添加：
     public static final int PLAYER_HEALTH = 100;
     public static final int PLAYER_FIRE_COOLDOWN =200; // 0.05秒一发
@@ -83,33 +92,5 @@ public class GameConfig {
     public static final int NORMAL_BULLET_DAMAGE = 20;
     public static final int NORMAL_SCORE_VALUE = 100;
 
-    // ========== 新增：游戏暂停状态 ==========
-    private static boolean isGamePaused = false;
-
-    public static boolean isGamePaused() {
-        return isGamePaused;
-    }
-
-    public static void setGamePaused(boolean paused) {
-        isGamePaused = paused;
-    }
-
-    // 游戏结束状态管理
-    private static boolean gameOver = false;
-
-    // 判断游戏是否结束（BaseGameScene 调用的核心方法）
-    public static boolean isGameOver() {
-        return gameOver;
-    }
-
-    // 设置游戏结束状态（供子类更新状态用）
-    public static void setGameOver(boolean isOver) {
-        gameOver = isOver;
-    }
-
-    // 可选：重置游戏状态（比如重新开始游戏时调用）
-    public static void resetGameState() {
-        gameOver = false;
-        setGamePaused(false); // 顺带重置暂停状态
-    }
-}
\ No newline at end of file
+    // 暂停/结束等每局状态不放在这里，见 GameSession
+}
@@ -0,0 +1,109 @@
+package infra;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 一局游戏的上下文（取代 GameConfig 里的静态暂停/结束标记）
+ * 持有本局的暂停、结束状态、逻辑时钟、随机数和配置覆盖项，
+ * 由场景创建后显式传给 GameLoop、InputHandler 和 World（再由 World 把时钟交给实体）。
+ * 每局一个实例，所以同一个 JVM 里可以同时跑多局（并行仿真、无界面服务器），状态互不串台。
+ */
+public class GameSession {
+
+    // ========== 配置覆盖项的键 ==========
+    /** 单次渲染帧最多追赶的逻辑帧数，默认 GameConfig.MAX_STEPS_PER_FRAME */
+    public static final String MAX_STEPS_PER_FRAME = "maxStepsPerFrame";
+    /** 是否允许逻辑帧里的并行阶段，默认 true（多局并行仿真时可以关掉，避免互相抢线程池） */
+    public static final String PARALLEL_ENABLED = "parallelEnabled";
+    /** 子弹池容量，默认 GameConfig.MAX_BULLETS（压力测试可以调大） */
+    public static final String BULLET_CAPACITY = "bulletCapacity";
+    /** 每逻辑帧敌人决策预算（微秒），默认 GameConfig.AI_BUDGET_MICROS，0 表示不限（逐位复现时用） */
+    public static final String AI_BUDGET_MICROS = "aiBudgetMicros";
+
+    private final long seed;
+    private final Random random;
+    private final GameClock clock = new GameClock();
+    private final Map<String, Object> overrides = new ConcurrentHashMap<>();
+
+    // 可能被界面线程和仿真线程同时读写
+    private volatile boolean paused = false;
+    private volatile boolean gameOver = false;
+
+    public GameSession() {
+        this(System.nanoTime());
+    }
+
+    /**
+     * @param seed 本局随机种子（相同种子 + 相同输入 = 相同对局）
+     */
+    public GameSession(long seed) {
+        this.seed = seed;
+        this.random = new Random(seed);
+    }
+
+    /**
+     * 重置暂停/结束状态（重新开始本局时调用）
+     */
+    public void resetState() {
+        paused = false;
+        gameOver = false;
+    }
+
+    // ========== 配置覆盖 ==========
+
+    public GameSession override(String key, Object value) {
+        if (value == null) {
+            overrides.remove(key);
+        } else {
+            overrides.put(key, value);
+        }
+        return this;
+    }
+
+    public int getInt(String key, int defaultValue) {
+        Object value = overrides.get(key);
+        return value instanceof Number ? ((Number) value).intValue() : defaultValue;
+    }
+
+    public double getDouble(String key, double defaultValue) {
+        Object value = overrides.get(key);
+        return value instanceof Number ? ((Number) value).doubleValue() : defaultValue;
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        Object value = overrides.get(key);
+        return value instanceof Boolean ? (Boolean) value : defaultValue;
+    }
+
+    // ========== Getter / Setter ==========
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    public void setGameOver(boolean gameOver) {
+        this.gameOver = gameOver;
+    }
+
+    public GameClock getClock() {
+        return clock;
+    }
+
+    public Random getRandom() {
+        return random;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+}
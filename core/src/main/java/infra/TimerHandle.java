@@ -0,0 +1,48 @@
+package infra;
+
+/**
+ * 定时任务句柄
+ * schedule 返回它，持有者可以随时取消（例如 Buff 被新的 Buff 覆盖、场景重开）。
+ */
+public class TimerHandle {
+
+    private final long deadline;   // 到期的逻辑帧号
+    private final Runnable task;
+    private boolean cancelled = false;
+    private boolean fired = false;
+
+    TimerHandle(long deadline, Runnable task) {
+        this.deadline = deadline;
+        this.task = task;
+    }
+
+    /**
+     * 取消任务；已经执行过的任务取消无效果
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    void fire() {
+        fired = true;
+        task.run();
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /** 是否已经执行 */
+    public boolean isFired() {
+        return fired;
+    }
+
+    /** 是否还在等待执行 */
+    public boolean isPending() {
+        return !cancelled && !fired;
+    }
+
+    public long getDeadline() {
+        return deadline;
+    }
+}
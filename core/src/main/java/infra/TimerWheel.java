@@ -0,0 +1,116 @@
+package infra;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 哈希时间轮（由游戏时钟驱动）
+ * 用来替代“开线程 sleep 再 Platform.runLater”和 java.util.Timer：
+ *  - 不创建任何线程，任务在逻辑帧里、在推进时钟的线程上执行
+ *  - 暂停时时钟不走，任务也不会到期；无界面快进时跟着一起快进
+ *  - 句柄可取消，重开一局时 cancelAll() 一次清干净
+ *
+ * 结构：WHEEL_SIZE 个槽位，任务按到期帧号取模放进槽里；每帧只检查当前槽，
+ * 到期帧号还没到的（超过一圈的长延时）留在槽里等下一圈。
+ */
+public class TimerWheel {
+
+    // 槽位数（2 的幂，256 帧 ≈ 4.3 秒一圈，游戏里的延时大多在一圈以内）
+    private static final int WHEEL_SIZE = 256;
+    private static final int MASK = WHEEL_SIZE - 1;
+
+    private final List<List<TimerHandle>> slots = new ArrayList<>(WHEEL_SIZE);
+    private List<TimerHandle> spare = new ArrayList<>(); // 复用的空列表，避免每帧分配
+    private long currentTick = 0;
+    private int pendingCount = 0;
+    // 本帧正在执行的到期列表和执行到的位置（回调里调用 cancelAll() 时，这一批剩下的也要取消）
+    private List<TimerHandle> firing = null;
+    private int firingIndex = 0;
+
+    public TimerWheel() {
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            slots.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * 延迟若干逻辑帧后执行（至少 1 帧，即最早下一帧执行）
+     */
+    public TimerHandle schedule(long delayTicks, Runnable task) {
+        long deadline = currentTick + Math.max(1, delayTicks);
+        TimerHandle handle = new TimerHandle(deadline, task);
+        slots.get((int) (deadline & MASK)).add(handle);
+        pendingCount++;
+        return handle;
+    }
+
+    /**
+     * 延迟若干秒（逻辑时间）后执行
+     */
+    public TimerHandle scheduleSeconds(double seconds, Runnable task) {
+        return schedule(GameClock.secondsToTicks(seconds), task);
+    }
+
+    /**
+     * 推进一帧：执行当前槽里所有到期且未取消的任务
+     * 任务里再 schedule 的新任务不会在本帧执行
+     */
+    public void advance() {
+        currentTick++;
+        int index = (int) (currentTick & MASK);
+        List<TimerHandle> slot = slots.get(index);
+        if (slot.isEmpty()) return;
+
+        // 先把槽换成空列表再遍历，回调里新加的任务进新列表，不会被本轮处理
+        List<TimerHandle> due = slot;
+        slots.set(index, spare);
+        List<TimerHandle> keep = slots.get(index);
+
+        firing = due;
+        for (firingIndex = 0; firingIndex < due.size(); firingIndex++) {
+            TimerHandle handle = due.get(firingIndex);
+            if (handle.isCancelled()) {
+                pendingCount--;
+            } else if (handle.getDeadline() <= currentTick) {
+                pendingCount--;
+                handle.fire();
+            } else {
+                keep.add(handle); // 还差几圈
+            }
+        }
+        firing = null;
+        due.clear();
+        spare = due;
+    }
+
+    /**
+     * 取消所有未执行的任务（重开、退出场景时调用）
+     * 可以在任务回调里调用：本帧同一槽里排在后面、还没执行的任务也会被取消
+     */
+    public void cancelAll() {
+        // 正在执行的这一批已经从槽里拿出来了，剩下的只打取消标记，由 advance() 的 isCancelled 分支各减一次计数
+        int inFlight = 0;
+        if (firing != null) {
+            for (int i = firingIndex + 1; i < firing.size(); i++) {
+                firing.get(i).cancel();
+                inFlight++;
+            }
+        }
+        for (List<TimerHandle> slot : slots) {
+            for (TimerHandle handle : slot) {
+                handle.cancel();
+            }
+            slot.clear();
+        }
+        pendingCount = inFlight;
+    }
+
+    /** 等待中的任务数（包含已取消但还没被清理的） */
+    public int getPendingCount() {
+        return pendingCount;
+    }
+
+    public long getCurrentTick() {
+        return currentTick;
+    }
+}
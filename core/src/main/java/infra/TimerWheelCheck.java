@@ -0,0 +1,64 @@
+package infra;
+
+/**
+ * 时间轮的回归检查（无界面，直接运行 main，不通过时以非零退出码结束）
+ *   java -cp core/target/classes infra.TimerWheelCheck
+ */
+public class TimerWheelCheck {
+
+    public static void main(String[] args) {
+        int failures = 0;
+        failures += checkCancelAllInsideCallback();
+        failures += checkCancelAllAcrossSlots();
+        if (failures > 0) {
+            System.out.println("TimerWheelCheck: " + failures + " 项失败");
+            System.exit(1);
+        }
+        System.out.println("TimerWheelCheck: 全部通过");
+    }
+
+    /**
+     * 同一帧到期的两个任务，第一个在回调里 cancelAll()：第二个不能再执行，计数归零
+     */
+    private static int checkCancelAllInsideCallback() {
+        GameClock clock = new GameClock();
+        int[] fired = {0};
+        clock.schedule(1, () -> {
+            fired[0]++;
+            clock.cancelAllTimers();
+        });
+        TimerHandle second = clock.schedule(1, () -> fired[0]++);
+        TimerHandle later = clock.schedule(5, () -> fired[0]++);
+        for (int i = 0; i < 10; i++) {
+            clock.tick();
+        }
+        int pending = clock.getTimers().getPendingCount();
+        boolean ok = fired[0] == 1 && pending == 0 && second.isCancelled() && !second.isFired()
+                && later.isCancelled() && !later.isFired();
+        return report("回调里 cancelAll", ok, "fired=" + fired[0] + " pending=" + pending);
+    }
+
+    /**
+     * 回调里 cancelAll() 之后再 schedule 的新任务照常执行
+     */
+    private static int checkCancelAllAcrossSlots() {
+        GameClock clock = new GameClock();
+        int[] fired = {0};
+        clock.schedule(1, () -> {
+            clock.cancelAllTimers();
+            clock.schedule(2, () -> fired[0]++);
+        });
+        clock.schedule(1, () -> fired[0] += 100);
+        for (int i = 0; i < 10; i++) {
+            clock.tick();
+        }
+        int pending = clock.getTimers().getPendingCount();
+        return report("cancelAll 后重新排期", fired[0] == 1 && pending == 0,
+                "fired=" + fired[0] + " pending=" + pending);
+    }
+
+    private static int report(String name, boolean ok, String detail) {
+        System.out.println((ok ? "[通过] " : "[失败] ") + name + "  " + detail);
+        return ok ? 0 : 1;
+    }
+}
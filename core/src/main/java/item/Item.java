@@ -1,5 +1,6 @@
 package item;
 
+import infra.GameClock;
 import infra.GameConfig;
 
 import java.util.Objects;
@@ -25,6 +26,8 @@ public class Item {
     private double width, height;             // 道具尺寸
     private boolean active;                   // 是否活跃（未被吃掉）
     private long spawnTime;                   // 生成时间
+    private Tank collector;                   // 拾取者（对战模式结算炸弹用）
+    private final GameClock clock;            // 游戏时钟（寿命、闪烁都按逻辑时间计算）
 
     // ===================== 动画相关属性 =====================
     private ItemAnimationState animationState; // 当前动画状态
@@ -34,34 +37,36 @@ public class Item {
     private long lastBlinkTime;                // 上次闪烁时间
     private long blinkInterval;                // 闪烁间隔
 
-    // ===================== 静态工具 =====================
-    private static final Random random = new Random();
+    // ===================== 随机数 =====================
+    private static final Random DEFAULT_RANDOM = new Random();
+    private Random random = DEFAULT_RANDOM;    // 效果里的随机（BUFF 类型），由生成器换成本局的随机数
 
     /**
      * 构造函数
      */
-    public Item(double x, double y, ItemType type) {
+    public Item(double x, double y, ItemType type, GameClock clock) {
+        this.clock = clock;
         this.x = x;
         this.y = y;
         this.type = type;
         this.width = GameConfig.GRID_SIZE;
         this.height = GameConfig.GRID_SIZE;
         this.active = true;
-        this.spawnTime = System.currentTimeMillis();
+        this.spawnTime = clock.millis();
 
         // 初始化动画状态
         this.animationState = ItemAnimationState.SPAWNING;
         this.alpha = 0.0f;     // 初始完全透明
         this.scale = 0.5f;     // 初始缩放50%
         this.visible = true;
-        this.lastBlinkTime = System.currentTimeMillis();
+        this.lastBlinkTime = spawnTime;
         this.blinkInterval = 500; // 初始闪烁间隔500ms
     }
 
     /**
      * 随机生成一个道具
      */
-    public static Item createRandomItem(double x, double y) {
+    public static Item createRandomItem(double x, double y, GameClock clock, Random random) {
         double rand = random.nextDouble();
         ItemType type;
 
@@ -76,14 +81,16 @@ public class Item {
             type = ItemType.BUFF;           // 20% 属性增强 (新增!)
         }
 
-        return new Item(x, y, type);
+        Item item = new Item(x, y, type, clock);
+        item.setRandom(random);
+        return item;
     }
 
     /**
      * 更新道具的动画状态
      */
     public void updateAnimation() {
-        long currentTime = System.currentTimeMillis();
+        long currentTime = clock.millis();
         long aliveTime = currentTime - spawnTime;
 
         // 1. 检查是否应该开始消失动画
@@ -136,7 +143,7 @@ public class Item {
      * 检查道具是否过期
      */
     public boolean isExpired() {
-        long aliveTime = System.currentTimeMillis() - spawnTime;
+        long aliveTime = clock.millis() - spawnTime;
         return aliveTime > MAX_LIFETIME;
     }
 
@@ -202,23 +209,9 @@ public class Item {
                     System.out.println("💪 伤害翻倍: " + tank);
                 }
 
-                // 2. 【核心修复】开启新线程倒计时，防止卡死游戏！！！
-                // 如果没有 new Thread，游戏就会卡住不动！
-                new Thread(() -> {
-                    try {
-                        Thread.sleep(10000); // 后台等待10秒
-
-                        // 时间到，切回主线程恢复属性
-                        javafx.application.Platform.runLater(() -> {
-                            if (tank.isAlive()) {
-                                tank.resetStats();
-                                System.out.println("Buff 效果结束");
-                            }
-                        });
-                    } catch (InterruptedException e) {
-                        e.printStackTrace();
-                    }
-                }).start(); // <--- 必须有 .start()
+                // 2. 10秒后恢复属性：交给游戏时钟的时间轮，不再开线程 sleep
+                // 暂停时不计时，重开一局时随时钟一起取消
+                tank.scheduleBuffExpiry(10.0);
 
                 return true;
 
@@ -274,12 +267,14 @@ public class Item {
     public double getHeight() { return height; }
     public boolean isActive() { return active && !isExpired(); }
     public long getSpawnTime() { return spawnTime; }
+    public Tank getCollector() { return collector; }
+    public void setCollector(Tank collector) { this.collector = collector; }
     public long getMaxLifetime() { return MAX_LIFETIME; }
     public ItemAnimationState getAnimationState() { return animationState; }
     public float getAlpha() { return alpha; }
     public float getScale() { return scale; }
     public boolean isVisible() { return visible; }
-    public long getAliveTime() { return System.currentTimeMillis() - spawnTime; }
+    public long getAliveTime() { return clock.millis() - spawnTime; }
     public long getRemainingTime() { return Math.max(0, MAX_LIFETIME - getAliveTime()); }
     public int getEffectDuration() { return type.getDuration(); }
     public void setType(ItemType type) { this.type = type; }
@@ -327,4 +322,8 @@ public class Item {
                 ", blinkInterval=" + blinkInterval +
                 '}';
     }
-}
\ No newline at end of file
+
+    public void setRandom(Random random) {
+        this.random = random != null ? random : DEFAULT_RANDOM;
+    }
+}
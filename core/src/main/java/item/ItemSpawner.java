@@ -1,5 +1,7 @@
 package item;
 
+import infra.GameClock;
+import infra.GameSession;
 import model.*;
 
 import java.util.*;
@@ -13,15 +15,18 @@ public class ItemSpawner {
 
     private List<Item> activeItems;           // 当前活跃的道具列表
     private List<Item> collectedItems;        // 本帧被拾取的道具列表（用于特效和音效）
-    private Random random;
+    private Random random;                    // 本局的随机数（同一种子可复现掉落）
+    private final GameClock clock;            // 游戏时钟（传给生成的道具，计算寿命和闪烁）
 
     /**
      * 构造函数
+     * @param session 所属对局（提供时钟和随机数）
      */
-    public ItemSpawner() {
+    public ItemSpawner(GameSession session) {
+        this.clock = session.getClock();
+        this.random = session.getRandom();
         activeItems = new ArrayList<>();
         collectedItems = new ArrayList<>();
-        random = new Random();
     }
 
     /**
@@ -38,7 +43,7 @@ public class ItemSpawner {
             // 在敌方坦克死亡位置生成道具
             double x = enemy.getX();
             double y = enemy.getY();
-            Item item = Item.createRandomItem(x, y);
+            Item item = Item.createRandomItem(x, y, clock, random);
             activeItems.add(item);
 
             System.out.println("生成道具: " + item.getType().getName() +
@@ -66,11 +71,11 @@ public class ItemSpawner {
     /**
      * 更新所有道具状态
      * 1. 更新道具动画
-     * 2. 检查道具与玩家的碰撞
+     * 2. 检查道具与坦克的碰撞（单人模式只传玩家，对战模式传入双方）
      * 3. 移除过期或被拾取的道具
-     * @param player 玩家坦克对象
+     * @param pickers 可以拾取道具的坦克
      */
-    public void update(PlayerTank player) {
+    public void update(Tank... pickers) {
         // 清空上一帧的拾取列表
         collectedItems.clear();
 
@@ -90,18 +95,24 @@ public class ItemSpawner {
                 continue;
             }
 
-            // 3. 检查玩家是否拾取道具
-            if (item.checkCollision(player)) {
+            // 3. 检查坦克是否拾取道具（先到先得）
+            for (Tank picker : pickers) {
+                if (picker == null || !item.checkCollision(picker)) continue;
+
                 // 【关键修改】炸弹不调用applyEffect，直接标记拾取
                 if (item.getType() == ItemType.BOMB) {
+                    item.setCollector(picker);
                     collectedItems.add(item);
                     iterator.remove();
                     System.out.println("拾取炸弹道具");
+                    break;
                 }
                 // 其他道具正常调用applyEffect
-                else if (item.applyEffect(player)) {
+                else if (item.applyEffect(picker)) {
+                    item.setCollector(picker);
                     collectedItems.add(item);
                     iterator.remove();
+                    break;
                 }
             }
         }
@@ -142,9 +153,10 @@ public class ItemSpawner {
     public void spawnItemAt(double x, double y, ItemType type) {
         Item item;
         if (type == null) {
-            item = Item.createRandomItem(x, y);
+            item = Item.createRandomItem(x, y, clock, random);
         } else {
-            item = new Item(x, y, type);
+            item = new Item(x, y, type, clock);
+            item.setRandom(random);
         }
         activeItems.add(item);
 
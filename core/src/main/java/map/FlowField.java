@@ -0,0 +1,285 @@
+package map;
+
+import infra.GameConfig;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * 共享流场：全图每个格子“往玩家走，下一步该去哪一格”
+ * 原来每个敌人各自朝玩家直线开、撞墙就原地左转，敌人越多重复探路越多，还经常绕不出去；
+ * 现在由 World 每帧（串行阶段）调用一次 update()，从玩家所在格子在坦克可通行的格子上做 BFS，
+ * 所有敌人只读自己所在格子的方向，寻路开销与敌人数量无关。
+ *
+ * 只有玩家换了格子才整张重建，其余帧 update() 直接返回。
+ * 距离按四连通 BFS 计算；方向在八个邻格里挑距离最小的，斜走要求两侧的直邻格都能走（不切墙角）。
+ * 重建之后到下一次 update() 之间只读，可以在并行阶段被多个敌人同时查询。
+ *
+ * 地形变化（砖块被打掉）走增量修补：按 MapModel 的变化日志只处理改过的格子，
+ * 新打通的格子从已知距离的邻格接上，再只向距离变短的方向做 BFS 扩散，最后只重算这些格子及其邻格的方向。
+ * 没被波及的格子保持原样，相当于每个敌人的路线一直缓存着，直到变化真正影响到它经过的格子。
+ * 格子变成不可通行（距离只会变长）或日志已经被覆盖时，退回整张重建。
+ */
+public class FlowField {
+
+    /** 不可达（墙里、被墙围住的区域）的距离 */
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    // 八个方向：前四个是直邻，后四个是斜邻（距离相同时优先直走）
+    private static final int[] DR = {-1, 1, 0, 0, -1, -1, 1, 1};
+    private static final int[] DC = {0, 0, -1, 1, -1, 1, -1, 1};
+
+    private final int rows;
+    private final int cols;
+    private final int[] distance;  // 到目标格的步数
+    private final int[] next;      // 下一步的格子编号，目标格和不可达格为 -1
+    private final int[] queue;     // BFS 队列，重建完就是“所有可达格子”的列表（增量修补接通的格子追加在后面）
+    private int reached;           // 可达格子数（queue 前 reached 个有效）
+    private final int[] work;      // 增量修补用的 BFS 队列
+    private final int[] touched;   // 增量修补中距离变过的格子（方向要重算）
+    private final int[] touchMark; // touched 去重：等于 touchEpoch 表示本次已记录
+    private int touchedCount;
+    private int touchEpoch;
+
+    private MapModel map;
+    private int terrainVersion = -1;
+    private int targetCell = -1;
+    private int buildCount;        // 累计整张重建次数（调试/基准测试用）
+    private int repairCount;       // 累计增量修补次数
+
+    public FlowField() {
+        this(GameConfig.MAP_ROWS, GameConfig.MAP_COLS);
+    }
+
+    public FlowField(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        this.distance = new int[rows * cols];
+        this.next = new int[rows * cols];
+        this.queue = new int[rows * cols];
+        this.work = new int[rows * cols];
+        this.touched = new int[rows * cols];
+        this.touchMark = new int[rows * cols];
+        Arrays.fill(distance, UNREACHABLE);
+        Arrays.fill(next, -1);
+    }
+
+    // ========== 重建 ==========
+
+    /**
+     * 把目标设为像素坐标 (targetX, targetY) 所在的格子
+     * @return 是否真的重建了（目标格和地形都没变时什么都不做）
+     */
+    public boolean update(MapModel map, double targetX, double targetY) {
+        int row = clamp(MapModel.toCell(targetY), rows);
+        int col = clamp(MapModel.toCell(targetX), cols);
+        int cell = row * cols + col;
+        if (map == this.map && cell == targetCell) {
+            int version = map.getTerrainVersion();
+            if (version == terrainVersion) return false;
+            if (repair(version)) {
+                terrainVersion = version;
+                repairCount++;
+                return true;
+            }
+        }
+        this.map = map;
+        this.targetCell = cell;
+        this.terrainVersion = map.getTerrainVersion();
+        rebuild();
+        return true;
+    }
+
+    private void rebuild() {
+        Arrays.fill(distance, UNREACHABLE);
+        Arrays.fill(next, -1);
+
+        // 1. 四连通 BFS 求距离（目标格本身不检查通行性：玩家中心偶尔会压在墙边的格子上）
+        int head = 0;
+        int tail = 0;
+        distance[targetCell] = 0;
+        queue[tail++] = targetCell;
+        while (head < tail) {
+            int cell = queue[head++];
+            int r = cell / cols;
+            int c = cell - r * cols;
+            int d = distance[cell] + 1;
+            for (int k = 0; k < 4; k++) {
+                int nr = r + DR[k];
+                int nc = c + DC[k];
+                if (!map.isTankPassable(nr, nc)) continue;
+                int n = nr * cols + nc;
+                if (distance[n] != UNREACHABLE) continue;
+                distance[n] = d;
+                queue[tail++] = n;
+            }
+        }
+        reached = tail;
+
+        // 2. 每个可达格子指向八邻格里离目标最近的一格
+        for (int i = 1; i < reached; i++) {
+            computeNext(queue[i]);
+        }
+        buildCount++;
+    }
+
+    private void computeNext(int cell) {
+        if (distance[cell] == UNREACHABLE || cell == targetCell) {
+            next[cell] = -1;
+            return;
+        }
+        int r = cell / cols;
+        int c = cell - r * cols;
+        int best = -1;
+        int bestDistance = distance[cell];
+        for (int k = 0; k < 8; k++) {
+            int nr = r + DR[k];
+            int nc = c + DC[k];
+            if (nr < 0 || nc < 0 || nr >= rows || nc >= cols) continue;
+            int n = nr * cols + nc;
+            if (distance[n] >= bestDistance) continue;
+            // 斜走不能切墙角
+            if (k >= 4 && (!map.isTankPassable(r, nc) || !map.isTankPassable(nr, c))) continue;
+            best = n;
+            bestDistance = distance[n];
+        }
+        next[cell] = best;
+    }
+
+    // ========== 增量修补 ==========
+
+    /**
+     * 处理 (terrainVersion, version] 之间改过的格子
+     * @return false 表示没法增量处理（日志不全、有可达格子变成了墙），需要整张重建
+     */
+    private boolean repair(int version) {
+        touchEpoch++;
+        touchedCount = 0;
+        for (int v = terrainVersion + 1; v <= version; v++) {
+            int cell = map.getChangedCell(v);
+            if (cell < 0) return false;
+            int r = cell / cols;
+            int c = cell - r * cols;
+            touch(cell); // 通行性变了，周围格子的斜走判定也跟着变
+            if (!map.isTankPassable(r, c)) {
+                // 变成墙：经过它的距离都可能变长，这里只做“变短”的修补
+                if (distance[cell] != UNREACHABLE && cell != targetCell) return false;
+                continue;
+            }
+
+            // 新打通的格子：从四邻里最近的一格接上（同一批里先处理的格子可能已经给它填了一个偏大的距离）
+            int best = UNREACHABLE;
+            for (int k = 0; k < 4; k++) {
+                best = Math.min(best, getDistance(r + DR[k], c + DC[k]));
+            }
+            if (best == UNREACHABLE || best + 1 >= distance[cell]) continue; // 不连通，或距离没有变短
+            if (distance[cell] == UNREACHABLE) {
+                queue[reached++] = cell;
+            }
+            distance[cell] = best + 1;
+            relaxFrom(cell);
+        }
+
+        // 距离变过的格子和它们的八邻格重新挑方向
+        for (int i = 0; i < touchedCount; i++) {
+            int cell = touched[i];
+            int r = cell / cols;
+            int c = cell - r * cols;
+            computeNext(cell);
+            for (int k = 0; k < 8; k++) {
+                int nr = r + DR[k];
+                int nc = c + DC[k];
+                if (nr < 0 || nc < 0 || nr >= rows || nc >= cols) continue;
+                computeNext(nr * cols + nc);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 从距离刚变短的 seed 向外 BFS，只走能让邻格距离变短的方向（单个起点，距离单调，每格最多入队一次）
+     */
+    private void relaxFrom(int seed) {
+        int head = 0;
+        int tail = 0;
+        work[tail++] = seed;
+        while (head < tail) {
+            int cell = work[head++];
+            touch(cell);
+            int r = cell / cols;
+            int c = cell - r * cols;
+            int d = distance[cell] + 1;
+            for (int k = 0; k < 4; k++) {
+                int nr = r + DR[k];
+                int nc = c + DC[k];
+                if (!map.isTankPassable(nr, nc)) continue;
+                int n = nr * cols + nc;
+                if (distance[n] <= d) continue;
+                if (distance[n] == UNREACHABLE) {
+                    queue[reached++] = n; // 原来不可达的区域被接通了
+                }
+                distance[n] = d;
+                work[tail++] = n;
+            }
+        }
+    }
+
+    private void touch(int cell) {
+        if (touchMark[cell] == touchEpoch) return;
+        touchMark[cell] = touchEpoch;
+        touched[touchedCount++] = cell;
+    }
+
+    private static int clamp(int value, int size) {
+        return Math.max(0, Math.min(value, size - 1));
+    }
+
+    // ========== 查询 ==========
+
+    /** 是否已经建好（还没调用过 update() 时所有格子都不可达） */
+    public boolean isReady() {
+        return map != null;
+    }
+
+    public int getDistance(int row, int col) {
+        if (row < 0 || col < 0 || row >= rows || col >= cols) return UNREACHABLE;
+        return distance[row * cols + col];
+    }
+
+    /**
+     * 从 (row, col) 往目标走的下一格
+     * @return 格子编号 row * cols + col；已经在目标格、不可达或越界时返回 -1
+     */
+    public int getNextCell(int row, int col) {
+        if (row < 0 || col < 0 || row >= rows || col >= cols) return -1;
+        return next[row * cols + col];
+    }
+
+    /**
+     * 在所有能走到目标的格子里均匀随机挑一个（巡逻点），一个都没有时返回 -1
+     */
+    public int randomReachableCell(Random random) {
+        if (reached == 0) return -1;
+        return queue[random.nextInt(reached)];
+    }
+
+    public int getReachableCount() {
+        return reached;
+    }
+
+    public int getTargetCell() {
+        return targetCell;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getBuildCount() {
+        return buildCount;
+    }
+
+    public int getRepairCount() {
+        return repairCount;
+    }
+}
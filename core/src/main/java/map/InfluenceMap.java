@@ -0,0 +1,261 @@
+package map;
+
+import infra.GameConfig;
+import model.BulletPool;
+import model.EnemyTank;
+import model.Tank;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 影响力图：格子级的“这里危不危险、挤不挤”，所有敌人共享
+ * 原来每个敌人攻击/撤退时各自只看和玩家的距离、角度，结果一群坦克挤在同一条线上互相堵，
+ * 防重叠每帧都在推来推去；现在由 World 在串行阶段每帧更新三层，敌人决策时只读、按格子采样挑落脚点。
+ *
+ * 三层（值越大越不想去）：
+ *   threat   玩家威胁：玩家视线能到的格子记 THREAT_EXPOSED，炮口朝向的锥形范围内（THREAT_CONE_RANGE 格以内）再加 THREAT_CONE
+ *   danger   子弹危险道：玩家的每颗子弹沿速度方向往前 DANGER_LANE_CELLS 格，越近越危险，碰到挡子弹的格子为止
+ *   density  敌人密度：每辆敌人所在格子记 DENSITY_CENTER，周围八格各记 DENSITY_EDGE，
+ *            它正要去的落脚格（EnemyTank.getPositionCell）记 DENSITY_CLAIM，后来的坦克不会挑同一格
+ *
+ * 增量更新：
+ *   threat 只在玩家换格子、炮口转过一个扇区（22.5°）或视线表变了时重算，其余帧不动
+ *   danger、density 只清掉上一帧写过的格子再重新盖章，开销和子弹数、敌人数成正比，与地图大小无关
+ * 更新只在串行阶段做，之后整帧只读，可以在并行阶段被多个敌人同时查询。
+ */
+public class InfluenceMap {
+
+    /** 玩家视线能到的格子 */
+    public static final int THREAT_EXPOSED = 1;
+    /** 炮口锥形范围内额外加的威胁 */
+    public static final int THREAT_CONE = 4;
+    /** 锥形范围（格） */
+    public static final int THREAT_CONE_RANGE = 10;
+    /** 锥形半角（度） */
+    public static final double THREAT_CONE_HALF_ANGLE = 30.0;
+    /** 子弹危险道往前看几格 */
+    public static final int DANGER_LANE_CELLS = 8;
+    /** 子弹所在格子的危险值（往前每格减一，最低 1） */
+    public static final int DANGER_MAX = 6;
+    /** 敌人所在格子的密度 */
+    public static final int DENSITY_CENTER = 2;
+    /** 敌人周围八格的密度 */
+    public static final int DENSITY_EDGE = 1;
+    /** 已经被某辆敌人选作落脚点的格子 */
+    public static final int DENSITY_CLAIM = 2;
+
+    private static final int SECTORS = 16; // 炮口朝向量化成 16 个扇区，转一点点不重算
+
+    private final int rows;
+    private final int cols;
+    private final int[] threat;
+    private final int[] danger;
+    private final int[] density;
+    private final int[] dangerCells;  // 上一次写过 danger 的格子（下次只清这些）
+    private int dangerCount;
+    private final int[] densityCells; // 上一次写过 density 的格子
+    private int densityCount;
+
+    // threat 的缓存键：这些都没变就不重算
+    private MapModel map;
+    private int playerCell = -1;
+    private int playerSector = -1;
+    private int visibilityVersion = -1;
+    private int threatBuildCount;  // 累计重算 threat 的次数（调试/基准测试用）
+
+    public InfluenceMap() {
+        this(GameConfig.MAP_ROWS, GameConfig.MAP_COLS);
+    }
+
+    public InfluenceMap(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        this.threat = new int[rows * cols];
+        this.danger = new int[rows * cols];
+        this.density = new int[rows * cols];
+        this.dangerCells = new int[rows * cols];
+        this.densityCells = new int[rows * cols];
+    }
+
+    // ========== 更新 ==========
+
+    /**
+     * 每帧调用一次（串行阶段，视线表更新之后）
+     * @param bullets 场上子弹，只看玩家一方的
+     * @param enemies 敌人列表，死亡的跳过
+     */
+    public void update(MapModel map, VisibilityTable visibility, Tank player,
+                       BulletPool bullets, List<Tank> enemies) {
+        updateThreat(map, visibility, player);
+        updateDanger(map, bullets);
+        updateDensity(enemies);
+    }
+
+    private void updateThreat(MapModel map, VisibilityTable visibility, Tank player) {
+        int row = clamp(MapModel.toCell(player.getCenterY()), rows);
+        int col = clamp(MapModel.toCell(player.getCenterX()), cols);
+        int cell = row * cols + col;
+        double rotation = player.getDisplayRotation();
+        int sector = Math.floorMod((int) Math.round(rotation / (360.0 / SECTORS)), SECTORS);
+        int version = visibility.getBuildCount() + visibility.getRepairCount();
+        if (map == this.map && cell == playerCell && sector == playerSector && version == visibilityVersion) return;
+        this.map = map;
+        this.playerCell = cell;
+        this.playerSector = sector;
+        this.visibilityVersion = version;
+
+        // 炮口方向（0 度朝上，顺时针），按扇区中心算，结果只取决于缓存键
+        double radians = Math.toRadians(sector * (360.0 / SECTORS));
+        double fx = Math.sin(radians);
+        double fy = -Math.cos(radians);
+        double coneCos = Math.cos(Math.toRadians(THREAT_CONE_HALF_ANGLE));
+        int coneRangeSq = THREAT_CONE_RANGE * THREAT_CONE_RANGE;
+
+        Arrays.fill(threat, 0);
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                if (!visibility.hasLineOfSight(row, col, r, c) && (r != row || c != col)) continue;
+                int value = THREAT_EXPOSED;
+                int dr = r - row;
+                int dc = c - col;
+                int distanceSq = dr * dr + dc * dc;
+                if (distanceSq <= coneRangeSq) {
+                    // 玩家自己所在的格子和炮口正前方一样危险
+                    if (distanceSq == 0 || (dc * fx + dr * fy) >= coneCos * Math.sqrt(distanceSq)) {
+                        value += THREAT_CONE;
+                    }
+                }
+                threat[r * cols + c] = value;
+            }
+        }
+        threatBuildCount++;
+    }
+
+    private void updateDanger(MapModel map, BulletPool bullets) {
+        for (int i = 0; i < dangerCount; i++) {
+            danger[dangerCells[i]] = 0;
+        }
+        dangerCount = 0;
+
+        double grid = GameConfig.GRID_SIZE;
+        double half = bullets.getBulletSize() / 2;
+        for (int i = 0; i < bullets.size(); i++) {
+            if (!bullets.isAlive(i) || bullets.isEnemy(i)) continue;
+            double vx = bullets.getSpeedX(i);
+            double vy = bullets.getSpeedY(i);
+            double speed = Math.sqrt(vx * vx + vy * vy);
+            if (speed == 0) continue;
+            // 每半格采样一次，沿途格子按离子弹的远近记危险值
+            double stepX = vx / speed * grid / 2;
+            double stepY = vy / speed * grid / 2;
+            double x = bullets.getX(i) + half;
+            double y = bullets.getY(i) + half;
+            for (int step = 0; step <= DANGER_LANE_CELLS * 2; step++) {
+                int r = MapModel.toCell(y + stepY * step);
+                int c = MapModel.toCell(x + stepX * step);
+                if (!map.isBulletPassable(r, c)) break;
+                int cell = r * cols + c;
+                int value = Math.max(1, DANGER_MAX - step / 2);
+                if (danger[cell] == 0) {
+                    dangerCells[dangerCount++] = cell;
+                }
+                if (value > danger[cell]) {
+                    danger[cell] = value;
+                }
+            }
+        }
+    }
+
+    private void updateDensity(List<Tank> enemies) {
+        for (int i = 0; i < densityCount; i++) {
+            density[densityCells[i]] = 0;
+        }
+        densityCount = 0;
+
+        for (int i = 0; i < enemies.size(); i++) {
+            Tank enemy = enemies.get(i);
+            if (!enemy.isAlive()) continue;
+            int row = MapModel.toCell(enemy.getCenterY());
+            int col = MapModel.toCell(enemy.getCenterX());
+            for (int dr = -1; dr <= 1; dr++) {
+                for (int dc = -1; dc <= 1; dc++) {
+                    int r = row + dr;
+                    int c = col + dc;
+                    if (r < 0 || c < 0 || r >= rows || c >= cols) continue;
+                    int cell = r * cols + c;
+                    if (density[cell] == 0) {
+                        densityCells[densityCount++] = cell;
+                    }
+                    density[cell] += dr == 0 && dc == 0 ? DENSITY_CENTER : DENSITY_EDGE;
+                }
+            }
+            int claim = enemy instanceof EnemyTank ? ((EnemyTank) enemy).getPositionCell() : -1;
+            if (claim >= 0 && claim < density.length) {
+                if (density[claim] == 0) {
+                    densityCells[densityCount++] = claim;
+                }
+                density[claim] += DENSITY_CLAIM;
+            }
+        }
+    }
+
+    private static int clamp(int value, int size) {
+        return Math.max(0, Math.min(value, size - 1));
+    }
+
+    // ========== 查询 ==========
+
+    /** 是否已经更新过（还没调用过 update() 时三层全是 0） */
+    public boolean isReady() {
+        return map != null;
+    }
+
+    public int getThreat(int row, int col) {
+        if (row < 0 || col < 0 || row >= rows || col >= cols) return 0;
+        return threat[row * cols + col];
+    }
+
+    public int getDanger(int row, int col) {
+        if (row < 0 || col < 0 || row >= rows || col >= cols) return 0;
+        return danger[row * cols + col];
+    }
+
+    public int getDensity(int row, int col) {
+        if (row < 0 || col < 0 || row >= rows || col >= cols) return 0;
+        return density[row * cols + col];
+    }
+
+    /**
+     * 扣掉某辆坦克自己盖的章之后的密度（敌人给自己挑位置时用）
+     * @param selfRow   它所在的行（更新时的位置）
+     * @param selfCol   它所在的列
+     * @param selfClaim 它已经选定的落脚格，-1 表示没有
+     */
+    public int getDensityExcluding(int row, int col, int selfRow, int selfCol, int selfClaim) {
+        int value = getDensity(row, col);
+        int dr = Math.abs(row - selfRow);
+        int dc = Math.abs(col - selfCol);
+        if (dr == 0 && dc == 0) {
+            value -= DENSITY_CENTER;
+        } else if (dr <= 1 && dc <= 1) {
+            value -= DENSITY_EDGE;
+        }
+        if (row * cols + col == selfClaim) {
+            value -= DENSITY_CLAIM;
+        }
+        return Math.max(0, value);
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getThreatBuildCount() {
+        return threatBuildCount;
+    }
+}
@@ -1,5 +1,7 @@
 package map;
 
+import java.util.Random;
+
 /**
  * 地图工厂类
  * 负责根据当前关卡数 (Level) 决定生成哪种类型的地图
@@ -12,25 +14,39 @@ public class MapFactory {
      * @return 生成好的二维数组地图
      */
     public static int[][] getMap(int level) {
+        return getMap(level, new Random());
+    }
+
+    /**
+     * 根据关卡生成地图，所有随机都取自传入的 random（同一个种子生成同一张图）
+     * @param level  当前关卡数 (1, 2, 3...)
+     * @param random 随机数生成器，只在调用线程里使用
+     * @return 生成好的二维数组地图
+     */
+    public static int[][] getMap(int level, Random random) {
         // 策略：
         // 第 1 关：强制为 "大战场" (Battlefield) - 让玩家熟悉操作，空间大
         // 第 2+ 关：50% 概率是大战场，50% 概率是巷战 (Maze)
 
         if (level == 1) {
-            return new BattlefieldMapGenerator().generate();
+            return battlefield(random);
         } else {
             // 随机决定
-            if (Math.random() < 0.5) {
+            if (random.nextDouble() < 0.5) {
                 // 生成大战场
-                return new BattlefieldMapGenerator().generate();
+                return battlefield(random);
             } else {
                 // 生成巷战 (迷宫)
                 // 随着关卡增加，我们可以让迷宫更难 (例如 blockSize=1 的细路)
                 // 这里暂时保持默认
-                return new MazeDigger().generate();
+                return new MazeDigger(random).generate();
             }
         }
     }
 
-
+    private static int[][] battlefield(Random random) {
+        BattlefieldMapGenerator generator = new BattlefieldMapGenerator();
+        generator.setRandom(random);
+        return generator.generate();
+    }
 }
\ No newline at end of file
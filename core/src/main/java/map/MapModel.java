@@ -0,0 +1,441 @@
+package map;
+
+import infra.GameConfig; // ✅ 核心修改：统一使用 GameConfig，不再使用 MapConstants
+import model.Tile;
+import model.TileType;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 地图模型类（兼容 闯关模式 + 无尽模式）
+ *
+ * 除了 Tile[][]，还按属性维护四张位图（每格 1 bit，每行占 wordsPerRow 个 long）：
+ *   坦克可通行、子弹可通行、子弹反弹（石墙）、隐身（草丛）。
+ * 热路径（坦克撞墙、子弹扫掠、AI 探路）只查位图：一次移位加一次掩码，不碰 Tile 对象；
+ * 整行/矩形区域检查按 long 整字比较。格子类型变化（砖块被打掉）时 O(1) 改对应的位。
+ *
+ * 地形本身存成紧凑的 byte[]（每格一个 TileType 序号，按行排列）加一张“被破坏”位图。
+ * getTiles() 返回的 Tile 只是每格一个的轻量视图（享元），读写都落到这里的数组上，
+ * 整个 MapModel 生命周期里只创建一次；换关卡/换波次只是把模板 arraycopy 进来，不再重建 Tile 对象。
+ */
+public class MapModel {
+
+    public static final int LEVEL_1 = 1;
+    public static final int LEVEL_2 = 2;
+    public static final int LEVEL_3 = 3;
+
+    // ✅ 修改点：统一使用 GameConfig 的尺寸，确保和工厂生成的地图大小一致
+    private final int rows = GameConfig.MAP_ROWS;
+    private final int cols = GameConfig.MAP_COLS;
+
+    private static final TileType[] TYPES = TileType.values();
+
+    /** 扫掠贴墙时停在墙外的距离（像素），避免浮点误差让坐标落回墙所在的格子 */
+    public static final double CONTACT_EPSILON = 0.01;
+
+    /** 关卡模板缓存：关卡号 -> 解析好的 byte 地形，reset 时直接 arraycopy */
+    private static final Map<Integer, byte[]> LEVEL_TEMPLATES = new ConcurrentHashMap<>();
+
+    /** 地形：cells[row * cols + col] = TileType 序号 */
+    private final byte[] cells = new byte[rows * cols];
+
+    /** 地图格子视图（享元，读写都转到 cells） */
+    private final Tile[][] tiles;
+
+    /** 是否为闯关模式（影响草丛隐身） */
+    private boolean campaignMode = true;
+
+    // ========== 通行性位图 ==========
+    private final int wordsPerRow = (cols + 63) >>> 6;
+    private final long[] tankPassable = new long[rows * wordsPerRow];
+    private final long[] bulletPassable = new long[rows * wordsPerRow];
+    private final long[] reflective = new long[rows * wordsPerRow];
+    private final long[] concealing = new long[rows * wordsPerRow];
+    private final long[] destroyed = new long[rows * wordsPerRow];
+
+    /** 地形版本号：任何格子变化都 +1，依赖地形的缓存（出生点索引等）据此判断要不要重算 */
+    private int terrainVersion = 0;
+
+    /**
+     * 地形变化日志（环形缓冲）：changeLog[v % CHANGE_LOG_SIZE] 是变到第 v 版时改的格子编号，整张换图记 -1。
+     * 缓存（流场等）可以只处理落下的这几格做增量修补，落下太多版本或遇到 -1 再整张重算
+     */
+    private static final int CHANGE_LOG_SIZE = 64;
+    private final int[] changeLog = new int[CHANGE_LOG_SIZE];
+
+    // ==========================================
+    // 构造函数 (兼容两种模式)
+    // ==========================================
+
+    /** * 构造函数 1：闯关模式专用
+     * 读取 LevelData 静态数据
+     */
+    public MapModel(int level) {
+        tiles = createTileViews();
+        loadLevel(level); // ✅ 保留你原有的加载逻辑
+    }
+
+    /** * 构造函数 2：无尽模式专用
+     * 接收 MapFactory 生成的动态数据
+     */
+    public MapModel(int[][] data) {
+        tiles = createTileViews();
+        // 直接使用传入的 data 填充
+        load(data);
+    }
+
+    private Tile[][] createTileViews() {
+        Tile[][] views = new Tile[rows][cols];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                views[r][c] = new Tile(this, r, c);
+            }
+        }
+        return views;
+    }
+
+    // ==========================================
+    // 关卡加载逻辑 (保持不变)
+    // ==========================================
+
+    /** 从 LevelData 加载 (闯关模式) */
+    private void loadLevel(int level) {
+        byte[] template = LEVEL_TEMPLATES.computeIfAbsent(level, MapModel::parseLevel);
+        System.arraycopy(template, 0, cells, 0, cells.length);
+        rebuildLayers();
+    }
+
+    private static byte[] parseLevel(int level) {
+        int[][] data;
+        switch (level) {
+            case 2:
+                // 请确保 LevelData 类存在且可访问
+                data = LevelData.LEVEL_2;
+                break;
+            case 3:
+                data = LevelData.LEVEL_3;
+                break;
+            default:
+                data = LevelData.LEVEL_1;
+        }
+        byte[] template = new byte[GameConfig.MAP_ROWS * GameConfig.MAP_COLS];
+        encode(data, template, GameConfig.MAP_ROWS, GameConfig.MAP_COLS);
+        return template;
+    }
+
+    /**
+     * 换一张新图（无尽模式每波调用），复用现有数组和 Tile 视图
+     */
+    public void load(int[][] data) {
+        encode(data, cells, rows, cols);
+        rebuildLayers();
+    }
+
+    /** 通用填充逻辑：int[][] 地图编码 -> byte 序号，缺的格子当空地 */
+    private static void encode(int[][] data, byte[] out, int rows, int cols) {
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                TileType type = TileType.EMPTY;
+
+                // 安全检查
+                if (data != null && r < data.length && c < data[r].length) {
+                    type = TileType.fromCode(data[r][c]);
+                }
+                out[r * cols + c] = (byte) type.ordinal();
+            }
+        }
+    }
+
+    /** 地形整体换掉后重算所有位图，被破坏标记清零 */
+    private void rebuildLayers() {
+        Arrays.fill(destroyed, 0L);
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                updateBits(r, c, TYPES[cells[r * cols + c]]);
+            }
+        }
+        recordChange(-1);
+    }
+
+    private void recordChange(int cell) {
+        terrainVersion++;
+        changeLog[terrainVersion & (CHANGE_LOG_SIZE - 1)] = cell;
+    }
+
+    /**
+     * 变到第 version 版时改的是哪一格
+     * @return 格子编号 row * cols + col；整张换图、版本号超出日志范围时返回 -1（调用方应整张重算）
+     */
+    public int getChangedCell(int version) {
+        if (version <= 0 || version > terrainVersion || version <= terrainVersion - CHANGE_LOG_SIZE) {
+            return -1;
+        }
+        return changeLog[version & (CHANGE_LOG_SIZE - 1)];
+    }
+
+    // ==========================================
+    // 位图维护
+    // ==========================================
+
+    /**
+     * 修改某一格的地形（场景强制清障、Tile 视图的 setType），只改这一格的位
+     */
+    public void setTileType(int row, int col, TileType type) {
+        if (!isInside(row, col)) return;
+        int cell = row * cols + col;
+        if (cells[cell] == type.ordinal()) return; // 没变（打掉砖块时会连着设两次空地）
+        cells[cell] = (byte) type.ordinal();
+        updateBits(row, col, type);
+        recordChange(cell);
+    }
+
+    /**
+     * 标记某一格被破坏：砖墙变成空地（子弹打掉砖块）
+     */
+    public void destroyTile(int row, int col) {
+        setDestroyed(row, col, true);
+        setTileType(row, col, TileType.EMPTY);
+    }
+
+    /**
+     * 单独设置破坏标记；砖墙被标记破坏时同时变成空地
+     */
+    public void setDestroyed(int row, int col, boolean value) {
+        if (!isInside(row, col)) return;
+        setBit(destroyed, row * wordsPerRow + (col >>> 6), 1L << (col & 63), value);
+        if (value && getTileType(row, col) == TileType.BRICK) {
+            setTileType(row, col, TileType.EMPTY);
+        }
+    }
+
+    public TileType getTileType(int row, int col) {
+        if (!isInside(row, col)) return null;
+        return TYPES[cells[row * cols + col]];
+    }
+
+    public boolean isDestroyed(int row, int col) {
+        return isInside(row, col) && testBit(destroyed, row * wordsPerRow + (col >>> 6), col);
+    }
+
+    private void updateBits(int row, int col, TileType type) {
+        int word = row * wordsPerRow + (col >>> 6);
+        long bit = 1L << (col & 63);
+        setBit(tankPassable, word, bit, type.isTankPassable());
+        setBit(bulletPassable, word, bit, type.isBulletPassable());
+        setBit(reflective, word, bit, type.isBulletReflect());
+        setBit(concealing, word, bit, type.isHideTank());
+    }
+
+    private static void setBit(long[] bits, int word, long bit, boolean value) {
+        if (value) {
+            bits[word] |= bit;
+        } else {
+            bits[word] &= ~bit;
+        }
+    }
+
+    private static boolean testBit(long[] bits, int word, int col) {
+        return (bits[word] >>> (col & 63) & 1L) != 0;
+    }
+
+    /** 格子坐标是否在地图内 */
+    public boolean isInside(int row, int col) {
+        return row >= 0 && col >= 0 && row < rows && col < cols;
+    }
+
+    // ==========================================
+    // 位图查询（越界一律返回 false，调用方按自己的规则处理地图外）
+    // ==========================================
+
+    public boolean isTankPassable(int row, int col) {
+        return isInside(row, col) && testBit(tankPassable, row * wordsPerRow + (col >>> 6), col);
+    }
+
+    public boolean isBulletPassable(int row, int col) {
+        return isInside(row, col) && testBit(bulletPassable, row * wordsPerRow + (col >>> 6), col);
+    }
+
+    public boolean isReflective(int row, int col) {
+        return isInside(row, col) && testBit(reflective, row * wordsPerRow + (col >>> 6), col);
+    }
+
+    public boolean isConcealing(int row, int col) {
+        return isInside(row, col) && testBit(concealing, row * wordsPerRow + (col >>> 6), col);
+    }
+
+    /** 像素坐标换算成格子（与 getTileByPixel 相同的取整方式） */
+    public static int toCell(double px) {
+        return (int) (px / GameConfig.GRID_SIZE);
+    }
+
+    public boolean isTankPassableAt(double px, double py) {
+        return isTankPassable(toCell(py), toCell(px));
+    }
+
+    /**
+     * 格子矩形 [row0, row1] × [col0, col1] 是否全部坦克可通行（有任何一格越界返回 false）
+     * 按 long 整字比较，一行 30 格只需要一次与运算
+     */
+    public boolean isAreaTankPassable(int row0, int col0, int row1, int col1) {
+        return isAreaSet(tankPassable, row0, col0, row1, col1);
+    }
+
+    public boolean isAreaBulletPassable(int row0, int col0, int row1, int col1) {
+        return isAreaSet(bulletPassable, row0, col0, row1, col1);
+    }
+
+    /**
+     * 像素矩形（左上角到右下角，含边界点）覆盖到的格子是否全部坦克可通行
+     */
+    public boolean isRectTankPassable(double left, double top, double right, double bottom) {
+        return isAreaTankPassable(toCell(top), toCell(left), toCell(bottom), toCell(right));
+    }
+
+    /**
+     * 扫掠：像素矩形（含边界点）沿一个轴移动 delta，返回撞上坦克不可通行格子之前实际能走多少
+     * 只检查移动中新跨进的那几列（行），一帧走不满一格时通常一条都不用查；
+     * 一帧走过好几格也会逐条检查，高速坦克不会穿墙。越界算墙：
+     * 这里按 Math.floor 换算格子（toCell 是截断，-5 像素会落在第 0 格），负坐标落在 -1 格，撞上地图边缘。
+     * 停下时贴住墙，留 CONTACT_EPSILON 的缝：x + delta 的浮点舍入不会让边界点落回墙所在的格子
+     */
+    public double sweepTankRect(double left, double top, double right, double bottom,
+                                double delta, boolean horizontal) {
+        if (delta == 0) return 0;
+        double grid = GameConfig.GRID_SIZE;
+        // 垂直于移动方向覆盖的格子范围（整段移动中不变）
+        int from = floorCell(horizontal ? top : left);
+        int to = floorCell(horizontal ? bottom : right);
+
+        if (delta > 0) {
+            double edge = horizontal ? right : bottom;
+            int first = floorCell(edge) + 1;
+            int last = floorCell(edge + delta);
+            for (int line = first; line <= last; line++) {
+                if (!isLineTankPassable(line, from, to, horizontal)) {
+                    return Math.max(0, line * grid - CONTACT_EPSILON - edge);
+                }
+            }
+        } else {
+            double edge = horizontal ? left : top;
+            int first = floorCell(edge) - 1;
+            int last = floorCell(edge + delta);
+            for (int line = first; line >= last; line--) {
+                if (!isLineTankPassable(line, from, to, horizontal)) {
+                    return Math.min(0, (line + 1) * grid + CONTACT_EPSILON - edge);
+                }
+            }
+        }
+        return delta;
+    }
+
+    /** 像素 → 格子，负坐标向下取整（扫掠用，地图外的格子一律不可通行） */
+    private static int floorCell(double px) {
+        return (int) Math.floor(px / GameConfig.GRID_SIZE);
+    }
+
+    private boolean isLineTankPassable(int line, int from, int to, boolean horizontal) {
+        return horizontal
+                ? isAreaTankPassable(from, line, to, line)
+                : isAreaTankPassable(line, from, line, to);
+    }
+
+    private boolean isAreaSet(long[] bits, int row0, int col0, int row1, int col1) {
+        if (!isInside(row0, col0) || !isInside(row1, col1) || row0 > row1 || col0 > col1) {
+            return false;
+        }
+        int firstWord = col0 >>> 6;
+        int lastWord = col1 >>> 6;
+        for (int r = row0; r <= row1; r++) {
+            int base = r * wordsPerRow;
+            for (int w = firstWord; w <= lastWord; w++) {
+                int from = w == firstWord ? (col0 & 63) : 0;
+                int to = w == lastWord ? (col1 & 63) : 63;
+                long mask = (-1L >>> (63 - to)) & (-1L << from);
+                if ((bits[base + w] & mask) != mask) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /** 每行占几个 long（位图按行存，第 row 行第 col 格在 bits[row * wordsPerRow + col / 64] 的第 col % 64 位） */
+    public int getWordsPerRow() { return wordsPerRow; }
+    public int getTerrainVersion() { return terrainVersion; }
+    public long[] getTankPassableBits() { return tankPassable; }
+    public long[] getBulletPassableBits() { return bulletPassable; }
+    public long[] getReflectiveBits() { return reflective; }
+    public long[] getConcealingBits() { return concealing; }
+
+    /** 原始地形数组（只读约定），cells[row * cols + col] 是 TileType 序号 */
+    public byte[] getCells() { return cells; }
+
+    // ==========================================
+    // Tile 获取 (修正像素计算)
+    // ==========================================
+
+    public Tile getTile(int row, int col) {
+        if (row < 0 || col < 0 || row >= rows || col >= cols) {
+            return null;
+        }
+        return tiles[row][col];
+    }
+
+    public Tile getTileByPixel(double x, double y) {
+        // ✅ 修改点：必须除以 GameConfig.GRID_SIZE (40.0)
+        // 如果用 MapConstants.TILE_SIZE (可能是34.0)，坐标判断会错乱
+        int col = (int) (x / GameConfig.GRID_SIZE);
+        int row = (int) (y / GameConfig.GRID_SIZE);
+        return getTile(row, col);
+    }
+
+    // ==========================================
+    // 坦克与子弹规则 (保持不变)
+    // ==========================================
+
+    public boolean canTankMove(double x, double y) {
+        return isTankPassableAt(x, y);
+    }
+
+    public boolean isTankHidden(double x, double y) {
+        if (!campaignMode) return false;
+        return isConcealing(toCell(y), toCell(x));
+    }
+
+    public boolean handleBullet(double x, double y) {
+        int row = toCell(y);
+        int col = toCell(x);
+        if (!isInside(row, col)) return true;
+
+        if (isBulletPassable(row, col)) return false;
+        if (isReflective(row, col)) return false;
+
+        if (getTileType(row, col) == TileType.BRICK && !isDestroyed(row, col)) {
+            destroyTile(row, col);
+            return true;
+        }
+        return true;
+    }
+
+    // ==========================================
+    // 控制接口
+    // ==========================================
+
+    public void reset(int level) {
+        loadLevel(level);
+    }
+
+    public void setCampaignMode(boolean campaignMode) {
+        this.campaignMode = campaignMode;
+    }
+
+    public int getRows() { return rows; }
+    public int getCols() { return cols; }
+    public Tile[][] getTiles() { return tiles; }
+
+    public boolean isCampaignMode() {
+        return campaignMode;
+    }
+}
\ No newline at end of file
@@ -20,19 +20,27 @@ public class MazeDigger {
     // 🔨 核心参数
 
     private int blockSize; // 1 = 细路(1格宽), 2 = 宽路(2格宽)
+    private Random random;
     private static final double LOOP_CHANCE = 0.05; // 5% 的几率打通死路形成回路
 
     private static final double STRAIGHT_BLOCK_CHANCE = 0.1; // 直道阻断概率
     private static final double INTERSECTION_BLOCK_CHANCE = 0.2; // 路口碉堡概率
 
     public MazeDigger() {
+        this(new Random());
+    }
+
+    // 传入随机数生成器：同一个种子挖出同一张迷宫（无尽模式按本局种子生成地图）
+    public MazeDigger(Random random) {
+        this.random = random;
         // 默认随机：50% 概率生成宽路，50% 概率生成细路
-        this.blockSize = Math.random() < 0.5 ? 2 : 1;
+        this.blockSize = random.nextDouble() < 0.5 ? 2 : 1;
     }
 
     // 允许外部强制指定模式 (例如: new MazeDigger(2))
     public MazeDigger(int blockSize) {
         this.blockSize = blockSize;
+        this.random = new Random();
     }
 
     public int[][] generate() {
@@ -89,7 +97,7 @@ public class MazeDigger {
 
         // 随机打乱方向 (让迷宫扭曲的关键)
         List<int[]> dirList = Arrays.asList(dirs);
-        Collections.shuffle(dirList);
+        Collections.shuffle(dirList, random);
 
         for (int[] d : dirList) {
             int nextR = r + d[0];
@@ -109,7 +117,7 @@ public class MazeDigger {
                     dig(nextR, nextC);
                 }
                 // 3. ⭐ 关键：如果去过了 -> 只有 5% 概率打通 (形成回路！)
-                else if (Math.random() < LOOP_CHANCE) {
+                else if (random.nextDouble() < LOOP_CHANCE) {
                     // 打通中间的墙，但**不要**递归进去 (否则会死循环)
                     int wallR = r + d[0] / 2;
                     int wallC = c + d[1] / 2;
@@ -143,13 +151,13 @@ public class MazeDigger {
                 if (connections == 2) {
                     // 竖向直道 (|) -> 生成水平阻断 (H_BAR)
                     if (u && d) {
-                        if (Math.random() < STRAIGHT_BLOCK_CHANCE) {
+                        if (random.nextDouble() < STRAIGHT_BLOCK_CHANCE) {
                             placePattern(r, c, "H_BAR");
                         }
                     }
                     // 横向直道 (-) -> 生成垂直阻断 (V_BAR)
                     else if (l && right) {
-                        if (Math.random() < STRAIGHT_BLOCK_CHANCE) {
+                        if (random.nextDouble() < STRAIGHT_BLOCK_CHANCE) {
                             placePattern(r, c, "V_BAR");
                         }
                     }
@@ -157,7 +165,7 @@ public class MazeDigger {
 
                 // === 场景 B: 路口 (T型 或 十字) -> 生成碉堡 ===
                 else if (connections >= 3) {
-                    if (Math.random() < INTERSECTION_BLOCK_CHANCE) {
+                    if (random.nextDouble() < INTERSECTION_BLOCK_CHANCE) {
                         placePattern(r, c, "FULL");
                     }
                 }
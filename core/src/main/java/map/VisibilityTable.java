@@ -0,0 +1,316 @@
+package map;
+
+import infra.GameConfig;
+
+import java.util.Arrays;
+
+/**
+ * 视线表：任意两个格子之间“看不看得见”，预先算好存成位图
+ * 原来 EnemyTank.canSeePlayer 只比距离，敌人隔着石墙也会发现玩家、朝墙开火；
+ * 现在换地图时整张算一次，AI 的视线判断就是一次位测试。
+ *
+ * 两张 (rows*cols) × (rows*cols) 的位图（30×22 的地图是 660×660 位，每张约 57KB），
+ * 第 from 行从 bits[from * wordsPerRow] 开始，第 to 位表示 from 格子能不能看到 to 格子：
+ *   los      纯地形视线（对称）：两格中心连线经过的格子（不含两端）全都子弹可穿过。
+ *            连线正好穿过格点时，格点两侧的格子都得透明，保证对称、不从墙角缝里看过去
+ *   visible  AI 真正用的：视线通，并且目标格不是草丛（闯关模式下草丛里的坦克只有贴身的相邻格才看得见）
+ * 只给子弹可穿过的格子算（墙里站不了坦克），其它行列都是 0。
+ *
+ * 砖块被打掉只会让视线变多：按 MapModel 的变化日志只重算连线经过该格子的那些对，
+ * 以及和它有关的行列；有格子变得挡子弹（或日志已被覆盖）时整张重算。
+ * 重算只在串行阶段做，其余时间只读，可以在并行阶段被多个敌人同时查询。
+ */
+public class VisibilityTable {
+
+    private final int rows;
+    private final int cols;
+    private final int cells;
+    private final int wordsPerRow;
+    private final long[] los;
+    private final long[] visible;
+    private final boolean[] clear; // 每格是否子弹可穿过（建表时从地图拷一份，追踪视线时不再走 MapModel 的边界检查）
+    private final int[] open;      // 子弹可穿过的格子列表
+    private int openCount;
+
+    private MapModel map;
+    private int terrainVersion = -1;
+    private boolean concealment;   // 建表时草丛是否隐身（闯关模式）
+    private int buildCount;        // 累计整张重建次数（调试/基准测试用）
+    private int repairCount;       // 累计增量修补次数
+
+    public VisibilityTable() {
+        this(GameConfig.MAP_ROWS, GameConfig.MAP_COLS);
+    }
+
+    public VisibilityTable(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        this.cells = rows * cols;
+        this.wordsPerRow = (cells + 63) >>> 6;
+        this.los = new long[cells * wordsPerRow];
+        this.visible = new long[cells * wordsPerRow];
+        this.clear = new boolean[cells];
+        this.open = new int[cells];
+    }
+
+    // ========== 重建 ==========
+
+    /**
+     * 换了地图、地形变了或草丛规则变了才重算，其余时候什么都不做
+     * @return 是否重算了
+     */
+    public boolean update(MapModel map) {
+        int version = map.getTerrainVersion();
+        boolean hide = map.isCampaignMode();
+        if (map == this.map && version == terrainVersion && hide == concealment) return false;
+
+        if (map == this.map && hide == concealment && repair(version)) {
+            terrainVersion = version;
+            repairCount++;
+            return true;
+        }
+        this.map = map;
+        this.terrainVersion = version;
+        this.concealment = hide;
+        rebuild();
+        return true;
+    }
+
+    private void rebuild() {
+        Arrays.fill(los, 0L);
+        Arrays.fill(visible, 0L);
+        openCount = 0;
+        for (int cell = 0; cell < cells; cell++) {
+            clear[cell] = isOpen(cell);
+            if (clear[cell]) open[openCount++] = cell;
+        }
+        for (int i = 0; i < openCount; i++) {
+            int a = open[i];
+            for (int j = i; j < openCount; j++) {
+                int b = open[j];
+                if (traceClear(a, b)) setPair(a, b);
+            }
+        }
+        buildCount++;
+    }
+
+    // ========== 增量修补 ==========
+
+    /**
+     * 处理 (terrainVersion, version] 之间改过的格子
+     * @return false 表示没法增量处理（日志不全、有格子变得挡子弹），需要整张重建
+     */
+    private boolean repair(int version) {
+        for (int v = terrainVersion + 1; v <= version; v++) {
+            int cell = map.getChangedCell(v);
+            if (cell < 0) return false;
+            boolean wasOpen = clear[cell];
+            boolean nowOpen = isOpen(cell);
+            if (wasOpen && !nowOpen) return false;
+            if (!wasOpen && nowOpen) {
+                clear[cell] = true;
+                open[openCount++] = cell;
+                openCell(cell);
+            } else if (nowOpen) {
+                refreshColumn(cell); // 透明格子之间互换（草地/空地）：视线不变，只有隐身规则可能变
+            }
+        }
+        return true;
+    }
+
+    /**
+     * cell 从挡子弹变成透明：它自己的行列重新算，再把连线经过它、原来看不见的那些对重新追踪一遍
+     */
+    private void openCell(int x) {
+        int xr = x / cols;
+        int xc = x - xr * cols;
+        for (int i = 0; i < openCount; i++) {
+            int a = open[i];
+            if (traceClear(a, x)) setPair(a, x);
+        }
+        for (int i = 0; i < openCount; i++) {
+            int a = open[i];
+            if (a != x) relinkBehind(a, x, xr, xc);
+        }
+    }
+
+    /**
+     * 从 a 看过去、被 x 挡在后面的扇形区域里重新追踪视线
+     * 沿主轴（a 到 x 偏移较大的那个轴）从 x 往外一行（列）一行（列）走，
+     * 每行只看过 x 的两条边界线之间的那几格，再用 passesThrough 精确筛一遍
+     */
+    private void relinkBehind(int a, int x, int xr, int xc) {
+        int ar = a / cols;
+        int ac = a - ar * cols;
+        int dr = xr - ar;
+        int dc = xc - ac;
+        boolean rowMajor = Math.abs(dr) >= Math.abs(dc);
+        int near = Math.abs(rowMajor ? dr : dc);
+        int step = Integer.signum(rowMajor ? dr : dc);
+        int offset = rowMajor ? dc : dr;            // x 相对 a 在副轴上的偏移
+        int majorLimit = rowMajor ? rows : cols;
+        int minorLimit = rowMajor ? cols : rows;
+        int aMajor = rowMajor ? ar : ac;
+        int aMinor = rowMajor ? ac : ar;
+        // 过 x 这个方格的直线，斜率（副轴 / 主轴）落在经过方格四个角的斜率之间
+        double low = Math.min((offset - 0.5) / (near - 0.5), (offset - 0.5) / (near + 0.5));
+        double high = Math.max((offset + 0.5) / (near - 0.5), (offset + 0.5) / (near + 0.5));
+
+        for (int d = near, m = aMajor + step * near; m >= 0 && m < majorLimit; d++, m += step) {
+            int from = Math.max(0, (int) Math.floor(aMinor + d * low));
+            int to = Math.min(minorLimit - 1, (int) Math.ceil(aMinor + d * high));
+            for (int n = from; n <= to; n++) {
+                int br = rowMajor ? m : n;
+                int bc = rowMajor ? n : m;
+                int b = br * cols + bc;
+                if (b == x || !clear[b] || testBit(los, a, b)) continue;
+                if (!passesThrough(ar, ac, br, bc, xr, xc)) continue;
+                if (traceClear(a, b)) setPair(a, b);
+            }
+        }
+    }
+
+    /** 重新按隐身规则算“谁能看到 cell”这一列 */
+    private void refreshColumn(int to) {
+        for (int i = 0; i < openCount; i++) {
+            int from = open[i];
+            assignBit(visible, from, to, testBit(los, from, to) && !isHiddenFrom(from, to));
+        }
+    }
+
+    /**
+     * 两格中心的连线是否穿过 x 格子（格子是以 x 中心为圆心、边长 1 的正方形）：
+     * 直线到正方形中心的“带符号距离”不超过正方形在法向上的半宽，全部用整数算
+     */
+    private static boolean passesThrough(int ar, int ac, int br, int bc, int xr, int xc) {
+        if (xr < Math.min(ar, br) || xr > Math.max(ar, br)) return false;
+        if (xc < Math.min(ac, bc) || xc > Math.max(ac, bc)) return false;
+        int dr = br - ar;
+        int dc = bc - ac;
+        long cross = (long) dc * (xr - ar) - (long) dr * (xc - ac);
+        return 2 * Math.abs(cross) <= Math.abs(dr) + Math.abs(dc);
+    }
+
+    // ========== 视线追踪 ==========
+
+    /**
+     * 两格中心连线上的格子（不含两端）是否都透明
+     * 整数 DDA：第 i 次跨竖线在 t = (2i+1) / (2|dc|)，第 j 次跨横线在 t = (2j+1) / (2|dr|)，交叉相乘比较，没有浮点误差
+     */
+    private boolean traceClear(int a, int b) {
+        int r = a / cols;
+        int c = a - r * cols;
+        int endR = b / cols;
+        int endC = b - endR * cols;
+        int adr = Math.abs(endR - r);
+        int adc = Math.abs(endC - c);
+        int stepC = Integer.signum(endC - c);
+        int stepRow = Integer.signum(endR - r) * cols; // 按格子编号走，换行就是加减 cols
+        int cell = a;
+        int i = 0;
+        int j = 0;
+        while (i < adc || j < adr) {
+            long tx = i < adc ? (long) (2 * i + 1) * adr : Long.MAX_VALUE;
+            long ty = j < adr ? (long) (2 * j + 1) * adc : Long.MAX_VALUE;
+            if (tx < ty) {
+                cell += stepC;
+                i++;
+            } else if (ty < tx) {
+                cell += stepRow;
+                j++;
+            } else {
+                // 正好穿过格点：两侧的格子都要透明
+                if (!clear[cell + stepC] || !clear[cell + stepRow]) return false;
+                cell += stepC + stepRow;
+                i++;
+                j++;
+            }
+            if (cell == b) return true;
+            if (!clear[cell]) return false;
+        }
+        return true;
+    }
+
+    private boolean isOpen(int cell) {
+        int r = cell / cols;
+        return map.isBulletPassable(r, cell - r * cols);
+    }
+
+    /** 闯关模式下目标在草丛里，而观察者不在它周围一圈 */
+    private boolean isHiddenFrom(int from, int to) {
+        if (!concealment) return false;
+        int tr = to / cols;
+        int tc = to - tr * cols;
+        if (!map.isConcealing(tr, tc)) return false;
+        int fr = from / cols;
+        int fc = from - fr * cols;
+        return Math.abs(fr - tr) > 1 || Math.abs(fc - tc) > 1;
+    }
+
+    private void setPair(int a, int b) {
+        setBit(los, a, b);
+        setBit(los, b, a);
+        assignBit(visible, a, b, !isHiddenFrom(a, b));
+        assignBit(visible, b, a, !isHiddenFrom(b, a));
+    }
+
+    private void setBit(long[] bits, int from, int to) {
+        bits[from * wordsPerRow + (to >>> 6)] |= 1L << (to & 63);
+    }
+
+    private void assignBit(long[] bits, int from, int to, boolean value) {
+        int word = from * wordsPerRow + (to >>> 6);
+        if (value) {
+            bits[word] |= 1L << (to & 63);
+        } else {
+            bits[word] &= ~(1L << (to & 63));
+        }
+    }
+
+    private boolean testBit(long[] bits, int from, int to) {
+        return (bits[from * wordsPerRow + (to >>> 6)] >>> (to & 63) & 1L) != 0;
+    }
+
+    // ========== 查询 ==========
+
+    /** 是否已经建好（还没调用过 update() 时谁也看不见谁） */
+    public boolean isReady() {
+        return map != null;
+    }
+
+    /**
+     * 站在 (fromRow, fromCol) 能不能看到 (toRow, toCol) 里的坦克（含草丛隐身），越界看不见
+     */
+    public boolean canSee(int fromRow, int fromCol, int toRow, int toCol) {
+        if (fromRow < 0 || fromCol < 0 || fromRow >= rows || fromCol >= cols) return false;
+        if (toRow < 0 || toCol < 0 || toRow >= rows || toCol >= cols) return false;
+        return testBit(visible, fromRow * cols + fromCol, toRow * cols + toCol);
+    }
+
+    /**
+     * 像素坐标版本：按两点所在的格子查（地图外的坐标夹到边上的格子）
+     */
+    public boolean canSee(double fromX, double fromY, double toX, double toY) {
+        return canSee(clamp(MapModel.toCell(fromY), rows), clamp(MapModel.toCell(fromX), cols),
+                clamp(MapModel.toCell(toY), rows), clamp(MapModel.toCell(toX), cols));
+    }
+
+    /** 纯地形视线（不考虑草丛），对称 */
+    public boolean hasLineOfSight(int fromRow, int fromCol, int toRow, int toCol) {
+        if (fromRow < 0 || fromCol < 0 || fromRow >= rows || fromCol >= cols) return false;
+        if (toRow < 0 || toCol < 0 || toRow >= rows || toCol >= cols) return false;
+        return testBit(los, fromRow * cols + fromCol, toRow * cols + toCol);
+    }
+
+    private static int clamp(int value, int size) {
+        return Math.max(0, Math.min(value, size - 1));
+    }
+
+    public int getBuildCount() {
+        return buildCount;
+    }
+
+    public int getRepairCount() {
+        return repairCount;
+    }
+}
@@ -0,0 +1,361 @@
+package model;
+
+import infra.GameConfig;
+import map.MapModel;
+
+import java.util.Arrays;
+
+/**
+ * 子弹池（结构数组 Structure of Arrays）
+ * 所有子弹的位置、速度、伤害、反弹次数、阵营都放在定长的基本类型数组里，按下标访问：
+ *   - 开火 spawn() 只是往数组尾部写几个数，稳定开火时不分配任何对象；
+ *   - 命中/撞墙 kill() 只打标记，帧末 removeDead() 用“末尾元素填坑”的方式压缩，O(1) 删除；
+ *   - 更新时按下标顺序扫连续内存，上万颗子弹也只占一帧的一小部分时间。
+ * 下标只在一次遍历内有效：removeDead() 之后元素会换位置，不要跨帧保存下标。
+ *
+ * 运动学：每次 update 沿位移线段逐格遍历（Amanatides–Woo），在第一面撞到的墙的入射面上结算，
+ * 所以速度再快（一帧跨好几格）也不会穿墙；走过的折线记录下来给 World 和坦克做扫掠检测。
+ */
+public class BulletPool {
+
+    // 停在墙面外侧的距离，避免下一步从墙里出发
+    private static final double CONTACT_EPSILON = 0.01;
+    // 单次 update 最多处理的反弹次数（防止夹角里死循环）
+    private static final int MAX_SWEEP_SEGMENTS = 8;
+    // 每颗子弹记录的折线顶点上限：起点 + 每次撞墙一个 + 边缘反弹后的终点
+    private static final int MAX_PATH_POINTS = MAX_SWEEP_SEGMENTS + 2;
+
+    private final int capacity;
+    private final double size;   // 子弹边长（所有子弹一样大）
+    private int count = 0;
+
+    // ========== 每颗子弹的数据（下标 0 ~ count-1 有效） ==========
+    private final double[] x;
+    private final double[] y;
+    private final double[] prevX;   // 上一逻辑帧的位置（渲染插值用）
+    private final double[] prevY;
+    private final double[] vx;      // 每帧移动的像素数
+    private final double[] vy;
+    private final int[] damage;
+    private final int[] direction;  // 发射朝向（0-360度）
+    private final int[] bounces;    // 已反弹次数
+    private final boolean[] enemy;  // true=敌方子弹, false=我方子弹
+    private final boolean[] alive;
+    private final Tile[] hitBrick;  // 本子步撞到的砖块（由 World 串行统一破坏）
+
+    // 本次 update 走过的折线（左上角坐标），第 i 颗子弹占 [i * MAX_PATH_POINTS, (i+1) * MAX_PATH_POINTS)
+    private final double[] pathX;
+    private final double[] pathY;
+    private final int[] pathLength;
+
+    public BulletPool(int capacity) {
+        this.capacity = capacity;
+        this.size = GameConfig.BULLET_RADIUS * 2;
+        x = new double[capacity];
+        y = new double[capacity];
+        prevX = new double[capacity];
+        prevY = new double[capacity];
+        vx = new double[capacity];
+        vy = new double[capacity];
+        damage = new int[capacity];
+        direction = new int[capacity];
+        bounces = new int[capacity];
+        enemy = new boolean[capacity];
+        alive = new boolean[capacity];
+        hitBrick = new Tile[capacity];
+        pathX = new double[capacity * MAX_PATH_POINTS];
+        pathY = new double[capacity * MAX_PATH_POINTS];
+        pathLength = new int[capacity];
+    }
+
+    // ========== 生成与删除 ==========
+
+    /**
+     * 发射一颗子弹
+     * @param bulletX 左上角 X
+     * @param speedX  每帧移动的像素数
+     * @return 子弹下标；池满返回 -1（这颗子弹被丢弃）
+     */
+    public int spawn(boolean isEnemy, int bulletDamage, int bulletDirection,
+                     double bulletX, double bulletY, double speedX, double speedY) {
+        if (count == capacity) return -1;
+
+        int i = count++;
+        x[i] = bulletX;
+        y[i] = bulletY;
+        prevX[i] = bulletX;
+        prevY[i] = bulletY;
+        vx[i] = speedX;
+        vy[i] = speedY;
+        damage[i] = bulletDamage;
+        direction[i] = bulletDirection;
+        bounces[i] = 0;
+        enemy[i] = isEnemy;
+        alive[i] = true;
+        hitBrick[i] = null;
+        pathLength[i] = 0;
+        return i;
+    }
+
+    /**
+     * 标记死亡（命中坦克、撞碎砖块、反弹次数用完），真正移除在 removeDead()
+     */
+    public void kill(int i) {
+        alive[i] = false;
+    }
+
+    /**
+     * 移除所有死亡子弹：用末尾的子弹填到空位上，不移动其余元素
+     * @return 移除的数量
+     */
+    public int removeDead() {
+        int removed = 0;
+        int i = 0;
+        while (i < count) {
+            if (alive[i]) {
+                i++;
+                continue;
+            }
+            int last = --count;
+            if (i != last) {
+                moveSlot(last, i);
+            }
+            hitBrick[last] = null; // 不留对地图瓦片的引用
+            removed++;
+        }
+        return removed;
+    }
+
+    private void moveSlot(int from, int to) {
+        x[to] = x[from];
+        y[to] = y[from];
+        prevX[to] = prevX[from];
+        prevY[to] = prevY[from];
+        vx[to] = vx[from];
+        vy[to] = vy[from];
+        damage[to] = damage[from];
+        direction[to] = direction[from];
+        bounces[to] = bounces[from];
+        enemy[to] = enemy[from];
+        alive[to] = alive[from];
+        hitBrick[to] = hitBrick[from];
+        int length = pathLength[from];
+        System.arraycopy(pathX, from * MAX_PATH_POINTS, pathX, to * MAX_PATH_POINTS, length);
+        System.arraycopy(pathY, from * MAX_PATH_POINTS, pathY, to * MAX_PATH_POINTS, length);
+        pathLength[to] = length;
+    }
+
+    public void clear() {
+        Arrays.fill(hitBrick, 0, count, null);
+        count = 0;
+    }
+
+    /**
+     * 记录本帧开始时的位置，渲染层据此在两帧之间插值
+     */
+    public void savePreviousPositions() {
+        System.arraycopy(x, 0, prevX, 0, count);
+        System.arraycopy(y, 0, prevY, 0, count);
+    }
+
+    // ========== 运动与地图碰撞 ==========
+
+    /**
+     * 推进第 i 颗子弹（只写第 i 个槽位，可以在并行阶段按下标分片调用）
+     * @param stepFraction 本次移动占一整帧速度的比例（120Hz 物理子步时为 0.5）
+     */
+    public void update(int i, MapModel map, double stepFraction) {
+        pathLength[i] = 0;
+        recordPathPoint(i);
+        if (!alive[i]) return;
+
+        // 步骤 1：沿线段扫掠地图：石头在入射面反弹，砖块在入射面销毁
+        sweepThroughMap(i, map, stepFraction);
+
+        // 步骤 2：处理屏幕边缘反弹
+        if (alive[i]) {
+            handleBoundaryBounce(i, stepFraction);
+        }
+        recordPathPoint(i);
+    }
+
+    private void sweepThroughMap(int i, MapModel map, double stepFraction) {
+        double grid = GameConfig.GRID_SIZE;
+        double remaining = 1.0; // 本次位移还没走完的比例（反弹后剩下的部分沿新方向继续走）
+
+        for (int segment = 0; segment < MAX_SWEEP_SEGMENTS && alive[i] && remaining > 0; segment++) {
+            double dx = vx[i] * stepFraction * remaining;
+            double dy = vy[i] * stepFraction * remaining;
+            if (dx == 0 && dy == 0) return;
+
+            // 用子弹的【中心点】做射线，比左上角更精准
+            double cx = x[i] + GameConfig.BULLET_RADIUS;
+            double cy = y[i] + GameConfig.BULLET_RADIUS;
+            int col = (int) Math.floor(cx / grid);
+            int row = (int) Math.floor(cy / grid);
+            int stepCol = dx > 0 ? 1 : (dx < 0 ? -1 : 0);
+            int stepRow = dy > 0 ? 1 : (dy < 0 ? -1 : 0);
+
+            // tMax：射线走到下一条竖线/横线时的比例；tDelta：每跨过一整格增加的比例
+            double tMaxX = stepCol == 0 ? Double.POSITIVE_INFINITY
+                    : ((stepCol > 0 ? (col + 1) * grid : col * grid) - cx) / dx;
+            double tMaxY = stepRow == 0 ? Double.POSITIVE_INFINITY
+                    : ((stepRow > 0 ? (row + 1) * grid : row * grid) - cy) / dy;
+            double tDeltaX = stepCol == 0 ? Double.POSITIVE_INFINITY : grid / Math.abs(dx);
+            double tDeltaY = stepRow == 0 ? Double.POSITIVE_INFINITY : grid / Math.abs(dy);
+
+            double hitT = -1;
+            boolean hitXFace = false;
+            boolean hit = false;
+            while (true) {
+                // 同时跨过竖线和横线（正好穿过格子角）时先走 X，和原来“先 X 后 Y”的判定顺序一致
+                boolean crossX = tMaxX <= tMaxY;
+                double t = crossX ? tMaxX : tMaxY;
+                if (t > 1.0) break;
+                if (crossX) {
+                    col += stepCol;
+                    tMaxX += tDeltaX;
+                } else {
+                    row += stepRow;
+                    tMaxY += tDeltaY;
+                }
+
+                // 地图外区域、空地、水、草丛都可以穿过（出界由 handleBoundaryBounce 处理）
+                if (!map.isInside(row, col) || map.isBulletPassable(row, col)) continue;
+
+                hitT = t;
+                hitXFace = crossX;
+                hit = true;
+                break;
+            }
+
+            if (!hit) {
+                // 整段畅通
+                x[i] += dx;
+                y[i] += dy;
+                return;
+            }
+
+            // 走到入射面，再往回退一点点停在墙外
+            x[i] += dx * hitT;
+            y[i] += dy * hitT;
+            if (hitXFace) {
+                x[i] -= stepCol * CONTACT_EPSILON;
+            } else {
+                y[i] -= stepRow * CONTACT_EPSILON;
+            }
+            recordPathPoint(i);
+
+            if (!map.isReflective(row, col)) {
+                // 遇到易碎物体（砖墙） -> 双方销毁（砖块记录下来，由 World 串行结算）
+                alive[i] = false;
+                hitBrick[i] = map.getTile(row, col);
+                return;
+            }
+
+            // 遇到坚硬物体（铁墙/石头） -> 按撞到的那一面反弹，剩余位移沿新方向继续
+            if (hitXFace) {
+                vx[i] = -vx[i];
+            } else {
+                vy[i] = -vy[i];
+            }
+            onBounce(i);
+            remaining *= (1.0 - hitT);
+        }
+    }
+
+    // --- 屏幕边缘反弹逻辑 ---
+    private void handleBoundaryBounce(int i, double stepFraction) {
+        boolean bounced = false;
+
+        // 左右边界检测
+        if (x[i] <= 0 || x[i] >= GameConfig.SCREEN_WIDTH - size) {
+            vx[i] = -vx[i];
+            x[i] += vx[i] * stepFraction; // 修正坐标：把它推回屏幕内一点点，防止粘连在边界上
+            bounced = true;
+        }
+        // 上下边界检测
+        if (y[i] <= 0 || y[i] >= GameConfig.SCREEN_HEIGHT - size) {
+            vy[i] = -vy[i];
+            y[i] += vy[i] * stepFraction; // 修正坐标
+            bounced = true;
+        }
+
+        if (bounced) {
+            onBounce(i);
+        }
+    }
+
+    // --- 反弹计数管理：超过配置上限（如3次），子弹碎裂 ---
+    private void onBounce(int i) {
+        bounces[i]++;
+        if (bounces[i] > GameConfig.MAX_BULLET_BOUNCES) {
+            alive[i] = false;
+        }
+    }
+
+    private void recordPathPoint(int i) {
+        int n = pathLength[i];
+        if (n == MAX_PATH_POINTS) {
+            n--; // 极端情况下（夹角里连续反弹）覆盖最后一个点，保证终点总是当前位置
+        }
+        pathX[i * MAX_PATH_POINTS + n] = x[i];
+        pathY[i * MAX_PATH_POINTS + n] = y[i];
+        pathLength[i] = n + 1;
+    }
+
+    /**
+     * 取出并清除本子步撞到的砖块
+     */
+    public Tile consumeHitBrick(int i) {
+        Tile brick = hitBrick[i];
+        hitBrick[i] = null;
+        return brick;
+    }
+
+    // ========== 访问器 ==========
+
+    public int size() { return count; }
+    public int getCapacity() { return capacity; }
+    public double getBulletSize() { return size; }
+
+    public boolean isAlive(int i) { return alive[i]; }
+    public boolean isEnemy(int i) { return enemy[i]; }
+    public double getX(int i) { return x[i]; }
+    public double getY(int i) { return y[i]; }
+    public double getSpeedX(int i) { return vx[i]; }
+    public double getSpeedY(int i) { return vy[i]; }
+    public int getDamage(int i) { return damage[i]; }
+    public int getDirection(int i) { return direction[i]; }
+    public int getBounceCount(int i) { return bounces[i]; }
+
+    /** 插值后的渲染坐标：alpha = 0 为上一逻辑帧，alpha = 1 为当前逻辑帧 */
+    public double getRenderX(int i, double alpha) { return prevX[i] + (x[i] - prevX[i]) * alpha; }
+    public double getRenderY(int i, double alpha) { return prevY[i] + (y[i] - prevY[i]) * alpha; }
+
+    /** 本次 update 走过的折线顶点数（起点、反弹点、终点） */
+    public int getPathLength(int i) { return pathLength[i]; }
+    /**
+     * 本次 update 开始时还活着、走过了一段路（包括中途撞砖或反弹用完而死的），
+     * 这类子弹的折线终点就是撞墙点，命中结算仍要扫一遍
+     */
+    public boolean hasMovedThisStep(int i) { return pathLength[i] >= 2; }
+    public double getPathX(int i, int point) { return pathX[i * MAX_PATH_POINTS + point]; }
+    public double getPathY(int i, int point) { return pathY[i * MAX_PATH_POINTS + point]; }
+
+    /**
+     * 把第 i 颗子弹放回指定位置和速度并复活（基准测试/工具用）
+     */
+    public void reset(int i, double bulletX, double bulletY, double speedX, double speedY) {
+        x[i] = bulletX;
+        y[i] = bulletY;
+        prevX[i] = bulletX;
+        prevY[i] = bulletY;
+        vx[i] = speedX;
+        vy[i] = speedY;
+        bounces[i] = 0;
+        alive[i] = true;
+        hitBrick[i] = null;
+        pathLength[i] = 0;
+    }
+}
@@ -1,6 +1,10 @@
 package model;
 
 import infra.GameConfig;
+import map.FlowField;
+import map.InfluenceMap;
+import map.MapModel;
+import map.VisibilityTable;
 import java.util.Random;
 
 /**
@@ -40,8 +44,25 @@ public abstract class EnemyTank extends Tank {
     protected double patrolTargetX = 0;
     protected double patrolTargetY = 0;
 
-    // 暂存子弹（用于外部获取）
-    private Bullet pendingBullet;
+    // 所有敌人共享的流场（World 设置并每帧更新），为 null 或没建好时退回直线追击
+    private FlowField flowField;
+    // 共享的视线表（World 设置），为 null 或没建好时只按距离判断
+    private VisibilityTable visibility;
+    // 本次思考时能不能看到玩家（看不到就不开火，免得隔着石墙浪费子弹）
+    private boolean playerVisible = false;
+    // 共享的影响力图（World 设置），攻击/撤退按它挑落脚点；为 null 或没建好时退回只看距离
+    private InfluenceMap influence;
+    // 攻击/撤退当前选定的落脚格（格子编号），-1 表示没有
+    private int positionCell = -1;
+
+    // 挑落脚点：在自己周围几格内采样，按影响力图打分（越小越好）
+    protected static final int ATTACK_SEARCH_RADIUS = 3;
+    protected static final int RETREAT_SEARCH_RADIUS = 4;
+    private static final double THREAT_WEIGHT = 1.0;
+    private static final double DANGER_WEIGHT = 2.0;
+    private static final double DENSITY_WEIGHT = 1.5;
+    private static final double TRAVEL_WEIGHT = 0.25; // 每格路程的代价，近处的好位置优先
+    private static final double STICKINESS = 0.5;     // 上次选的格子减分，避免两个差不多的位置来回换
 
     // ========== 新增：拟人化“降智”参数 ==========
     private double reactionTimer = 0;           // 反应计时器（模拟大脑处理时间）
@@ -67,21 +88,33 @@ public abstract class EnemyTank extends Tank {
         resetReactionTime();
     }
 
+    /**
+     * 用指定种子重置随机数，并重新生成初始朝向、巡逻点和反应时间
+     * 同一种子的对局可以完全复现（无界面仿真、并行流水线对比时使用）
+     */
+    public void reseed(long seed) {
+        random = new Random(seed);
+        setRandomPatrolTarget();
+        setLogicRotation(random.nextInt(360));
+        setDisplayRotation(getLogicRotation());
+        resetReactionTime();
+    }
+
     // ========== 核心AI更新入口 ==========
 
     /**
-     * 每帧调用此方法来更新 AI 决策
+     * 更新 AI 决策（deltaTime 为距上次调用的逻辑时间）
+     * 反应计时器在此之上再模拟人的反应延迟：不是每次被调用都会重新决策。
+     * World 里改由 AiScheduler 按反应时间排队、到点直接调 think()，这里留给逐帧调用的场合（基准测试等）。
      */
-    public void updateAI(Tile[][] map, Tank playerTank, double deltaTime) {
+    public void updateAI(MapModel map, Tank playerTank, double deltaTime) {
         if (!isAlive() || playerTank == null || !playerTank.isAlive()) {
             stopAllMovement();
             return;
         }
 
         // 1. 基础计时器必须每帧更新
-        patrolTimer += deltaTime;
-        stateTimer += deltaTime;
-        lastSeenTimer += deltaTime;
+        advanceTimers(deltaTime);
 
         // 2. 【核心降智机制】检查反应时间
         reactionTimer += deltaTime;
@@ -92,7 +125,30 @@ public abstract class EnemyTank extends Tank {
             return;
         }
 
-        // 3. 到达思考时间，重置计时器并进行一次决策
+        // 3. 到达思考时间，进行一次决策
+        decide(map, playerTank, deltaTime);
+    }
+
+    /**
+     * 立即做一次决策（由 AiScheduler 在轮到这辆坦克时调用，不再检查反应计时器）
+     * @param elapsed 距上次思考的逻辑时间（秒），两次思考之间坦克沿用上次的操作继续开
+     */
+    public void think(MapModel map, Tank playerTank, double elapsed) {
+        if (!isAlive() || playerTank == null || !playerTank.isAlive()) {
+            stopAllMovement();
+            return;
+        }
+        advanceTimers(elapsed);
+        decide(map, playerTank, elapsed);
+    }
+
+    private void advanceTimers(double deltaTime) {
+        patrolTimer += deltaTime;
+        stateTimer += deltaTime;
+        lastSeenTimer += deltaTime;
+    }
+
+    private void decide(MapModel map, Tank playerTank, double deltaTime) {
         reactionTimer = 0;
         resetReactionTime(); // 下一次思考在 0.2~0.5秒后
         updateAimOffset();   // 更新手抖误差
@@ -101,6 +157,7 @@ public abstract class EnemyTank extends Tank {
 
         this.targetPlayer = playerTank;
         boolean canSeePlayer = canSeePlayer(map);
+        playerVisible = canSeePlayer;
 
         if (canSeePlayer) {
             lastSeenX = playerTank.getCenterX();
@@ -132,13 +189,6 @@ public abstract class EnemyTank extends Tank {
         aimOffset = (random.nextDouble() - 0.5) * 2 * errorRange;
     }
 
-    // 获取并清除暂存的子弹
-    public Bullet consumePendingBullet() {
-        Bullet b = pendingBullet;
-        pendingBullet = null;
-        return b;
-    }
-
     // ========== 状态机逻辑 ==========
 
     protected void updateAIState(boolean canSeePlayer) {
@@ -182,7 +232,7 @@ public abstract class EnemyTank extends Tank {
 
     // ========== 行为执行逻辑 ==========
 
-    protected void executeAIState(Tile[][] map, double deltaTime) {
+    protected void executeAIState(MapModel map, double deltaTime) {
         stopAllMovement(); // 先停止，状态机里决定怎么动
 
         switch (currentState) {
@@ -201,7 +251,7 @@ public abstract class EnemyTank extends Tank {
         }
     }
 
-    protected void executePatrol(Tile[][] map) {
+    protected void executePatrol(MapModel map) {
         double targetAngle = calculateAngleTo(patrolTargetX, patrolTargetY);
         rotateTowardsAngle(targetAngle); // 巡逻不需要手抖，精准走路
 
@@ -220,20 +270,26 @@ public abstract class EnemyTank extends Tank {
         }
     }
 
-    protected void executeChase(Tile[][] map) {
+    protected void executeChase(MapModel map) {
         if (targetPlayer == null) return;
 
         // 【应用瞄准误差】
         double perfectAngle = calculateAngleToPlayer();
         double noisyAngle = perfectAngle + aimOffset;
 
-        rotateTowardsAngle(noisyAngle); // 朝着“歪”的角度转
-
-        // 移动逻辑
-        if (!isPathBlocked(map, 45)) {
+        // 移动逻辑：有流场就沿流场绕墙走，朝向对准下一格再前进
+        double flowAngle = getFlowAngle();
+        if (!Double.isNaN(flowAngle)) {
+            rotateTowardsAngle(flowAngle);
+            if (Math.abs(getAngleDifference(flowAngle)) < 60) {
+                setMovingForward(true);
+            }
+        } else if (!isPathBlocked(map, 45) || canSlideForward(map)) {
+            rotateTowardsAngle(noisyAngle); // 朝着“歪”的角度转
+            // 前面有墙但斜着贴墙还能滑过去，就继续走
             setMovingForward(true);
         } else {
-            // 简单的避障：被挡住就试图转弯
+            // 没有流场时的简单避障：被挡住就试图转弯
             setMovingForward(false);
             setRotatingLeft(true);
             return;
@@ -241,10 +297,9 @@ public abstract class EnemyTank extends Tank {
 
         // 开火逻辑 (降低频率)
         double angleDiff = getAngleDifference(noisyAngle);
-        if (Math.abs(angleDiff) < 35 && random.nextDouble() < 0.2) {
+        if (playerVisible && Math.abs(angleDiff) < 35 && random.nextDouble() < 0.2) {
             // 每次思考只有 20% 概率开火
-            Bullet b = tryFire(map);
-            if (b != null) pendingBullet = b;
+            prepareShot(map); // 子弹暂存在自己身上，由 World 串行阶段发射
         }
 
         if (getDistanceToPlayer() < attackRange * 0.8) {
@@ -252,34 +307,45 @@ public abstract class EnemyTank extends Tank {
         }
     }
 
-    protected void executeAttack(Tile[][] map) {
+    protected void executeAttack(MapModel map) {
         if (targetPlayer == null) return;
 
         // 【应用瞄准误差】
         double perfectAngle = calculateAngleToPlayer();
         double noisyAngle = perfectAngle + aimOffset;
 
-        rotateTowardsAngle(noisyAngle);
+        // 有影响力图就去周围最好的射击位（打得到玩家、不在炮口正前方、不挤、不在子弹道上），到位后专心瞄准
+        positionCell = pickAttackCell(map);
+        if (positionCell < 0) {
+            rotateTowardsAngle(noisyAngle);
+            // 保持距离 (风筝玩家)
+            double distance = getDistanceToPlayer();
+            if (distance < attackRange * 0.5) {
+                setMovingBackward(true); // 太近了后退
+            } else if (distance > attackRange * 0.9) {
+                if (!isPathBlocked(map, 40)) setMovingForward(true);
+            }
+        } else if (!moveTowardCell(positionCell)) {
+            rotateTowardsAngle(noisyAngle);
+        }
 
         double angleDiff = getAngleDifference(noisyAngle);
         // 攻击模式下开火概率稍微高点
-        if (Math.abs(angleDiff) < 30 && random.nextDouble() < 0.4) {
-            Bullet b = tryFire(map);
-            if (b != null) pendingBullet = b;
-        }
-
-        // 保持距离 (风筝玩家)
-        double distance = getDistanceToPlayer();
-        if (distance < attackRange * 0.5) {
-            setMovingBackward(true); // 太近了后退
-        } else if (distance > attackRange * 0.9) {
-            if (!isPathBlocked(map, 40)) setMovingForward(true);
+        if (playerVisible && Math.abs(angleDiff) < 30 && random.nextDouble() < 0.4) {
+            prepareShot(map); // 子弹暂存在自己身上，由 World 串行阶段发射
         }
     }
 
-    protected void executeRetreat(Tile[][] map) {
+    protected void executeRetreat(MapModel map) {
         if (targetPlayer == null) return;
 
+        // 有影响力图就往周围最安全的格子跑（远离玩家、躲开视线和子弹道、不和队友挤）
+        positionCell = pickRetreatCell(map);
+        if (positionCell >= 0) {
+            moveTowardCell(positionCell);
+            return;
+        }
+
         // 撤退不需要手抖，要精准逃跑
         double angleToPlayer = calculateAngleToPlayer();
         double retreatAngle = angleToPlayer + 180;
@@ -293,14 +359,142 @@ public abstract class EnemyTank extends Tank {
         }
     }
 
+    // ========== 按影响力图挑落脚点 ==========
+
+    /**
+     * 射击位：和玩家之间视线通、离玩家大约 0.7 倍攻击距离（不近于 0.5 倍），威胁锥、子弹道、队友密度越低越好
+     * @return 格子编号；没有影响力图或周围没有能打到玩家的格子时返回 -1
+     */
+    private int pickAttackCell(MapModel map) {
+        if (!canUseInfluence()) return -1;
+        int playerRow = MapModel.toCell(targetPlayer.getCenterY());
+        int playerCol = MapModel.toCell(targetPlayer.getCenterX());
+        double idealCells = attackRange * 0.7 / GameConfig.GRID_SIZE;
+        double minCells = attackRange * 0.5 / GameConfig.GRID_SIZE;
+
+        int row = MapModel.toCell(getCenterY());
+        int col = MapModel.toCell(getCenterX());
+        int best = -1;
+        double bestScore = Double.MAX_VALUE;
+        for (int r = row - ATTACK_SEARCH_RADIUS; r <= row + ATTACK_SEARCH_RADIUS; r++) {
+            for (int c = col - ATTACK_SEARCH_RADIUS; c <= col + ATTACK_SEARCH_RADIUS; c++) {
+                double distanceCells = Math.hypot(r - playerRow, c - playerCol);
+                if (distanceCells < minCells) continue; // 太近了，贴脸只会和玩家顶在一起
+                if (!visibility.hasLineOfSight(r, c, playerRow, playerCol)) continue;
+                if (!isStraightPathClear(map, r, c)) continue;
+                double score = Math.abs(distanceCells - idealCells)
+                        // 射击位本来就在玩家视线里，只算炮口锥形那部分
+                        + THREAT_WEIGHT * (influence.getThreat(r, c) - InfluenceMap.THREAT_EXPOSED)
+                        + scoreCommon(r, c, row, col);
+                if (score < bestScore) {
+                    bestScore = score;
+                    best = r * influence.getCols() + c;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 撤退点：离玩家越远越好，整层威胁（被看到、在炮口前）、子弹道、队友密度越低越好
+     */
+    private int pickRetreatCell(MapModel map) {
+        if (!canUseInfluence()) return -1;
+        int playerRow = MapModel.toCell(targetPlayer.getCenterY());
+        int playerCol = MapModel.toCell(targetPlayer.getCenterX());
+
+        int row = MapModel.toCell(getCenterY());
+        int col = MapModel.toCell(getCenterX());
+        int best = -1;
+        double bestScore = Double.MAX_VALUE;
+        for (int r = row - RETREAT_SEARCH_RADIUS; r <= row + RETREAT_SEARCH_RADIUS; r++) {
+            for (int c = col - RETREAT_SEARCH_RADIUS; c <= col + RETREAT_SEARCH_RADIUS; c++) {
+                if (!isStraightPathClear(map, r, c)) continue;
+                double score = -Math.hypot(r - playerRow, c - playerCol)
+                        + 2 * THREAT_WEIGHT * influence.getThreat(r, c)
+                        + scoreCommon(r, c, row, col);
+                if (score < bestScore) {
+                    bestScore = score;
+                    best = r * influence.getCols() + c;
+                }
+            }
+        }
+        return best;
+    }
+
+    private double scoreCommon(int r, int c, int row, int col) {
+        double score = DANGER_WEIGHT * influence.getDanger(r, c)
+                + DENSITY_WEIGHT * influence.getDensityExcluding(r, c, row, col, positionCell)
+                + TRAVEL_WEIGHT * Math.hypot(r - row, c - col);
+        if (r * influence.getCols() + c == positionCell) {
+            score -= STICKINESS;
+        }
+        return score;
+    }
+
+    private boolean canUseInfluence() {
+        return influence != null && influence.isReady()
+                && visibility != null && visibility.isReady()
+                && targetPlayer != null;
+    }
+
+    /**
+     * 从自己中心到 (row, col) 格子中心的直线，每隔半格采样都能让坦克通过（不用寻路就能直接开过去），
+     * 而且不从玩家身边擦过（否则会顶着玩家开不过去）
+     */
+    private boolean isStraightPathClear(MapModel map, int row, int col) {
+        if (!map.isTankPassable(row, col)) return false;
+        double grid = GameConfig.GRID_SIZE;
+        double tx = (col + 0.5) * grid;
+        double ty = (row + 0.5) * grid;
+        double dx = tx - getCenterX();
+        double dy = ty - getCenterY();
+
+        // 玩家中心到这条线段的距离
+        double lengthSq = dx * dx + dy * dy;
+        double px = targetPlayer.getCenterX() - getCenterX();
+        double py = targetPlayer.getCenterY() - getCenterY();
+        double t = lengthSq == 0 ? 0 : Math.max(0, Math.min(1, (px * dx + py * dy) / lengthSq));
+        if (Math.hypot(px - dx * t, py - dy * t) < GameConfig.TANK_SIZE) return false;
+
+        int steps = (int) Math.ceil(Math.hypot(dx, dy) / (grid / 2));
+        for (int i = 1; i < steps; i++) {
+            if (!map.isTankPassableAt(getCenterX() + dx * i / steps, getCenterY() + dy * i / steps)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * 朝格子中心开：目标在前方就正着开，在身后就倒车（炮口不用整个掉头）
+     * @return false 表示已经到了（离中心不到半格）
+     */
+    private boolean moveTowardCell(int cell) {
+        int cols = influence.getCols();
+        double tx = (cell % cols + 0.5) * GameConfig.GRID_SIZE;
+        double ty = (cell / cols + 0.5) * GameConfig.GRID_SIZE;
+        if (getDistanceTo(tx, ty) < GameConfig.GRID_SIZE * 0.5) return false;
+
+        double moveAngle = calculateAngleTo(tx, ty);
+        double angleDiff = getAngleDifference(moveAngle);
+        if (Math.abs(angleDiff) <= 100) {
+            rotateTowardsAngle(moveAngle);
+            if (Math.abs(angleDiff) < 45) setMovingForward(true);
+        } else {
+            rotateTowardsAngle(moveAngle + 180);
+            if (Math.abs(angleDiff) > 135) setMovingBackward(true);
+        }
+        return true;
+    }
+
     // ========== 辅助工具方法 ==========
 
-    protected boolean canSeePlayer(Tile[][] map) {
+    protected boolean canSeePlayer(MapModel map) {
         if (targetPlayer == null || !targetPlayer.isAlive()) return false;
-        double distance = getDistanceToPlayer();
-        // 之前这里有个 hasLineOfSight，但我删了因为它是空的
-        // 暂时只判断距离，效果也是一样的
-        return distance <= sightRange;
+        if (getDistanceToPlayer() > sightRange) return false;
+        // 视线表：中间隔着砖墙/石墙、或者玩家躲在草丛里（不贴身）都看不见
+        if (visibility == null || !visibility.isReady()) return true;
+        return visibility.canSee(getCenterX(), getCenterY(),
+                targetPlayer.getCenterX(), targetPlayer.getCenterY());
     }
 
     protected void rotateTowardsAngle(double targetAngle) {
@@ -353,7 +547,28 @@ public abstract class EnemyTank extends Tank {
         return Math.sqrt(Math.pow(tx - getCenterX(), 2) + Math.pow(ty - getCenterY(), 2));
     }
 
+    /**
+     * 流场给出的前进方向：朝自己所在格子的下一格中心
+     * @return 角度；没有流场、已经和玩家同一格或所在格子走不到玩家时返回 NaN
+     */
+    protected double getFlowAngle() {
+        if (flowField == null || !flowField.isReady()) return Double.NaN;
+        int next = flowField.getNextCell(MapModel.toCell(getCenterY()), MapModel.toCell(getCenterX()));
+        if (next < 0) return Double.NaN;
+        int cols = flowField.getCols();
+        double grid = GameConfig.GRID_SIZE;
+        return calculateAngleTo((next % cols + 0.5) * grid, (next / cols + 0.5) * grid);
+    }
+
     protected void setRandomPatrolTarget() {
+        // 有流场时只在走得到的格子里挑，不会选到墙里或被围死的地方
+        int cell = flowField != null ? flowField.randomReachableCell(random) : -1;
+        if (cell >= 0) {
+            int cols = flowField.getCols();
+            patrolTargetX = (cell % cols + 0.5) * GameConfig.GRID_SIZE;
+            patrolTargetY = (cell / cols + 0.5) * GameConfig.GRID_SIZE;
+            return;
+        }
         int screenWidth = (int) GameConfig.SCREEN_WIDTH;
         int screenHeight = (int) GameConfig.SCREEN_HEIGHT;
         patrolTargetX = random.nextInt(screenWidth - 100) + 50;
@@ -364,29 +579,55 @@ public abstract class EnemyTank extends Tank {
         if (currentState == newState) return;
         currentState = newState;
         stateTimer = 0;
+        positionCell = -1;
         if (newState == AIState.PATROL) setRandomPatrolTarget();
     }
 
-    private boolean isPathBlocked(Tile[][] map, double checkDistance) {
+    private boolean isPathBlocked(MapModel map, double checkDistance) {
         double rad = Math.toRadians(getDisplayRotation());
         double probeX = getCenterX() + Math.sin(rad) * checkDistance;
         double probeY = getCenterY() - Math.cos(rad) * checkDistance;
 
-        int col = (int) (probeX / GameConfig.GRID_SIZE);
-        int row = (int) (probeY / GameConfig.GRID_SIZE);
-
-        if (row < 0 || row >= GameConfig.MAP_ROWS || col < 0 || col >= GameConfig.MAP_COLS) {
-            return true;
-        }
-
-        Tile tile = map[row][col];
-        return tile != null && !tile.getType().isTankPassable();
+        // 越界返回不可通行，正好当作被挡住
+        return !map.isTankPassableAt(probeX, probeY);
     }
 
     // ========== 抽象方法 (子类实现) ==========
     public abstract String getAIType();
     public abstract double getAIAggressiveness();
 
+    public FlowField getFlowField() {
+        return flowField;
+    }
+
+    public void setFlowField(FlowField flowField) {
+        this.flowField = flowField;
+    }
+
+    public VisibilityTable getVisibility() {
+        return visibility;
+    }
+
+    public void setVisibility(VisibilityTable visibility) {
+        this.visibility = visibility;
+    }
+
+    public InfluenceMap getInfluence() {
+        return influence;
+    }
+
+    public void setInfluence(InfluenceMap influence) {
+        this.influence = influence;
+    }
+
+    public int getPositionCell() {
+        return positionCell;
+    }
+
+    public boolean isPlayerVisible() {
+        return playerVisible;
+    }
+
     public AIState getCurrentState() {
         return currentState;
     }
@@ -491,14 +732,6 @@ public abstract class EnemyTank extends Tank {
         this.patrolTargetY = patrolTargetY;
     }
 
-    public Bullet getPendingBullet() {
-        return pendingBullet;
-    }
-
-    public void setPendingBullet(Bullet pendingBullet) {
-        this.pendingBullet = pendingBullet;
-    }
-
     public double getReactionTimer() {
         return reactionTimer;
     }
@@ -0,0 +1,164 @@
+package model;
+
+import infra.GameClock;
+import map.MapModel;
+
+public abstract class Entity {
+    // 基础坐标
+    public double x;
+    public double y;
+
+    // 上一逻辑帧的坐标（渲染插值用）
+    protected double prevX;
+    protected double prevY;
+
+    // 基础尺寸（用于碰撞检测）
+    public double width;
+    public double height;
+
+    // 状态控制
+    public boolean alive = true;
+
+    // 游戏时钟（由 World 注入，计时一律用逻辑时间）
+    protected GameClock clock;
+
+    public Entity(double x, double y, double width, double height) {
+        this.x = x;
+        this.y = y;
+        this.prevX = x;
+        this.prevY = y;
+        this.width = width;
+        this.height = height;
+    }
+
+    // 每一帧逻辑更新（位移、AI等）
+    public abstract void update(MapModel map);
+
+    // 画面渲染不在模型里：客户端（view.SpritePainter）按 getRenderX/getRenderY 插值绘制
+
+    // ========== 渲染插值 ==========
+
+    /**
+     * 逻辑帧开始前记录当前位置，渲染时在上一帧和当前帧之间插值
+     */
+    public void savePreviousPosition() {
+        prevX = x;
+        prevY = y;
+    }
+
+    /**
+     * 瞬移（出生、复活）后调用，避免渲染时从旧位置“拖影”过来
+     */
+    public void resetInterpolation() {
+        prevX = x;
+        prevY = y;
+    }
+
+    public double getRenderX(double alpha) {
+        return prevX + (x - prevX) * alpha;
+    }
+
+    public double getRenderY(double alpha) {
+        return prevY + (y - prevY) * alpha;
+    }
+
+    // 简单的矩形碰撞检测逻辑，可以放在父类复用
+    public boolean intersects(Entity other) {
+        return x < other.x + other.width &&
+                x + width > other.x &&
+                y < other.y + other.height &&
+                y + height > other.y;
+    }
+
+    /**
+     * 扫掠检测：一个 w×h 的矩形从 (x0, y0) 直线移动到 (x1, y1)，最早在什么时刻和本实体重叠
+     * （把本实体按移动矩形的尺寸膨胀，退化成线段对矩形的 slab 测试；只擦边不算重叠，和 intersects 一致）
+     * @return 进入时刻（0 ~ 1，起点就重叠返回 0），整段都不重叠返回 -1
+     */
+    public double sweepEntryTime(double x0, double y0, double x1, double y1, double w, double h) {
+        double minX = x - w;
+        double maxX = x + width;
+        double minY = y - h;
+        double maxY = y + height;
+
+        double enter = 0.0;
+        double exit = 1.0;
+
+        double dx = x1 - x0;
+        if (dx == 0) {
+            if (x0 <= minX || x0 >= maxX) return -1;
+        } else {
+            double t1 = (minX - x0) / dx;
+            double t2 = (maxX - x0) / dx;
+            enter = Math.max(enter, Math.min(t1, t2));
+            exit = Math.min(exit, Math.max(t1, t2));
+        }
+
+        double dy = y1 - y0;
+        if (dy == 0) {
+            if (y0 <= minY || y0 >= maxY) return -1;
+        } else {
+            double t1 = (minY - y0) / dy;
+            double t2 = (maxY - y0) / dy;
+            enter = Math.max(enter, Math.min(t1, t2));
+            exit = Math.min(exit, Math.max(t1, t2));
+        }
+
+        return enter < exit ? enter : -1;
+    }
+
+    /**
+     * 当前逻辑时间（毫秒）；还没注入时钟时视为 0
+     */
+    protected long now() {
+        return clock != null ? clock.millis() : 0;
+    }
+
+    public GameClock getClock() {
+        return clock;
+    }
+
+    public void setClock(GameClock clock) {
+        this.clock = clock;
+    }
+
+   public boolean isAlive() {
+        return alive;
+    }
+
+    public void setAlive(boolean alive) {
+        this.alive = alive;
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public void setX(double x) {
+        this.x = x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    public void setY(double y) {
+        this.y = y;
+    }
+
+    public double getWidth() {
+        return width;
+    }
+
+    public void setWidth(double width) {
+        this.width = width;
+    }
+
+    public double getHeight() {
+        return height;
+    }
+
+    public void setHeight(double height) {
+        this.height = height;
+    }
+}
\ No newline at end of file
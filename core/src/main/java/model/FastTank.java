@@ -1,9 +1,8 @@
 package model;
 
 import infra.GameConfig;
-import javafx.scene.image.Image;
 import model.Tank;
-import model.Tile;
+import map.MapModel;
 
 /**
  * 敌人紫色快速坦克
@@ -31,21 +30,6 @@ public class FastTank extends EnemyTank {
         setSmoothFactor(0.3);
     }
 
-    @Override
-    protected void loadImage() {
-        try {
-            this.imagePath = "/images/tank_purple.png.png";
-            this.tankImage = new Image(this.imagePath);
-            if (tankImage.isError()) {
-                System.err.println("快速坦克图片加载失败: " + imagePath);
-                this.tankImage = null;
-            }
-        } catch (Exception e) {
-            System.err.println("快速坦克图片加载异常: " + e.getMessage());
-            this.tankImage = null;
-        }
-    }
-
     @Override
     public String getColorDescription() {
         return "紫色快速坦克";
@@ -63,7 +47,7 @@ public class FastTank extends EnemyTank {
 
     // 注意：这里只有一个参数！
     @Override
-    protected void executeAttack(Tile[][] map) {
+    protected void executeAttack(MapModel map) {
         super.executeAttack(map);  // 调用父类方法，只传一个参数
 
         // 快速坦克特有的侧翼移动
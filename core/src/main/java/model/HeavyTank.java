@@ -0,0 +1,46 @@
+package model;
+
+import infra.GameConfig;
+
+/**
+ * 重型坦克 - 防御型AI
+ */
+public class HeavyTank extends EnemyTank {
+
+    public HeavyTank(double x, double y) {
+        super(x, y,
+                Tank.TankType.ENEMY_HEAVY,
+                GameConfig.TANK_SPEED * GameConfig.HEAVY_SPEED_MULTIPLIER,
+                GameConfig.TANK_ROTATION_SPEED * GameConfig.HEAVY_ROTATION_MULTIPLIER,
+                GameConfig.HEAVY_HEALTH,
+                GameConfig.HEAVY_FIRE_COOLDOWN,
+                GameConfig.HEAVY_BULLET_DAMAGE,
+                GameConfig.BULLET_SPEED * GameConfig.HEAVY_BULLET_SPEED_MULTIPLIER,
+                GameConfig.HEAVY_SCORE_VALUE);
+
+        // 重型坦克AI参数
+        this.sightRange = 350.0;       // 视野较短
+        this.chaseRange = 250.0;
+        this.attackRange = 300.0;      // 远程攻击
+        this.attackAngleThreshold = 10.0; // 需要精确瞄准
+
+        setSmoothFactor(0.1);
+    }
+
+    @Override
+    public String getColorDescription() {
+        return "蓝色重型坦克";
+    }
+
+    @Override
+    public String getAIType() {
+        return "防御型AI - 高生命值，远程精准射击";
+    }
+
+    @Override
+    public double getAIAggressiveness() {
+        return 0.4; // 侵略性较低，偏防御
+    }
+
+
+}
\ No newline at end of file
@@ -1,7 +1,6 @@
 package model;
 
 import infra.GameConfig;
-import javafx.scene.image.Image;
 
 /**
  * 敌人黄色普通坦克 - 平衡型AI
@@ -29,21 +28,6 @@ public class NormalTank extends EnemyTank {
         setSmoothFactor(0.2);
     }
 
-    @Override
-    protected void loadImage() {
-        try {
-            this.imagePath = "/images/tank_yellow.png.png";
-            this.tankImage = new Image(this.imagePath);
-            if (tankImage.isError()) {
-                System.err.println("普通坦克图片加载失败: " + imagePath);
-                this.tankImage = null;
-            }
-        } catch (Exception e) {
-            System.err.println("普通坦克图片加载异常: " + e.getMessage());
-            this.tankImage = null;
-        }
-    }
-
     @Override
     public String getColorDescription() {
         return "黄色普通坦克";
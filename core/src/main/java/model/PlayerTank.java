@@ -0,0 +1,84 @@
+package model;
+
+import infra.GameConfig;
+import infra.GameClock;
+import infra.TimerHandle;
+
+public class PlayerTank extends Tank {
+
+    // ===================== 新增属性 =====================
+    private boolean invincible = false;      // 是否处于无敌状态
+    private long invincibleEndTime = 0;      // 无敌结束的时间（游戏时钟，毫秒）
+    private TimerHandle invincibleTimer;     // 无敌到期的定时任务
+    public PlayerTank(double x, double y) {
+        super(x, y,
+                TankType.PLAYER_GREEN,
+                GameConfig.TANK_SPEED,
+                GameConfig.TANK_ROTATION_SPEED,
+                GameConfig.PLAYER_HEALTH,
+                GameConfig.PLAYER_FIRE_COOLDOWN,
+                GameConfig.PLAYER_BULLET_DAMAGE,
+                GameConfig.BULLET_SPEED,
+                0);
+
+        setSmoothFactor(0.25);
+    }
+
+    @Override
+    public String getColorDescription() {
+        return "绿色玩家坦克";
+    }
+
+    /**
+     * 激活无敌状态
+     * @param duration 持续时间（毫秒）
+     */
+    public void activateInvincibility(int duration) {
+        this.invincible = true;
+        // 计算结束时间：当前时间 + 持续时间
+        this.invincibleEndTime = now() + duration;
+
+        System.out.println("玩家开启无敌模式！持续: " + duration + "ms");
+
+        // 到期由游戏时钟的时间轮触发，重复开启时以最后一次为准
+        if (invincibleTimer != null) {
+            invincibleTimer.cancel();
+        }
+        if (clock != null) {
+            invincibleTimer = clock.schedule(GameClock.millisToTicks(duration), () -> {
+                invincibleTimer = null;
+                invincible = false;
+                System.out.println("无敌状态结束");
+            });
+        }
+    }
+
+    /**
+     * 重写受伤方法：增加无敌判断
+     */
+    @Override
+    public void takeDamage(int damage) {
+        if (invincible) {
+            System.out.println("玩家处于无敌状态，免除伤害！");
+            return; // 直接返回，不扣血
+        }
+        super.takeDamage(damage); // 调用父类原本的扣血逻辑
+    }
+
+    // ===================== Getter =====================
+    public boolean isInvincible() {
+        return invincible;
+    }
+
+    public void setInvincible(boolean invincible) {
+        this.invincible = invincible;
+    }
+
+    public long getInvincibleEndTime() {
+        return invincibleEndTime;
+    }
+
+    public void setInvincibleEndTime(long invincibleEndTime) {
+        this.invincibleEndTime = invincibleEndTime;
+    }
+}
\ No newline at end of file
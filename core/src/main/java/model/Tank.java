@@ -1,11 +1,8 @@
 package model;
 
 import infra.GameConfig;
-import javafx.beans.property.DoubleProperty;
-import javafx.beans.property.SimpleDoubleProperty;
-import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.image.Image;
-import javafx.scene.paint.Color;
+import infra.TimerHandle;
+import map.MapModel;
 
 /**
  * 完全独立的坦克类，继承Entity
@@ -13,10 +10,6 @@ import javafx.scene.paint.Color;
  */
 public abstract class Tank extends Entity {
 
-    //  定义可观察的X/Y属性
-    private final DoubleProperty xProperty = new SimpleDoubleProperty(0);
-    private final DoubleProperty yProperty = new SimpleDoubleProperty(0);
-
     // ========== 平滑旋转系统 ==========
     private double logicRotation = 0.0;
     private double displayRotation = 0.0;
@@ -38,9 +31,10 @@ public abstract class Tank extends Entity {
     protected boolean movingBackward = false;
     protected boolean rotatingLeft = false;
     protected boolean rotatingRight = false;
+    protected boolean firing = false;          // 开火意图（由输入或对战对手设置，World 每帧读取）
 
     // ========== 射击系统 ==========
-    protected long lastFireTime = 0;
+    protected long lastFireTime = Long.MIN_VALUE / 2; // 从未开火：第一发不受冷却限制
     protected int fireCooldown;
     protected int bulletDamage;
     protected double bulletSpeed;
@@ -49,16 +43,27 @@ public abstract class Tank extends Entity {
     protected int baseFireCooldown;
     protected int baseBulletDamage;
     protected double baseBulletSpeed;
+    private TimerHandle buffTimer;       // Buff 到期恢复的定时任务（新 Buff 覆盖旧 Buff 时取消）
 
-    // ========== 视觉资源 ==========
-    protected Image tankImage;
-    protected String imagePath;
+    // ========== 待发射的子弹（prepareShot 算好，emitShot 写进子弹池） ==========
+    private boolean shotPending = false;
+    private double shotX;
+    private double shotY;
+    private double shotVx;
+    private double shotVy;
+    private int shotDirection;
 
     // ========== 无敌系统 ==========
     private boolean isInvincible = false;
     private long invincibleEndTime = 0;
     private boolean isVisible = true; // 用于无敌闪烁
 
+    /** 撞墙判定时车身四边内缩的像素（贴墙时允许压进墙里一点，转向不会卡住） */
+    public static final double WALL_MARGIN = 2.0;
+
+    /** 拐角辅助：只差这么多像素就能让开墙角时，顺手往旁边挪（每帧最多挪 speed） */
+    public static final double CORNER_ASSIST = 12.0;
+
     public enum TankType {
         PLAYER_GREEN,
         ENEMY_HEAVY,
@@ -88,7 +93,6 @@ public abstract class Tank extends Entity {
         this.baseBulletSpeed = bulletSpeed;
 
         setInitialRotation();
-        loadImage();
     }
 
     private void setInitialRotation() {
@@ -100,7 +104,6 @@ public abstract class Tank extends Entity {
         displayRotation = logicRotation;
     }
 
-    protected abstract void loadImage();
     public abstract String getColorDescription();
 
     // ========== 角度系统 ==========
@@ -121,13 +124,13 @@ public abstract class Tank extends Entity {
     // ========== 无敌逻辑 ==========
     public void activateShield(double seconds) {
         this.isInvincible = true;
-        this.invincibleEndTime = System.currentTimeMillis() + (long)(seconds * 1000);
+        this.invincibleEndTime = now() + (long)(seconds * 1000);
         // System.out.println(type + " 开启了无敌护盾！");
     }
 
     protected void updateShieldStatus() {
         if (isInvincible) {
-            long now = System.currentTimeMillis();
+            long now = now();
             if (now > invincibleEndTime) {
                 isInvincible = false;
                 isVisible = true;
@@ -139,14 +142,12 @@ public abstract class Tank extends Entity {
     }
 
     // ========== 核心更新 ==========
-    public void update(Tile[][] map) {
+    public void update(MapModel map) {
         updateShieldStatus();
         handleRotation();
         smoothRotation();
         handleMovement();
         handleMapCollision(map);
-        x += vx;
-        y += vy;
         checkBounds();
     }
 
@@ -164,77 +165,85 @@ public abstract class Tank extends Entity {
         }
     }
 
-    // ========== 绘制方法 (已修复 StackOverflowError) ==========
-    public void draw(GraphicsContext gc) {
-        if (!alive) return;
-
-        // 1. 处理无敌闪烁 (不可见周期变为半透明)
-        if (isInvincible && !isVisible) {
-            gc.setGlobalAlpha(0.4);
-        }
-
-        // 2. 绘制坦克本体 (关键修改：这里直接画，不要调用 draw(gc) !)
-        if (tankImage == null) {
-            drawFallback(gc);
-        } else {
-            gc.save();
-            gc.translate(x + width / 2, y + height / 2);
-            gc.rotate(displayRotation);
-            gc.drawImage(tankImage, -width / 2, -height / 2, width, height);
-            gc.restore();
-        }
+    // ========== 地图碰撞 ==========
+    /**
+     * 扫掠移动：先走 X 再走 Y，每个轴都走到恰好贴墙为止（MapModel.sweepTankRect），
+     * 被挡住的轴停下、另一个轴照走，所以斜着撞墙会贴墙滑行。
+     * 只查新跨进去的那一列/行格子，一帧走过几格（高速坦克）也逐格检查，不会穿墙。
+     * 执行完 vx / vy 是这一帧实际走的位移。
+     */
+    protected void handleMapCollision(MapModel map) {
+        if (vx == 0 && vy == 0) return;
 
-        // 3. 恢复透明度
-        if (isInvincible) {
-            gc.setGlobalAlpha(1.0);
-
-            // 绘制金色护盾圈
-            gc.save();
-            gc.setStroke(Color.GOLD);
-            gc.setLineWidth(3);
-            gc.strokeOval(x - 5, y - 5, width + 10, height + 10);
-            gc.restore();
-        }
+        double wantX = vx;
+        double wantY = vy;
+        vx = sweep(map, wantX, true);
+        x += vx;
+        vy = sweep(map, wantY, false);
+        y += vy;
 
-        // 4. 敌人血条
-        if (type != TankType.PLAYER_GREEN) {
-            drawHealthBar(gc);
+        // 正对着走却被墙角挡住（车身只压到墙角一点点）：往空的那边挪，下一帧就能过去
+        if (vx != wantX && vy == 0 && Math.abs(wantY) < Math.abs(wantX)) {
+            vy = assistCorner(map, wantX, true);
+            y += vy;
+        } else if (vy != wantY && vx == 0 && Math.abs(wantX) < Math.abs(wantY)) {
+            vx = assistCorner(map, wantY, false);
+            x += vx;
         }
     }
 
-    // ========== 地图碰撞 ==========
-    protected void handleMapCollision(Tile[][] map) {
-        if (vx == 0 && vy == 0) return;
+    /** 沿一个轴最多能走多远（车身内缩 WALL_MARGIN，出地图算墙） */
+    private double sweep(MapModel map, double delta, boolean horizontal) {
+        return map.sweepTankRect(x + WALL_MARGIN, y + WALL_MARGIN,
+                x + width - WALL_MARGIN, y + height - WALL_MARGIN, delta, horizontal);
+    }
 
-        double nextX = x + vx;
-        double nextY = y + vy;
+    /**
+     * 拐角辅助：沿 horizontal 轴走 delta 被挡住时，看看往垂直方向挪不超过 CORNER_ASSIST 像素
+     * 能不能让开挡路的格子，能就朝那边挪（同样扫掠），返回垂直方向的位移
+     */
+    private double assistCorner(MapModel map, double delta, boolean horizontal) {
+        double grid = GameConfig.GRID_SIZE;
+        double low = (horizontal ? y : x) + WALL_MARGIN;
+        double high = (horizontal ? y + height : x + width) - WALL_MARGIN;
+        // 往负方向挪到不再压住最后一格 / 往正方向挪到离开第一格 各要多远
+        double toNegative = high - MapModel.toCell(high) * grid + MapModel.CONTACT_EPSILON;
+        double toPositive = (MapModel.toCell(low) + 1) * grid - low;
+
+        double best = 0;
+        if (toNegative <= CORNER_ASSIST && clearsAfterShift(map, delta, horizontal, -toNegative)) {
+            best = -toNegative;
+        }
+        if (toPositive <= CORNER_ASSIST && (best == 0 || toPositive < -best)
+                && clearsAfterShift(map, delta, horizontal, toPositive)) {
+            best = toPositive;
+        }
+        if (best == 0) return 0;
 
-        if (isCollidingWithMap(nextX, y, map)) vx = 0;
-        if (isCollidingWithMap(x, nextY, map)) vy = 0;
+        double step = Math.signum(best) * Math.min(Math.abs(best), speed);
+        return sweep(map, step, !horizontal);
     }
 
-    private boolean isCollidingWithMap(double targetX, double targetY, Tile[][] map) {
-        double margin = 2.0;
-        double left = targetX + margin;
-        double right = targetX + width - margin;
-        double top = targetY + margin;
-        double bottom = targetY + height - margin;
-
-        return isSolidTile(left, top, map) ||
-                isSolidTile(right, top, map) ||
-                isSolidTile(left, bottom, map) ||
-                isSolidTile(right, bottom, map);
+    /**
+     * 朝当前炮口方向前进时，贴墙滑行还能走出至少一半速度（AI 用来判断要不要停下转向）
+     */
+    protected boolean canSlideForward(MapModel map) {
+        double radians = Math.toRadians(displayRotation);
+        double moveX = sweep(map, Math.sin(radians) * speed, true);
+        double moveY = sweep(map, -Math.cos(radians) * speed, false);
+        return Math.abs(moveX) + Math.abs(moveY) >= speed * 0.5;
     }
 
-    private boolean isSolidTile(double px, double py, Tile[][] map) {
-        int col = (int) (px / GameConfig.GRID_SIZE);
-        int row = (int) (py / GameConfig.GRID_SIZE);
-
-        if (row < 0 || row >= GameConfig.MAP_ROWS || col < 0 || col >= GameConfig.MAP_COLS) {
-            return true;
-        }
-        Tile tile = map[row][col];
-        return !tile.getType().isTankPassable();
+    /** 垂直方向平移 shift 之后，沿原方向能不能往前走 */
+    private boolean clearsAfterShift(MapModel map, double delta, boolean horizontal, double shift) {
+        double sx = horizontal ? 0 : shift;
+        double sy = horizontal ? shift : 0;
+        double left = x + sx + WALL_MARGIN;
+        double top = y + sy + WALL_MARGIN;
+        double right = x + sx + width - WALL_MARGIN;
+        double bottom = y + sy + height - WALL_MARGIN;
+        return map.isRectTankPassable(left, top, right, bottom)
+                && map.sweepTankRect(left, top, right, bottom, delta, horizontal) != 0;
     }
 
     // ========== 移动逻辑 ==========
@@ -271,21 +280,22 @@ public abstract class Tank extends Entity {
     // ========== 射击系统 (已修复贴墙穿模) ==========
 
     /**
-     * 尝试开火 (需要传入地图进行安全检查)
+     * 尝试开火 (需要传入地图进行安全检查)，子弹直接写进子弹池
+     * @return 子弹在池里的下标；冷却中、枪口被堵或池满返回 -1
      */
-    public Bullet tryFire(Tile[][] map) {
-        long currentTime = System.currentTimeMillis();
-        if (currentTime - lastFireTime >= fireCooldown) {
-            Bullet b = fire(map);
-            if (b != null) { // 只有成功生成子弹才重置冷却
-                lastFireTime = currentTime;
-                return b;
-            }
-        }
-        return null;
+    public int tryFire(MapModel map, BulletPool bullets) {
+        return prepareShot(map) ? emitShot(bullets) : -1;
     }
 
-    private Bullet fire(Tile[][] map) {
+    /**
+     * 第一步：检查冷却和枪口，算好子弹的出生位置和速度，暂存在坦克自己身上
+     * 只写坦克自己的状态，可以在并行的 AI 阶段调用；之后由 World 串行调用 emitShot() 真正发射
+     * @return 是否准备好了一发
+     */
+    public boolean prepareShot(MapModel map) {
+        long currentTime = now();
+        if (currentTime - lastFireTime < fireCooldown) return false;
+
         double radians = Math.toRadians(displayRotation);
 
         // 缩短一点检测距离，防止误判
@@ -295,31 +305,46 @@ public abstract class Tank extends Entity {
 
         // 【关键修复】检查枪口是否被堵住
         if (isMuzzleBlocked(muzzleX, muzzleY, map)) {
-            return null; // 堵住了，不开火
+            return false; // 堵住了，不开火（也不重置冷却）
         }
 
-        double bulletVx = Math.sin(radians) * bulletSpeed;
-        double bulletVy = -Math.cos(radians) * bulletSpeed;
+        shotX = muzzleX;
+        shotY = muzzleY;
+        shotVx = Math.sin(radians) * bulletSpeed;
+        shotVy = -Math.cos(radians) * bulletSpeed;
+        shotDirection = (int) displayRotation;
+        shotPending = true;
+        lastFireTime = currentTime;
+        return true;
+    }
+
+    /**
+     * 第二步：把暂存的一发写进子弹池
+     * @return 子弹下标；没有暂存的子弹或池满返回 -1
+     */
+    public int emitShot(BulletPool bullets) {
+        if (!shotPending) return -1;
+        shotPending = false;
         boolean isEnemyTank = (this.type != TankType.PLAYER_GREEN);
+        return bullets.spawn(isEnemyTank, bulletDamage, shotDirection, shotX, shotY, shotVx, shotVy);
+    }
 
-        return new Bullet(
-                isEnemyTank, bulletDamage, (int)displayRotation,
-                bulletVx, bulletVy, muzzleX, muzzleY,
-                GameConfig.BULLET_RADIUS * 2, GameConfig.BULLET_RADIUS * 2
-        );
+    public boolean hasPendingShot() {
+        return shotPending;
+    }
+
+    /**
+     * 丢掉暂存的一发（切关、基准测试）
+     */
+    public void clearPendingShot() {
+        shotPending = false;
     }
 
     // 检查枪口坐标是否在障碍物内
-    private boolean isMuzzleBlocked(double x, double y, Tile[][] map) {
+    private boolean isMuzzleBlocked(double x, double y, MapModel map) {
         if (map == null) return false;
-        int c = (int) (x / GameConfig.GRID_SIZE);
-        int r = (int) (y / GameConfig.GRID_SIZE);
-
-        if (r < 0 || r >= GameConfig.MAP_ROWS || c < 0 || c >= GameConfig.MAP_COLS) return true;
-
-        Tile t = map[r][c];
-        // 墙和铁块会堵住枪口
-        return t != null && (t.getType() == TileType.STONE || t.getType() == TileType.BRICK);
+        // 墙和铁块会堵住枪口（子弹不可通过），地图外也算堵住
+        return !map.isBulletPassable(MapModel.toCell(y), MapModel.toCell(x));
     }
 
     /**
@@ -344,49 +369,31 @@ public abstract class Tank extends Entity {
      * 道具效果结束，恢复所有属性到出厂设置
      */
     public void resetStats() {
+        if (buffTimer != null) {
+            buffTimer.cancel();
+            buffTimer = null;
+        }
         this.fireCooldown = this.baseFireCooldown;
         this.bulletDamage = this.baseBulletDamage;
         this.bulletSpeed = this.baseBulletSpeed;
         // System.out.println("⚡ 道具效果结束，属性已恢复。");
     }
 
-    // ========== 辅助绘制 ==========
-    private void drawFallback(GraphicsContext gc) {
-        gc.save();
-        gc.translate(x + width / 2, y + height / 2);
-        gc.rotate(displayRotation);
-
-        Color tankColor;
-        switch (type) {
-            case PLAYER_GREEN: tankColor = Color.LIMEGREEN; break;
-            case ENEMY_HEAVY: tankColor = Color.DODGERBLUE; break;
-            case ENEMY_FAST: tankColor = Color.PURPLE; break;
-            case ENEMY_NORMAL: tankColor = Color.GOLD; break;
-            default: tankColor = Color.GRAY;
+    /**
+     * Buff 持续若干秒后自动恢复属性；重复拾取时以最后一次为准重新计时
+     */
+    public void scheduleBuffExpiry(double seconds) {
+        if (buffTimer != null) {
+            buffTimer.cancel();
         }
-
-        gc.setFill(tankColor);
-        gc.fillRect(-width / 2, -height / 2, width, height);
-        gc.setFill(Color.BLACK); // 炮管
-        gc.fillRect(-2, -height / 2 - 10, 4, 15);
-        gc.restore();
-    }
-
-    private void drawHealthBar(GraphicsContext gc) {
-        double barWidth = 30;
-        double barHeight = 4;
-        double barX = x + (width - barWidth) / 2;
-        double barY = y - 10;
-        double healthRatio = (double) health / maxHealth;
-        Color barColor = healthRatio > 0.6 ? Color.LIMEGREEN : healthRatio > 0.3 ? Color.YELLOW : Color.RED;
-
-        gc.setFill(Color.rgb(100, 0, 0, 0.7));
-        gc.fillRect(barX, barY, barWidth, barHeight);
-        gc.setFill(barColor);
-        gc.fillRect(barX, barY, barWidth * healthRatio, barHeight);
-        gc.setStroke(Color.BLACK);
-        gc.setLineWidth(1);
-        gc.strokeRect(barX, barY, barWidth, barHeight);
+        if (clock == null) return;
+        buffTimer = clock.scheduleSeconds(seconds, () -> {
+            buffTimer = null;
+            if (isAlive()) {
+                resetStats();
+                System.out.println("Buff 效果结束");
+            }
+        });
     }
 
     // ========== Getters/Setters ==========
@@ -399,10 +406,13 @@ public abstract class Tank extends Entity {
     public void setMovingBackward(boolean moving) { this.movingBackward = moving; }
     public void setRotatingLeft(boolean rotating) { this.rotatingLeft = rotating; }
     public void setRotatingRight(boolean rotating) { this.rotatingRight = rotating; }
+    public void setFiring(boolean firing) { this.firing = firing; }
+    public boolean isFiring() { return firing; }
 
     public void stopAllMovement() {
         movingForward = false; movingBackward = false;
         rotatingLeft = false; rotatingRight = false;
+        firing = false;
         vx = 0; vy = 0;
     }
     public void setSmoothFactor(double factor) { this.smoothFactor = Math.max(0.05, Math.min(0.5, factor)); }
@@ -435,6 +445,8 @@ public abstract class Tank extends Entity {
     public void setLogicRotation(double angle) { this.logicRotation = normalizeAngle(angle); }
     public void setDisplayRotation(double angle) { this.displayRotation = normalizeAngle(angle); }
     public int getMaxHealth() { return maxHealth; }
+    public boolean isShielded() { return isInvincible; }
+    public boolean isShieldBlinkVisible() { return isVisible; } // 护盾闪烁：false 的周期画成半透明
     public double getHealthPercentage() { return (double) health / maxHealth; }
     public boolean isMovingForward() { return movingForward; }
     public boolean isMovingBackward() { return movingBackward; }
@@ -446,7 +458,4 @@ public abstract class Tank extends Entity {
     public void setRotationSpeed(double rotationSpeed) { this.rotationSpeed = rotationSpeed; }
     public void setVx(double vx) { this.vx = vx; }
     public void setVy(double vy) { this.vy = vy; }
-    public DoubleProperty xProperty() { return xProperty; }
-    public DoubleProperty yProperty() { return yProperty; }
-    public void setImage(Image image) { this.tankImage = image; }
 }
\ No newline at end of file
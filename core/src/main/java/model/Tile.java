@@ -1,4 +1,7 @@
 package model;
+
+import map.MapModel;
+
 /**
  * 地图中的单个格子对象
  * Tile 是地图运行时的最小单位，
@@ -6,6 +9,9 @@ package model;
  * 1. 自身位置
  * 2. 地形类型
  * 3. 状态信息（如是否被破坏）
+ *
+ * 属于某个 MapModel 的 Tile 只是一个视图：类型和破坏标记存在 MapModel 的 byte[] 和位图里，
+ * 这里只记行列，读写都转过去（保证通行性位图同步）。独立 new 出来的 Tile 自己保存状态。
  */
 public class Tile {
 
@@ -15,19 +21,32 @@ public class Tile {
     /** 列索引 */
     private final int col;
 
-    /** 地形类型 */
+    /** 所属地图（视图模式），独立创建的 Tile 为 null */
+    private final MapModel owner;
+
+    /** 地形类型（仅独立模式使用） */
     private TileType type;
 
-    /** 是否被破坏 */
+    /** 是否被破坏（仅独立模式使用） */
     private boolean destroyed;
 
     public Tile(int row, int col, TileType type) {
         this.row = row;
         this.col = col;
+        this.owner = null;
         this.type = type;
         this.destroyed = false;
     }
 
+    /**
+     * 视图模式：由 MapModel 为每个格子创建一次
+     */
+    public Tile(MapModel owner, int row, int col) {
+        this.row = row;
+        this.col = col;
+        this.owner = owner;
+    }
+
     public int getRow() {
         return row;
     }
@@ -37,17 +56,21 @@ public class Tile {
     }
 
     public TileType getType() {
-        return type;
+        return owner != null ? owner.getTileType(row, col) : type;
     }
 
     public boolean isDestroyed() {
-        return destroyed;
+        return owner != null ? owner.isDestroyed(row, col) : destroyed;
     }
 
     /**
      * 标记该格子被破坏
      */
     public void destroy() {
+        if (owner != null) {
+            owner.destroyTile(row, col);
+            return;
+        }
         this.destroyed = true;
         this.type = TileType.EMPTY;
     }
@@ -56,25 +79,29 @@ public class Tile {
      * 判断坦克是否可通过该格子
      */
     public boolean canTankPass() {
-        return type.isTankPassable();
+        return getType().isTankPassable();
     }
 
     /**
      * 判断子弹是否可通过该格子
      */
     public boolean canBulletPass() {
-        return type.isBulletPassable();
+        return getType().isBulletPassable();
     }
 
     /**
      * 判断子弹是否会在该格子发生反弹
      */
     public boolean shouldBulletReflect() {
-        return type.isBulletReflect();
+        return getType().isBulletReflect();
     }
 
     // 在 Tile 类中添加这个 setter
     public void setDestroyed(boolean destroyed) {
+        if (owner != null) {
+            owner.setDestroyed(row, col, destroyed);
+            return;
+        }
         this.destroyed = destroyed;
         if (destroyed && this.type == TileType.BRICK) {
             // 如果砖墙被毁，将其类型改为 EMPTY，这样下一帧坦克和子弹就能通过了
@@ -83,6 +110,14 @@ public class Tile {
     }
 
     public void setType(TileType type) {
+        if (owner != null) {
+            owner.setTileType(row, col, type);
+            return;
+        }
         this.type = type;
     }
+
+    public MapModel getOwner() {
+        return owner;
+    }
 }
@@ -10,16 +10,28 @@ public class RankingManager {
     private static final String DOUBLE_FILE = "double_battle_ranking.txt";
     private static final String ENDLESS_FILE = "endless_mode_ranking.txt";
     private static final int TOP_LIMIT = 50;
+    // 排行榜文件所在目录（默认当前目录；基准测试/仿真指到临时目录，避免覆盖真实排行榜）
+    private static File dataDirectory = new File(".");
 
     private static String getFilePathByMode(PlayerRecord.GameMode gameMode) {
-        return switch (gameMode) {
+        String fileName = switch (gameMode) {
             case SINGLE_CHALLENGE -> SINGLE_FILE;
             case DOUBLE_BATTLE -> DOUBLE_FILE;
             case ENDLESS_MODE -> ENDLESS_FILE;
         };
+        return new File(dataDirectory, fileName).getPath();
     }
 
-    public static void addRecord(int score, int playTime, PlayerRecord.GameMode gameMode) {
+    public static synchronized void setDataDirectory(File directory) {
+        dataDirectory = directory;
+    }
+
+    public static synchronized File getDataDirectory() {
+        return dataDirectory;
+    }
+
+    // 读-排序-整表重写不是原子的，后台执行器上可能并发调用，所以读写都加类锁
+    public static synchronized void addRecord(int score, int playTime, PlayerRecord.GameMode gameMode) {
         PlayerRecord newRecord = new PlayerRecord(score, playTime, gameMode);
         String filePath = getFilePathByMode(gameMode);
 
@@ -48,7 +60,7 @@ public class RankingManager {
     }
 
     // 修复：替换反射，用带参构造方法还原记录
-    public static List<PlayerRecord> loadAllRecords(PlayerRecord.GameMode gameMode) {
+    public static synchronized List<PlayerRecord> loadAllRecords(PlayerRecord.GameMode gameMode) {
         List<PlayerRecord> records = new ArrayList<>();
         String filePath = getFilePathByMode(gameMode);
 
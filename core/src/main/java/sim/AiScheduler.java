@@ -0,0 +1,171 @@
+package sim;
+
+import map.MapModel;
+import model.EnemyTank;
+import model.EnemyTank.AIState;
+import model.Tank;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+/**
+ * 敌人 AI 的分时调度器
+ * 原来每个敌人每 4 帧被调用一次 updateAI，各自的反应计时器决定这次要不要真的决策，
+ * 敌人一多，好几辆坦克的决策经常挤在同一帧；决策开销随敌人数量线性增长，没有上限。
+ *
+ * 现在所有敌人按“下次该思考的帧”放进一个优先队列：
+ *   1. 每帧从队头取出已经到点的坦克做一次决策（EnemyTank.think），做完按反应时间排下一次
+ *   2. 靠近玩家（攻击距离内）或处于攻击/撤退状态的坦克间隔减半，远处巡逻的坦克间隔加倍
+ *   3. 本帧决策累计耗时超过预算（微秒）就停下，没轮到的坦克留在队头，下一帧最先处理（不会饿死）
+ *   4. 同一帧到点的坦克按入队先后轮流，谁也不会一直插队
+ * 没轮到思考的坦克照常 update()，沿用上次的操作继续开（惯性）。
+ *
+ * 决策在 World 的串行阶段执行（预算要按真实耗时计），移动仍然在并行阶段。
+ * 预算按墙钟计，只在过载时才会截断，截断后谁先思考取决于机器负载；
+ * 需要逐位复现的场合把 GameSession.AI_BUDGET_MICROS 设成 0（不限），无界面仿真默认如此（Simulation.headlessSession）。
+ */
+public class AiScheduler {
+
+    /** 靠近玩家或正在攻击/撤退的坦克，思考间隔的缩放 */
+    public static final double URGENT_SCALE = 0.5;
+    /** 巡逻中、玩家在视野之外的坦克，思考间隔的缩放 */
+    public static final double IDLE_SCALE = 2.0;
+
+    /**
+     * 队列项：一辆坦克的排期
+     */
+    private static class Entry {
+        final EnemyTank tank;
+        long dueTick;   // 最早在哪一帧思考
+        long lastTick;  // 上次思考（或入队）的帧
+        long order;     // 入队序号，同一帧到点时先来先处理
+
+        Entry(EnemyTank tank) {
+            this.tank = tank;
+        }
+    }
+
+    private static final Comparator<Entry> BY_DUE = (a, b) -> a.dueTick != b.dueTick
+            ? Long.compare(a.dueTick, b.dueTick)
+            : Long.compare(a.order, b.order);
+
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>(BY_DUE);
+    private final double tickSeconds;
+    private final long budgetNanos;
+    private long nextOrder = 0;
+
+    // 运行统计（调试/基准测试用）
+    private int lastThinks;
+    private long lastNanos;
+    private long totalThinks;
+    private long overBudgetTicks;
+
+    /**
+     * @param tickSeconds  一个逻辑帧的时长（秒）
+     * @param budgetMicros 每帧决策预算（微秒），≤ 0 表示不限
+     */
+    public AiScheduler(double tickSeconds, int budgetMicros) {
+        this.tickSeconds = tickSeconds;
+        this.budgetNanos = budgetMicros > 0 ? budgetMicros * 1000L : Long.MAX_VALUE;
+    }
+
+    /**
+     * 登记一个敌人：第一次思考排在它当前的反应时间之后（天然错开，新一波不会同一帧一起决策）
+     */
+    public void add(EnemyTank tank, long tick) {
+        Entry entry = new Entry(tank);
+        entry.lastTick = tick;
+        entry.dueTick = tick + ticksFor(tank.getCurrentReactionInterval());
+        entry.order = nextOrder++;
+        queue.add(entry);
+    }
+
+    public void clear() {
+        queue.clear();
+    }
+
+    /**
+     * 处理第 tick 帧到点的决策，直到队列里没有到点的坦克或者预算用完
+     * 已经死亡的坦克在出队时丢掉
+     * @return 本帧做了几次决策
+     */
+    public int run(long tick, MapModel map, Tank player) {
+        long start = System.nanoTime();
+        int thinks = 0;
+        while (!queue.isEmpty() && queue.peek().dueTick <= tick) {
+            // 至少做一次，保证预算再紧队列也在往前走
+            if (thinks > 0 && System.nanoTime() - start >= budgetNanos) {
+                overBudgetTicks++;
+                break;
+            }
+            Entry entry = queue.poll();
+            EnemyTank tank = entry.tank;
+            if (!tank.isAlive()) continue;
+
+            tank.think(map, player, (tick - entry.lastTick) * tickSeconds);
+            entry.lastTick = tick;
+            entry.dueTick = tick + intervalFor(tank, player);
+            entry.order = nextOrder++;
+            queue.add(entry);
+            thinks++;
+        }
+        lastThinks = thinks;
+        lastNanos = System.nanoTime() - start;
+        totalThinks += thinks;
+        return thinks;
+    }
+
+    /**
+     * 下次思考距现在几帧：反应时间按优先级缩放
+     */
+    private int intervalFor(EnemyTank tank, Tank player) {
+        double scale = 1.0;
+        AIState state = tank.getCurrentState();
+        if (state == AIState.ATTACK || state == AIState.RETREAT) {
+            scale = URGENT_SCALE;
+        } else if (player != null && player.isAlive()) {
+            double dx = player.getCenterX() - tank.getCenterX();
+            double dy = player.getCenterY() - tank.getCenterY();
+            double distanceSq = dx * dx + dy * dy;
+            double attackRange = tank.getAttackRange();
+            double sightRange = tank.getSightRange();
+            if (distanceSq <= attackRange * attackRange) {
+                scale = URGENT_SCALE;
+            } else if (state == AIState.PATROL && distanceSq > sightRange * sightRange) {
+                scale = IDLE_SCALE;
+            }
+        }
+        return ticksFor(tank.getCurrentReactionInterval() * scale);
+    }
+
+    private int ticksFor(double seconds) {
+        return Math.max(1, (int) Math.round(seconds / tickSeconds));
+    }
+
+    /** 队列里登记的坦克数（含还没出队丢掉的死坦克） */
+    public int size() {
+        return queue.size();
+    }
+
+    public int getLastThinks() {
+        return lastThinks;
+    }
+
+    /** 最近一次 run 的耗时（微秒） */
+    public double getLastMicros() {
+        return lastNanos / 1000.0;
+    }
+
+    public long getTotalThinks() {
+        return totalThinks;
+    }
+
+    /** 累计有多少帧因为预算用完而把到点的决策推迟到了下一帧 */
+    public long getOverBudgetTicks() {
+        return overBudgetTicks;
+    }
+
+    public long getBudgetMicros() {
+        return budgetNanos == Long.MAX_VALUE ? 0 : budgetNanos / 1000;
+    }
+}
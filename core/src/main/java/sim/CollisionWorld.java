@@ -0,0 +1,330 @@
+package sim;
+
+import infra.GameConfig;
+import map.MapModel;
+import model.Tank;
+import model.TileType;
+
+import java.util.List;
+
+/**
+ * 碰撞查询服务：地形（MapModel 的通行性位图）+ 动态实体（坦克的空间哈希）
+ * 原来散落在各个场景里的 isPositionSafe / isAreaClear / forceClearArea / 出生点占位检查
+ * 和 World 里的推挤、子弹命中粗筛都走这里，只有这一条热路径需要优化和做基准测试。
+ *
+ * 查询分四类：
+ *   1. 包围盒 vs 地形：isTankPositionValid / isBoxClear / isRegionClear / isSpawnableCell
+ *   2. 包围盒 vs 实体：queryTanks / queryNeighbors / queryFaction / isOccupied
+ *   3. 射线：hasLineOfSight（子弹可穿过的格子算透明）
+ *   4. 改地形：clearTerrain（出生点兜底清障）
+ *   5. 出生点：prepareSpawnIndex（空闲格子索引，O(1) 随机挑选）
+ *
+ * 缓存：坦克网格在一帧里只建一次（移动阶段结束后 invalidateTanks() 标脏，第一次查询时重建），
+ * 阵营网格按逻辑帧号缓存，两个子弹子步共用。实体查询只在 step() 内部有效；
+ * 场景在两帧之间做出生点检查用 isOccupied，它直接遍历坦克列表，不依赖网格。
+ * 不是线程安全的，只在逻辑线程的串行阶段使用。
+ */
+public class CollisionWorld {
+
+    private MapModel map;
+    private Tank player;
+    private final List<Tank> enemies;
+
+    // ========== 动态实体索引 ==========
+    private final SpatialHash<Tank> tankIndex = new SpatialHash<>();     // 全部存活坦克（防重叠）
+    private final SpatialHash<Tank> friendlyIndex = new SpatialHash<>(); // 我方阵营（敌方子弹的目标）
+    private final SpatialHash<Tank> enemyIndex = new SpatialHash<>();    // 敌方阵营（我方子弹的目标）
+    private boolean tankIndexDirty = true;
+    private long factionIndexTick = -1;                                  // 阵营网格是哪一帧建的
+    private final SpawnIndex spawnIndex = new SpawnIndex();              // 出生点空闲索引
+
+    /**
+     * @param enemies World 的敌人列表（直接引用，不拷贝）
+     */
+    public CollisionWorld(List<Tank> enemies) {
+        this.enemies = enemies;
+    }
+
+    public void setMap(MapModel map) {
+        this.map = map;
+        invalidateTanks();
+    }
+
+    public void setPlayer(Tank player) {
+        this.player = player;
+        invalidateTanks();
+    }
+
+    // ==========================================
+    // 包围盒 vs 地形
+    // ==========================================
+
+    /**
+     * 坦克放在 (x, y) 是否合法：不出屏幕、车身覆盖的格子都可通行
+     * 屏幕比地图高一点，落在地图下方屏幕内的部分不算障碍
+     */
+    public boolean isTankPositionValid(double x, double y) {
+        double size = GameConfig.TANK_SIZE;
+        if (x < 0 || x + size > GameConfig.SCREEN_WIDTH ||
+                y < 0 || y + size > GameConfig.SCREEN_HEIGHT) {
+            return false;
+        }
+        return isRegionClear(MapModel.toCell(y), MapModel.toCell(x),
+                MapModel.toCell(y + size), MapModel.toCell(x + size));
+    }
+
+    /**
+     * 像素矩形 (x, y, w, h) 覆盖的格子是否全部坦克可通行，出了地图算不通
+     */
+    public boolean isBoxClear(double x, double y, double w, double h) {
+        return map == null || map.isRectTankPassable(x, y, x + w, y + h);
+    }
+
+    /**
+     * 格子矩形 [row0, row1] × [col0, col1] 是否全部坦克可通行，地图外的部分忽略
+     */
+    public boolean isRegionClear(int row0, int col0, int row1, int col1) {
+        if (map == null) return true;
+        int r0 = Math.max(row0, 0);
+        int c0 = Math.max(col0, 0);
+        int r1 = Math.min(row1, map.getRows() - 1);
+        int c1 = Math.min(col1, map.getCols() - 1);
+        if (r0 > r1 || c0 > c1) return true;
+        return map.isAreaTankPassable(r0, c0, r1, c1);
+    }
+
+    /**
+     * 单个格子坦克能不能进，出了地图算不能
+     */
+    public boolean isCellPassable(int row, int col) {
+        return map == null || map.isTankPassable(row, col);
+    }
+
+    /**
+     * 出生格 / 道具格：只能是空地或草地（正好就是坦克可通行的地形）
+     */
+    public boolean isSpawnableCell(int row, int col) {
+        return map != null && map.isTankPassable(row, col);
+    }
+
+    /**
+     * 坦克沿一个轴移动 delta 像素，最多能走多远（同号，绝对值不超过 |delta|）
+     * 撞墙按 Tank 自己的判定：车身内缩 Tank.WALL_MARGIN 后覆盖的格子不能有障碍、出地图算墙；也不出屏幕。
+     * 只检查新跨进去的那一列（行）格子，每列一次按字比较
+     */
+    public double clampAxisMove(Tank tank, double delta, boolean horizontal) {
+        if (delta == 0) return 0;
+        double pos = horizontal ? tank.x : tank.y;
+        double size = horizontal ? tank.getWidth() : tank.getHeight();
+        double screen = horizontal ? GameConfig.SCREEN_WIDTH : GameConfig.SCREEN_HEIGHT;
+
+        // 先按屏幕边界裁
+        double target = Math.max(0, Math.min(pos + delta, screen - size));
+        delta = target - pos;
+        if (map == null || delta == 0) return delta;
+
+        double margin = Tank.WALL_MARGIN;
+        return map.sweepTankRect(tank.x + margin, tank.y + margin,
+                tank.x + tank.getWidth() - margin, tank.y + tank.getHeight() - margin,
+                delta, horizontal);
+    }
+
+    // ==========================================
+    // 射线
+    // ==========================================
+
+    /**
+     * 两点之间有没有挡子弹的地形（石墙、砖墙）；地图外算透明
+     * 按格子逐个走（DDA），只读位图
+     */
+    public boolean hasLineOfSight(double x0, double y0, double x1, double y1) {
+        if (map == null) return true;
+        double grid = GameConfig.GRID_SIZE;
+        int col = (int) Math.floor(x0 / grid);
+        int row = (int) Math.floor(y0 / grid);
+        int endCol = (int) Math.floor(x1 / grid);
+        int endRow = (int) Math.floor(y1 / grid);
+        double dx = x1 - x0;
+        double dy = y1 - y0;
+        int stepCol = dx > 0 ? 1 : (dx < 0 ? -1 : 0);
+        int stepRow = dy > 0 ? 1 : (dy < 0 ? -1 : 0);
+        double tMaxX = stepCol == 0 ? Double.POSITIVE_INFINITY
+                : ((stepCol > 0 ? (col + 1) * grid : col * grid) - x0) / dx;
+        double tMaxY = stepRow == 0 ? Double.POSITIVE_INFINITY
+                : ((stepRow > 0 ? (row + 1) * grid : row * grid) - y0) / dy;
+        double tDeltaX = stepCol == 0 ? Double.POSITIVE_INFINITY : grid / Math.abs(dx);
+        double tDeltaY = stepRow == 0 ? Double.POSITIVE_INFINITY : grid / Math.abs(dy);
+
+        while (true) {
+            if (map.isInside(row, col) && !map.isBulletPassable(row, col)) {
+                return false;
+            }
+            if (row == endRow && col == endCol) return true;
+            if (tMaxX <= tMaxY) {
+                if (tMaxX > 1.0) return true;
+                col += stepCol;
+                tMaxX += tDeltaX;
+            } else {
+                if (tMaxY > 1.0) return true;
+                row += stepRow;
+                tMaxY += tDeltaY;
+            }
+        }
+    }
+
+    // ==========================================
+    // 改地形
+    // ==========================================
+
+    /**
+     * 把像素矩形覆盖到的障碍物全部清掉（出生点兜底，防止坦克卡在墙里）
+     * 砖墙按被打掉处理，其余障碍（铁墙、水）直接改成空地
+     */
+    public void clearTerrain(double x, double y, double w, double h) {
+        if (map == null) return;
+        int startCol = Math.max(MapModel.toCell(x), 0);
+        int endCol = Math.min(MapModel.toCell(x + w), map.getCols() - 1);
+        int startRow = Math.max(MapModel.toCell(y), 0);
+        int endRow = Math.min(MapModel.toCell(y + h), map.getRows() - 1);
+
+        for (int r = startRow; r <= endRow; r++) {
+            for (int c = startCol; c <= endCol; c++) {
+                if (map.isTankPassable(r, c)) continue;
+                if (map.getTileType(r, c) == TileType.BRICK) {
+                    map.destroyTile(r, c);
+                } else {
+                    map.setTileType(r, c, TileType.EMPTY);
+                }
+            }
+        }
+    }
+
+    // ==========================================
+    // 包围盒 vs 实体
+    // ==========================================
+
+    /**
+     * 坦克移动过（新的一帧、推挤以外的瞬移、增删坦克）后调用，下次查询时重建网格
+     */
+    public void invalidateTanks() {
+        tankIndexDirty = true;
+    }
+
+    private void ensureTankIndex() {
+        if (!tankIndexDirty) return;
+        tankIndex.clear();
+        // 玩家先登记，再按列表顺序登记敌人：查询结果按登记顺序返回，结算顺序和原来遍历列表一致
+        if (player != null && player.isAlive()) {
+            tankIndex.insert(player);
+        }
+        for (int i = 0; i < enemies.size(); i++) {
+            Tank enemy = enemies.get(i);
+            if (enemy.isAlive()) {
+                tankIndex.insert(enemy);
+            }
+        }
+        tankIndexDirty = false;
+    }
+
+    /**
+     * 包围盒和 (x, y, w, h) 相交的存活坦克，按登记顺序追加到 out
+     */
+    public void queryTanks(double x, double y, double w, double h, List<Tank> out) {
+        ensureTankIndex();
+        tankIndex.query(x, y, w, h, out);
+    }
+
+    /**
+     * tank 周围 margin 像素内的其他坦克，按登记顺序追加到 out
+     */
+    public void queryNeighbors(Tank tank, double margin, List<Tank> out) {
+        ensureTankIndex();
+        tankIndex.queryNeighbors(tank, margin, out);
+    }
+
+    /**
+     * 坦克被推开后同步网格（格子范围没变就什么都不做）
+     */
+    public void moved(Tank tank) {
+        if (!tankIndexDirty) {
+            tankIndex.update(tank);
+        }
+    }
+
+    /**
+     * 某一阵营里和 (x, y, w, h) 相交的坦克
+     * @param enemySide true=敌方阵营（我方子弹的目标），false=我方阵营（玩家）
+     * @param tick      当前逻辑帧号：同一帧内的多次查询共用一次建好的网格
+     */
+    public void queryFaction(boolean enemySide, long tick, double x, double y, double w, double h, List<Tank> out) {
+        if (factionIndexTick != tick) {
+            rebuildFactionIndexes();
+            factionIndexTick = tick;
+        }
+        (enemySide ? enemyIndex : friendlyIndex).query(x, y, w, h, out);
+    }
+
+    private void rebuildFactionIndexes() {
+        friendlyIndex.clear();
+        enemyIndex.clear();
+        if (player != null && player.isAlive()) {
+            friendlyIndex.insert(player);
+        }
+        for (int i = 0; i < enemies.size(); i++) {
+            Tank enemy = enemies.get(i);
+            if (enemy.isAlive()) {
+                enemyIndex.insert(enemy);
+            }
+        }
+    }
+
+    /**
+     * 像素坐标 (x, y)（坦克左上角）minDist 以内有没有存活的坦克
+     * 给两帧之间的出生点检查用，直接遍历列表，刚加进来还没进网格的坦克也算
+     */
+    public boolean isOccupied(double x, double y, double minDist) {
+        if (player != null && player.isAlive() && Math.hypot(x - player.getX(), y - player.getY()) < minDist) {
+            return true;
+        }
+        for (int i = 0; i < enemies.size(); i++) {
+            Tank enemy = enemies.get(i);
+            if (enemy.isAlive() && Math.hypot(x - enemy.getX(), y - enemy.getY()) < minDist) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ==========================================
+    // 出生点
+    // ==========================================
+
+    /**
+     * 准备好出生点索引：地形变过就重算能放下坦克的格子，再排除所有存活坦克 minDist 以内的格子
+     * 调用方可以继续 blockRadius / blockArea 排除自己的区域，然后 pick()
+     * @return 还没加载地图时返回 null
+     */
+    public SpawnIndex prepareSpawnIndex(double minDist) {
+        if (map == null) return null;
+        spawnIndex.refresh(map);
+        spawnIndex.clearBlocked();
+        if (player != null && player.isAlive()) {
+            spawnIndex.blockRadius(player.getX(), player.getY(), minDist);
+        }
+        for (int i = 0; i < enemies.size(); i++) {
+            Tank enemy = enemies.get(i);
+            if (enemy.isAlive()) {
+                spawnIndex.blockRadius(enemy.getX(), enemy.getY(), minDist);
+            }
+        }
+        return spawnIndex;
+    }
+
+    // ========== Getter ==========
+
+    public MapModel getMap() { return map; }
+    public SpatialHash<Tank> getTankIndex() { return tankIndex; }
+    public SpatialHash<Tank> getFriendlyIndex() { return friendlyIndex; }
+    public SpatialHash<Tank> getEnemyIndex() { return enemyIndex; }
+    public SpawnIndex getSpawnIndex() { return spawnIndex; }
+}
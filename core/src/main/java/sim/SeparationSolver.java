@@ -0,0 +1,142 @@
+package sim;
+
+import model.Tank;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 坦克防重叠：位置式分离求解器
+ * 原来的做法是每对重叠的坦克每帧只推 2 像素、一边是墙就推另一边、两边都是墙就放弃，
+ * 密集的波次里坦克会来回抖好几秒，每帧都在重复同样的碰撞检查。
+ *
+ * 现在每帧做几轮松弛迭代：
+ *   1. 对每辆坦克查空间哈希里和它重叠的邻居
+ *   2. 沿穿透最浅的轴把两者分开，推开量两边各一半（单次最多 MAX_PUSH）
+ *   3. 每一段推开都用 CollisionWorld.clampAxisMove 按地形裁剪：一边被墙挡住，剩下的量交给另一边
+ *   4. 一轮下来没有任何重叠就提前结束
+ * 每帧开销有上限：最多 MAX_ITERATIONS 轮、最多 MAX_CONTACTS 次结算。
+ * 按登记顺序（玩家在前、敌人按列表顺序）处理，结果确定可复现。
+ */
+public class SeparationSolver {
+
+    /** 每帧最多迭代几轮 */
+    public static final int MAX_ITERATIONS = 4;
+    /** 每帧最多结算多少对接触（防止极端堆叠时一帧卡太久） */
+    public static final int MAX_CONTACTS = 4096;
+    /** 一次结算里单辆坦克最多被推开的距离（像素），避免大面积重叠时一帧瞬移 */
+    public static final double MAX_PUSH = 6.0;
+    /** 分开后额外留的一点缝，避免浮点误差让两者仍判定为相交 */
+    private static final double SLOP = 0.001;
+
+    private final CollisionWorld collision;
+    private final List<Tank> bodies = new ArrayList<>();
+    private final List<Tank> contacts = new ArrayList<>();
+
+    // 最近一次 solve 的统计（调试/基准测试用）
+    private int lastIterations;
+    private int lastContacts;
+
+    public SeparationSolver(CollisionWorld collision) {
+        this.collision = collision;
+    }
+
+    /**
+     * 分离所有重叠的存活坦克
+     * @return 本帧结算了多少对接触
+     */
+    public int solve(Tank player, List<Tank> enemies) {
+        bodies.clear();
+        if (player != null && player.isAlive()) {
+            bodies.add(player);
+        }
+        for (int i = 0; i < enemies.size(); i++) {
+            Tank enemy = enemies.get(i);
+            if (enemy.isAlive()) {
+                bodies.add(enemy);
+            }
+        }
+
+        int resolved = 0;
+        int iteration = 0;
+        while (iteration < MAX_ITERATIONS && resolved < MAX_CONTACTS) {
+            iteration++;
+            int resolvedThisRound = 0;
+            for (int i = 0; i < bodies.size() && resolved < MAX_CONTACTS; i++) {
+                Tank current = bodies.get(i);
+                contacts.clear();
+                collision.queryNeighbors(current, 0, contacts);
+                for (int j = 0; j < contacts.size() && resolved < MAX_CONTACTS; j++) {
+                    Tank other = contacts.get(j);
+                    // 前面的推动可能已经把它们分开了，重新确认
+                    if (other.isAlive() && current.intersects(other) && separate(current, other)) {
+                        resolved++;
+                        resolvedThisRound++;
+                    }
+                }
+            }
+            if (resolvedThisRound == 0) break;
+        }
+
+        lastIterations = iteration;
+        lastContacts = resolved;
+        return resolved;
+    }
+
+    /**
+     * 分开 a、b：各推一半，被墙挡住的那一边剩下的量交给另一边
+     * @return 是否真的挪动了（两个轴上两边都贴墙时返回 false）
+     */
+    private boolean separate(Tank a, Tank b) {
+        double overlapX = Math.min(a.x + a.getWidth(), b.x + b.getWidth()) - Math.max(a.x, b.x);
+        double overlapY = Math.min(a.y + a.getHeight(), b.y + b.getHeight()) - Math.max(a.y, b.y);
+        if (overlapX <= 0 || overlapY <= 0) return false;
+
+        // 先沿穿透最浅的轴推；这个方向两边都贴墙，再试另一个轴（挤在走廊里的坦克可以横向让开）
+        boolean horizontal = overlapX <= overlapY;
+        if (separateAlong(a, b, horizontal ? overlapX : overlapY, horizontal)) return true;
+        return separateAlong(a, b, horizontal ? overlapY : overlapX, !horizontal);
+    }
+
+    private boolean separateAlong(Tank a, Tank b, double overlap, boolean horizontal) {
+        double penetration = Math.min(overlap + SLOP, MAX_PUSH * 2);
+        double centerDelta = horizontal
+                ? a.getCenterX() - b.getCenterX()
+                : a.getCenterY() - b.getCenterY();
+        double dir = centerDelta >= 0 ? 1 : -1; // 中心重合时把 a 往正方向推，和原来的 dx = 1 一致
+
+        double moveA = collision.clampAxisMove(a, dir * penetration / 2, horizontal);
+        applyMove(a, moveA, horizontal);
+        double remaining = penetration - Math.abs(moveA);
+
+        double moveB = collision.clampAxisMove(b, -dir * remaining, horizontal);
+        applyMove(b, moveB, horizontal);
+        remaining -= Math.abs(moveB);
+
+        if (remaining > SLOP) {
+            // b 被墙挡住了，a 再多走一点
+            double extraA = collision.clampAxisMove(a, dir * remaining, horizontal);
+            applyMove(a, extraA, horizontal);
+            moveA += extraA;
+        }
+        return moveA != 0 || moveB != 0;
+    }
+
+    private void applyMove(Tank tank, double delta, boolean horizontal) {
+        if (delta == 0) return;
+        if (horizontal) {
+            tank.x += delta;
+        } else {
+            tank.y += delta;
+        }
+        collision.moved(tank);
+    }
+
+    public int getLastIterations() {
+        return lastIterations;
+    }
+
+    public int getLastContacts() {
+        return lastContacts;
+    }
+}
@@ -0,0 +1,173 @@
+package sim;
+
+import infra.GameSession;
+import map.EnemySpawn;
+import map.GameLevelConfig;
+import map.MapModel;
+import model.PlayerTank;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 无界面仿真驱动
+ * 在普通线程里直接循环 World.step()，不等待垂直同步，也不需要启动 JavaFX。
+ * 用途：AI 调参、压力测试、批量对局统计。
+ *
+ * 每局的状态都在自己的 GameSession 里，所以同一个进程可以并行跑多局（见 runMatches）。
+ * AI 的时间预算在仿真里关掉（见 headlessSession），同一种子不管机器忙不忙都跑出同样的对局。
+ *
+ * 命令行用法：java sim.Simulation [关卡=1] [帧数=36000] [随机种子] [并行局数=1]
+ */
+public class Simulation implements Runnable {
+
+    private final World world;
+    private final long maxTicks;
+    private volatile boolean running = false;
+    private long elapsedNanos = 0;
+
+    public Simulation(World world, long maxTicks) {
+        this.world = world;
+        this.maxTicks = maxTicks;
+    }
+
+    /**
+     * 按闯关模式的配置搭建一个世界：加载地图、放置玩家、生成该关的敌人
+     * 用种子建的对局关掉 AI 的时间预算（按墙钟计时，超预算时谁思考取决于机器负载），同一种子结果可复现
+     */
+    public static World createStageWorld(int level, long seed) {
+        return createStageWorld(level, headlessSession(seed));
+    }
+
+    /**
+     * 无界面仿真用的对局：AI 决策不限时间预算，只由种子决定
+     */
+    public static GameSession headlessSession(long seed) {
+        return new GameSession(seed).override(GameSession.AI_BUDGET_MICROS, 0);
+    }
+
+    public static World createStageWorld(int level, GameSession session) {
+        World world = new World(session);
+        world.loadMap(new MapModel(level));
+
+        double[] pos = world.findFreeSpawnPoint(true);
+        if (pos == null) {
+            pos = new double[]{0, 0};
+        }
+        world.setPlayer(new PlayerTank(pos[0], pos[1]));
+
+        for (EnemySpawn config : GameLevelConfig.getEnemyConfig(level)) {
+            for (int i = 0; i < config.count; i++) {
+                double[] enemyPos = world.findFreeSpawnPoint(false);
+                if (enemyPos != null) {
+                    world.spawnEnemy(config.type, enemyPos[0], enemyPos[1]);
+                }
+            }
+        }
+        return world;
+    }
+
+    /**
+     * 在当前线程跑满 maxTicks 帧，或者玩家死亡/敌人清空时提前结束
+     */
+    @Override
+    public void run() {
+        running = true;
+        long start = System.nanoTime();
+        while (running && world.getTickCount() < maxTicks && !isFinished()) {
+            world.step();
+        }
+        elapsedNanos = System.nanoTime() - start;
+        world.getSession().setGameOver(isFinished());
+        running = false;
+    }
+
+    /**
+     * 在后台线程运行
+     */
+    public Thread start() {
+        Thread thread = new Thread(this, "tank-simulation");
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * 并行跑多局（每个种子一局、一个线程），全部结束后返回
+     * 多局之间已经是并行的，所以每局内部的并行阶段默认关闭，避免互相抢线程池
+     */
+    public static List<Simulation> runMatches(int level, long maxTicks, long... seeds) throws InterruptedException {
+        List<Simulation> simulations = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (long seed : seeds) {
+            GameSession session = headlessSession(seed).override(GameSession.PARALLEL_ENABLED, false);
+            Simulation simulation = new Simulation(createStageWorld(level, session), maxTicks);
+            simulations.add(simulation);
+            threads.add(simulation.start());
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return simulations;
+    }
+
+    public void stop() {
+        running = false;
+    }
+
+    private boolean isFinished() {
+        PlayerTank player = world.getPlayer();
+        return player == null || !player.isAlive() || world.getEnemyTanks().isEmpty();
+    }
+
+    public World getWorld() { return world; }
+    public boolean isRunning() { return running; }
+    public long getElapsedNanos() { return elapsedNanos; }
+
+    public static void main(String[] args) {
+        int level = args.length > 0 ? Integer.parseInt(args[0]) : 1;
+        long ticks = args.length > 1 ? Long.parseLong(args[1]) : 36_000;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime();
+        int matches = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+
+        if (matches > 1) {
+            long[] seeds = new long[matches];
+            for (int i = 0; i < matches; i++) {
+                seeds[i] = seed + i;
+            }
+            long start = System.nanoTime();
+            List<Simulation> results;
+            try {
+                results = runMatches(level, ticks, seeds);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+            long totalTicks = 0;
+            System.out.println("🧪 并行仿真结束 (关卡 " + level + ", " + matches + " 局)");
+            for (Simulation simulation : results) {
+                World world = simulation.getWorld();
+                totalTicks += world.getTickCount();
+                System.out.println("   seed " + world.getSession().getSeed() + ": 逻辑帧 " + world.getTickCount()
+                        + "，剩余敌人 " + world.getEnemyTanks().size()
+                        + "，玩家存活: " + (world.getPlayer() != null && world.getPlayer().isAlive()));
+            }
+            System.out.println("   总耗时 " + String.format("%.3f", seconds) + " 秒，合计 "
+                    + String.format("%.0f", totalTicks / Math.max(seconds, 1e-9)) + " 帧/秒");
+            return;
+        }
+
+        World world = createStageWorld(level, seed);
+        int enemiesAtStart = world.getEnemyTanks().size();
+        Simulation simulation = new Simulation(world, ticks);
+        simulation.run();
+
+        double seconds = simulation.getElapsedNanos() / 1_000_000_000.0;
+        System.out.println("🧪 无界面仿真结束 (关卡 " + level + ", seed " + seed + ")");
+        System.out.println("   逻辑帧: " + world.getTickCount() + "，耗时 " + String.format("%.3f", seconds) + " 秒，"
+                + String.format("%.0f", world.getTickCount() / Math.max(seconds, 1e-9)) + " 帧/秒");
+        System.out.println("   敌人: " + world.getEnemyTanks().size() + " / " + enemiesAtStart
+                + "，玩家存活: " + (world.getPlayer() != null && world.getPlayer().isAlive()));
+    }
+}
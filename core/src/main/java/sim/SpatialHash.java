@@ -0,0 +1,240 @@
+package sim;
+
+import infra.GameConfig;
+import model.Entity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 均匀网格空间哈希（碰撞粗筛 Broadphase）
+ * 按格子（默认 GameConfig.GRID_SIZE）把实体分桶，一个实体的包围盒跨几个格子就登记在几个格子里。
+ * 查询时只看查询框覆盖到的格子，碰撞检测从“每个对每个”的 O(n²) 降到 O(n · 邻居数)。
+ *
+ * 用法：每帧移动结束后 clear() + insert() 重建；之后某个实体又被挪动（推挤）就调用 update()，
+ * 只有它跨越的格子范围变了才会重新登记。
+ * 查询结果按插入顺序返回，所以用它替换原来的顺序遍历时结算顺序不变（结果可复现）。
+ * 不是线程安全的，只在逻辑线程的串行阶段使用。
+ */
+public class SpatialHash<T extends Entity> {
+
+    private final double cellSize;
+    private final int cols;
+    private final int rows;
+
+    // 每个格子里登记的实体编号（编号 = 插入顺序）
+    private final int[][] cellItems;
+    private final int[] cellCounts;
+
+    // 按编号存的实体和它当前占的格子范围
+    private final List<T> entries = new ArrayList<>();
+    private final Map<T, Integer> ids = new IdentityHashMap<>();
+    private int[] minCols = new int[16];
+    private int[] minRows = new int[16];
+    private int[] maxCols = new int[16];
+    private int[] maxRows = new int[16];
+
+    // 查询去重：一个实体跨多个格子时只返回一次
+    private int[] stamps = new int[16];
+    private int currentStamp = 0;
+    private int[] found = new int[16];
+
+    public SpatialHash() {
+        this(GameConfig.GRID_SIZE, GameConfig.MAP_COLS, GameConfig.MAP_ROWS);
+    }
+
+    /**
+     * @param cellSize 格子边长（像素）
+     * @param cols     横向格子数，超出范围的坐标归到边缘格子
+     * @param rows     纵向格子数
+     */
+    public SpatialHash(double cellSize, int cols, int rows) {
+        this.cellSize = cellSize;
+        this.cols = cols;
+        this.rows = rows;
+        this.cellItems = new int[cols * rows][];
+        this.cellCounts = new int[cols * rows];
+    }
+
+    // ========== 登记 ==========
+
+    /**
+     * 清空所有登记（每帧重建前调用），格子数组保留复用
+     */
+    public void clear() {
+        Arrays.fill(cellCounts, 0);
+        entries.clear();
+        ids.clear();
+    }
+
+    public void insert(T entity) {
+        if (ids.containsKey(entity)) {
+            update(entity);
+            return;
+        }
+        int id = entries.size();
+        entries.add(entity);
+        ids.put(entity, id);
+        ensureCapacity(id + 1);
+
+        minCols[id] = toCol(entity.x);
+        minRows[id] = toRow(entity.y);
+        maxCols[id] = toCol(entity.x + entity.getWidth());
+        maxRows[id] = toRow(entity.y + entity.getHeight());
+        stamps[id] = currentStamp;
+        addToCells(id);
+    }
+
+    /**
+     * 实体被挪动后调用：格子范围没变就什么都不做
+     */
+    public void update(T entity) {
+        Integer boxed = ids.get(entity);
+        if (boxed == null) return;
+        int id = boxed;
+
+        int minCol = toCol(entity.x);
+        int minRow = toRow(entity.y);
+        int maxCol = toCol(entity.x + entity.getWidth());
+        int maxRow = toRow(entity.y + entity.getHeight());
+        if (minCol == minCols[id] && minRow == minRows[id] && maxCol == maxCols[id] && maxRow == maxRows[id]) {
+            return;
+        }
+
+        removeFromCells(id);
+        minCols[id] = minCol;
+        minRows[id] = minRow;
+        maxCols[id] = maxCol;
+        maxRows[id] = maxRow;
+        addToCells(id);
+    }
+
+    // ========== 查询 ==========
+
+    /**
+     * 找出包围盒和矩形 (x, y, w, h) 相交的实体，按插入顺序追加到 out
+     */
+    public void query(double x, double y, double w, double h, List<T> out) {
+        queryInto(x, y, w, h, null, out);
+    }
+
+    /**
+     * 找出 entity 周围 margin 像素内的其他实体（不含它自己），按插入顺序追加到 out
+     * margin 用来容纳结算过程中还会发生的小幅推挤
+     */
+    public void queryNeighbors(T entity, double margin, List<T> out) {
+        queryInto(entity.x - margin, entity.y - margin,
+                entity.getWidth() + margin * 2, entity.getHeight() + margin * 2, entity, out);
+    }
+
+    private void queryInto(double x, double y, double w, double h, T exclude, List<T> out) {
+        if (++currentStamp == 0) {
+            // 计数器绕回：清零避免误判“已访问”
+            Arrays.fill(stamps, 0);
+            currentStamp = 1;
+        }
+
+        int minCol = toCol(x);
+        int minRow = toRow(y);
+        int maxCol = toCol(x + w);
+        int maxRow = toRow(y + h);
+        int count = 0;
+
+        for (int r = minRow; r <= maxRow; r++) {
+            for (int c = minCol; c <= maxCol; c++) {
+                int cell = r * cols + c;
+                int[] items = cellItems[cell];
+                for (int i = 0; i < cellCounts[cell]; i++) {
+                    int id = items[i];
+                    if (stamps[id] == currentStamp) continue;
+                    stamps[id] = currentStamp;
+
+                    T candidate = entries.get(id);
+                    if (candidate == exclude) continue;
+                    if (candidate.x < x + w && candidate.x + candidate.getWidth() > x &&
+                            candidate.y < y + h && candidate.y + candidate.getHeight() > y) {
+                        if (count == found.length) {
+                            found = Arrays.copyOf(found, count * 2);
+                        }
+                        found[count++] = id;
+                    }
+                }
+            }
+        }
+
+        // 按插入顺序输出，结算顺序和原来的列表遍历一致
+        Arrays.sort(found, 0, count);
+        for (int i = 0; i < count; i++) {
+            out.add(entries.get(found[i]));
+        }
+    }
+
+    // ========== 内部工具 ==========
+
+    private void addToCells(int id) {
+        for (int r = minRows[id]; r <= maxRows[id]; r++) {
+            for (int c = minCols[id]; c <= maxCols[id]; c++) {
+                int cell = r * cols + c;
+                int[] items = cellItems[cell];
+                if (items == null) {
+                    items = new int[4];
+                    cellItems[cell] = items;
+                } else if (cellCounts[cell] == items.length) {
+                    items = Arrays.copyOf(items, items.length * 2);
+                    cellItems[cell] = items;
+                }
+                items[cellCounts[cell]++] = id;
+            }
+        }
+    }
+
+    private void removeFromCells(int id) {
+        for (int r = minRows[id]; r <= maxRows[id]; r++) {
+            for (int c = minCols[id]; c <= maxCols[id]; c++) {
+                int cell = r * cols + c;
+                int[] items = cellItems[cell];
+                int count = cellCounts[cell];
+                for (int i = 0; i < count; i++) {
+                    if (items[i] == id) {
+                        items[i] = items[count - 1]; // 格子内顺序无所谓，查询时会重新排序
+                        cellCounts[cell] = count - 1;
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    private void ensureCapacity(int size) {
+        if (size <= minCols.length) return;
+        int capacity = Math.max(size, minCols.length * 2);
+        minCols = Arrays.copyOf(minCols, capacity);
+        minRows = Arrays.copyOf(minRows, capacity);
+        maxCols = Arrays.copyOf(maxCols, capacity);
+        maxRows = Arrays.copyOf(maxRows, capacity);
+        stamps = Arrays.copyOf(stamps, capacity);
+    }
+
+    private int toCol(double px) {
+        int c = (int) Math.floor(px / cellSize);
+        return c < 0 ? 0 : (c >= cols ? cols - 1 : c);
+    }
+
+    private int toRow(double py) {
+        int r = (int) Math.floor(py / cellSize);
+        return r < 0 ? 0 : (r >= rows ? rows - 1 : r);
+    }
+
+    // ========== Getter ==========
+
+    public int size() {
+        return entries.size();
+    }
+
+    public double getCellSize() {
+        return cellSize;
+    }
+}
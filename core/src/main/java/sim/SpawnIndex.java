@@ -0,0 +1,199 @@
+package sim;
+
+import infra.GameConfig;
+import map.MapModel;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * 出生点空闲索引：哪些格子能放下一辆坦克、当前又没被占用
+ * 原来的出生点查找是“随机挑一格 → 不行就重来”，地图越满越慢、越容易 100 次都挑不中；
+ * 这里直接维护可用格子的位图，一次 pick() 在可用格子里均匀随机挑一个，只要还有空位就一定成功。
+ *
+ * 两张位图（布局和 MapModel 的通行性位图一样，每行 wordsPerRow 个 long）：
+ *   fits     地形上能放下坦克的格子：以该格为左上角、边长 footprint 的正方形全部坦克可通行。
+ *            用“最大可通行正方形”的动态规划（棋盘距离变换）算，地形版本号变了才重算
+ *   blocked  本次查询排除的格子：被坦克占着、离玩家太近、调用方划掉的区域，每次查询前清空重标
+ * 出生都是当场落地（World.spawnEnemy 立即加入敌人列表），同一帧的下一次查询会把它当成占位坦克排除，
+ * 所以不需要额外的预留位图。
+ *
+ * 挑选只做按字的位运算：数每行的空位（bitCount）→ 随机一个序号 → 找到对应的位，与地图大小无关的
+ * 行数次 long 运算。不是线程安全的，只在逻辑线程使用。
+ */
+public class SpawnIndex {
+
+    private final int rows;
+    private final int cols;
+    private final int wordsPerRow;
+    private final int footprint;   // 坦克占几格（边长）
+
+    private final long[] fits;
+    private final long[] blocked;
+    private final int[] squareSize; // 动态规划缓冲：以 (r, c) 为左上角的最大可通行正方形边长
+
+    private MapModel map;
+    private int terrainVersion = -1;
+
+    public SpawnIndex() {
+        this(GameConfig.MAP_ROWS, GameConfig.MAP_COLS,
+                (int) Math.ceil(GameConfig.TANK_SIZE / GameConfig.GRID_SIZE));
+    }
+
+    public SpawnIndex(int rows, int cols, int footprint) {
+        this.rows = rows;
+        this.cols = cols;
+        this.wordsPerRow = (cols + 63) >>> 6;
+        this.footprint = footprint;
+        this.fits = new long[rows * wordsPerRow];
+        this.blocked = new long[rows * wordsPerRow];
+        this.squareSize = new int[(rows + 1) * (cols + 1)];
+    }
+
+    // ========== 地形部分 ==========
+
+    /**
+     * 换了地图或地形有变化（砖块被打掉）时重算 fits，否则什么都不做
+     */
+    public void refresh(MapModel map) {
+        if (map == this.map && map.getTerrainVersion() == terrainVersion) return;
+        this.map = map;
+        this.terrainVersion = map.getTerrainVersion();
+
+        // 从右下往左上：size(r, c) = min(右, 下, 右下) + 1，格子本身不通就是 0
+        int stride = cols + 1;
+        Arrays.fill(fits, 0L);
+        for (int r = rows - 1; r >= 0; r--) {
+            for (int c = cols - 1; c >= 0; c--) {
+                int size = 0;
+                if (map.isTankPassable(r, c)) {
+                    int right = squareSize[r * stride + c + 1];
+                    int down = squareSize[(r + 1) * stride + c];
+                    int diagonal = squareSize[(r + 1) * stride + c + 1];
+                    size = Math.min(right, Math.min(down, diagonal)) + 1;
+                }
+                squareSize[r * stride + c] = size;
+                if (size >= footprint) {
+                    fits[r * wordsPerRow + (c >>> 6)] |= 1L << (c & 63);
+                }
+            }
+        }
+    }
+
+    // ========== 排除 ==========
+
+    /**
+     * 清空本次查询的排除标记
+     */
+    public void clearBlocked() {
+        Arrays.fill(blocked, 0L);
+    }
+
+    /**
+     * 排除左上角离 (x, y) 不到 radius 像素的格子（坦克占位、离玩家太近）
+     */
+    public void blockRadius(double x, double y, double radius) {
+        double grid = GameConfig.GRID_SIZE;
+        int c0 = Math.max((int) Math.ceil((x - radius) / grid), 0);
+        int c1 = Math.min((int) Math.floor((x + radius) / grid), cols - 1);
+        int r0 = Math.max((int) Math.ceil((y - radius) / grid), 0);
+        int r1 = Math.min((int) Math.floor((y + radius) / grid), rows - 1);
+        double radiusSq = radius * radius;
+        for (int r = r0; r <= r1; r++) {
+            double dy = r * grid - y;
+            for (int c = c0; c <= c1; c++) {
+                double dx = c * grid - x;
+                if (dx * dx + dy * dy < radiusSq) {
+                    blocked[r * wordsPerRow + (c >>> 6)] |= 1L << (c & 63);
+                }
+            }
+        }
+    }
+
+    /**
+     * 排除一块格子矩形 [row0, row1] × [col0, col1]（越界部分忽略）
+     */
+    public void blockArea(int row0, int col0, int row1, int col1) {
+        setArea(blocked, row0, col0, row1, col1);
+    }
+
+    private void setArea(long[] bits, int row0, int col0, int row1, int col1) {
+        int r0 = Math.max(row0, 0);
+        int c0 = Math.max(col0, 0);
+        int r1 = Math.min(row1, rows - 1);
+        int c1 = Math.min(col1, cols - 1);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                bits[r * wordsPerRow + (c >>> 6)] |= 1L << (c & 63);
+            }
+        }
+    }
+
+    // ========== 查询 ==========
+
+    /**
+     * 格子矩形里还剩多少个可用出生格
+     */
+    public int countFree(int row0, int col0, int row1, int col1) {
+        int r0 = Math.max(row0, 0);
+        int c0 = Math.max(col0, 0);
+        int r1 = Math.min(row1, rows - 1);
+        int c1 = Math.min(col1, cols - 1);
+        int count = 0;
+        for (int r = r0; r <= r1; r++) {
+            for (int w = c0 >>> 6; w <= c1 >>> 6; w++) {
+                count += Long.bitCount(freeWord(r, w, c0, c1));
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 在格子矩形里均匀随机挑一个可用出生格
+     * @return 格子编号 row * cols + col；一个空位都没有时返回 -1
+     */
+    public int pick(int row0, int col0, int row1, int col1, Random random) {
+        int total = countFree(row0, col0, row1, col1);
+        if (total == 0) return -1;
+        int target = random.nextInt(total);
+
+        int r0 = Math.max(row0, 0);
+        int c0 = Math.max(col0, 0);
+        int r1 = Math.min(row1, rows - 1);
+        int c1 = Math.min(col1, cols - 1);
+        for (int r = r0; r <= r1; r++) {
+            for (int w = c0 >>> 6; w <= c1 >>> 6; w++) {
+                long word = freeWord(r, w, c0, c1);
+                int n = Long.bitCount(word);
+                if (target >= n) {
+                    target -= n;
+                    continue;
+                }
+                // 在这个字里找第 target 个置位
+                for (int i = 0; i < target; i++) {
+                    word &= word - 1;
+                }
+                int c = (w << 6) + Long.numberOfTrailingZeros(word);
+                return r * cols + c;
+            }
+        }
+        return -1;
+    }
+
+    private long freeWord(int row, int word, int col0, int col1) {
+        int index = row * wordsPerRow + word;
+        long free = fits[index] & ~blocked[index];
+        int from = word == (col0 >>> 6) ? (col0 & 63) : 0;
+        int to = word == (col1 >>> 6) ? (col1 & 63) : 63;
+        long mask = (-1L >>> (63 - to)) & (-1L << from);
+        return free & mask;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getFootprint() {
+        return footprint;
+    }
+}
@@ -0,0 +1,154 @@
+package sim;
+
+import infra.GameConfig;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 多频率子系统调度器
+ * 逻辑帧固定 60Hz，但各子系统需要的精度不同：子弹物理要更细（120Hz 防穿透），
+ * AI 思考 15Hz 足够，道具动画 30Hz 就看不出区别。每个子系统按自己的频率和相位注册：
+ *   频率 ≥ 基准帧率：每帧拆成若干子步连续执行（120Hz = 每帧 2 次，dt 减半）
+ *   频率 < 基准帧率：每隔 period 帧执行一次，phase 错开，避免多个低频子系统挤在同一帧
+ * 按注册顺序执行，顺序即依赖关系。
+ *
+ * 同一子系统内部的“分摊”（把一批对象错开到不同帧）用 isDue(tick, period, slot) 判断；
+ * 敌人 AI 按反应时间和优先级排队，见 AiScheduler。
+ */
+public class SubsystemScheduler {
+
+    /**
+     * 子系统回调
+     */
+    public interface Subsystem {
+        /**
+         * @param tick 当前逻辑帧序号
+         * @param dt   本次调用覆盖的逻辑时间（秒）
+         */
+        void update(long tick, double dt);
+    }
+
+    /**
+     * 注册项（同时记录运行统计）
+     */
+    public static class Entry {
+        private final String name;
+        private final double hz;
+        private final int period;    // 每隔多少帧执行一次（高频子系统为 1）
+        private final int substeps;  // 每次执行拆成几个子步（低频子系统为 1）
+        private final int phase;
+        private final Subsystem subsystem;
+        private long runs = 0;
+        private long totalNanos = 0;
+        private long maxNanos = 0;
+
+        Entry(String name, double hz, int period, int substeps, int phase, Subsystem subsystem) {
+            this.name = name;
+            this.hz = hz;
+            this.period = period;
+            this.substeps = substeps;
+            this.phase = phase;
+            this.subsystem = subsystem;
+        }
+
+        public String getName() { return name; }
+        public double getHz() { return hz; }
+        public int getPeriod() { return period; }
+        public int getSubsteps() { return substeps; }
+        public int getPhase() { return phase; }
+        public long getRuns() { return runs; }
+
+        /** 平均每次执行耗时（微秒） */
+        public double getAverageMicros() {
+            return runs == 0 ? 0 : totalNanos / (double) runs / 1000.0;
+        }
+
+        public double getMaxMicros() {
+            return maxNanos / 1000.0;
+        }
+    }
+
+    private final int baseRate;
+    private final double tickSeconds;
+    private final List<Entry> entries = new ArrayList<>();
+
+    public SubsystemScheduler() {
+        this(GameConfig.TARGET_FPS);
+    }
+
+    public SubsystemScheduler(int baseRate) {
+        this.baseRate = baseRate;
+        this.tickSeconds = 1.0 / baseRate;
+    }
+
+    /**
+     * 注册一个子系统
+     * @param hz    期望频率（会取整到基准帧率的整数倍或整除）
+     * @param phase 低频子系统的相位偏移（帧），用来和其他低频子系统错开
+     */
+    public Entry register(String name, double hz, int phase, Subsystem subsystem) {
+        int period = periodFor(hz);
+        int substeps = hz > baseRate ? Math.max(1, (int) Math.round(hz / baseRate)) : 1;
+        Entry entry = new Entry(name, hz, period, substeps, phase, subsystem);
+        entries.add(entry);
+        return entry;
+    }
+
+    /**
+     * 执行本帧该执行的所有子系统
+     */
+    public void run(long tick) {
+        for (int i = 0; i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+            if (!isDue(tick, entry.period, entry.phase)) continue;
+
+            long start = System.nanoTime();
+            double dt = entry.period * tickSeconds / entry.substeps;
+            for (int s = 0; s < entry.substeps; s++) {
+                entry.subsystem.update(tick, dt);
+            }
+            long cost = System.nanoTime() - start;
+            entry.runs++;
+            entry.totalNanos += cost;
+            if (cost > entry.maxNanos) entry.maxNanos = cost;
+        }
+    }
+
+    /**
+     * 频率换算成执行间隔（帧），至少 1
+     */
+    public int periodFor(double hz) {
+        if (hz >= baseRate) return 1;
+        return Math.max(1, (int) Math.round(baseRate / hz));
+    }
+
+    /**
+     * 第 tick 帧是否轮到相位为 slot 的对象执行（每 period 帧一次）
+     */
+    public static boolean isDue(long tick, int period, int slot) {
+        return period <= 1 || Math.floorMod(tick + slot, (long) period) == 0;
+    }
+
+    public List<Entry> getEntries() {
+        return Collections.unmodifiableList(entries);
+    }
+
+    public int getBaseRate() {
+        return baseRate;
+    }
+
+    public double getTickSeconds() {
+        return tickSeconds;
+    }
+
+    public String getStats() {
+        StringBuilder sb = new StringBuilder("子系统调度:");
+        for (Entry entry : entries) {
+            sb.append(String.format(" [%s %.0fHz 执行%d次 平均%.1fμs 最大%.1fμs]",
+                    entry.name, entry.hz, entry.runs, entry.getAverageMicros(), entry.getMaxMicros()));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,150 @@
+package sim;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * 逻辑帧流水线
+ * 把一帧里“互不依赖”的阶段（每个敌人的 AI + 移动、每颗子弹的积分、粒子更新）
+ * 拆到 work-stealing 线程池上并行执行；有依赖的结算（碰撞、砖块破坏、加分）仍然由调用方串行完成。
+ *
+ * 约定：传进 forEach 的任务只能写“元素自己”的状态，共享数据（地图、玩家）在该阶段只读。
+ * 元素数量少于阈值时直接在当前线程串行跑，避免小场面反而被线程调度拖慢。
+ */
+public class TickPipeline {
+
+    // 少于这个数量就不值得分发到线程池
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 16;
+    // 每个子任务至少处理的元素个数
+    private static final int MIN_CHUNK = 4;
+
+    private final ForkJoinPool pool;
+    private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+    private boolean parallelEnabled = true;
+
+    public TickPipeline() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public TickPipeline(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * 对列表里的每个元素执行 action，阻塞到全部完成再返回（相当于阶段之间的屏障）
+     * 列表在执行期间不能被增删
+     */
+    public <T> void forEach(List<T> items, Consumer<? super T> action) {
+        int size = items.size();
+        if (!parallelEnabled || size < parallelThreshold || pool.getParallelism() <= 1) {
+            for (int i = 0; i < size; i++) {
+                action.accept(items.get(i));
+            }
+            return;
+        }
+
+        int chunk = Math.max(MIN_CHUNK, size / (pool.getParallelism() * 4));
+        pool.invoke(new RangeTask<>(items, action, 0, size, chunk));
+    }
+
+    /**
+     * 对下标 0 ~ size-1 执行 action（给子弹池这类按下标存储的结构数组用），阻塞到全部完成再返回
+     * action 最好是预先建好的对象，串行路径上就不会有任何分配
+     */
+    public void forRange(int size, IntConsumer action) {
+        if (!parallelEnabled || size < parallelThreshold || pool.getParallelism() <= 1) {
+            for (int i = 0; i < size; i++) {
+                action.accept(i);
+            }
+            return;
+        }
+
+        int chunk = Math.max(MIN_CHUNK, size / (pool.getParallelism() * 4));
+        pool.invoke(new IndexRangeTask(action, 0, size, chunk));
+    }
+
+    /**
+     * 二分拆分的区间任务，拆到 chunk 大小以下就在当前工作线程里顺序执行
+     */
+    private static class RangeTask<T> extends RecursiveAction {
+        private final List<T> items;
+        private final Consumer<? super T> action;
+        private final int from;
+        private final int to;
+        private final int chunk;
+
+        RangeTask(List<T> items, Consumer<? super T> action, int from, int to, int chunk) {
+            this.items = items;
+            this.action = action;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunk) {
+                for (int i = from; i < to; i++) {
+                    action.accept(items.get(i));
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RangeTask<>(items, action, from, mid, chunk),
+                    new RangeTask<>(items, action, mid, to, chunk));
+        }
+    }
+
+    /**
+     * 按下标拆分的区间任务（同 RangeTask，只是不经过列表）
+     */
+    private static class IndexRangeTask extends RecursiveAction {
+        private final IntConsumer action;
+        private final int from;
+        private final int to;
+        private final int chunk;
+
+        IndexRangeTask(IntConsumer action, int from, int to, int chunk) {
+            this.action = action;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunk) {
+                for (int i = from; i < to; i++) {
+                    action.accept(i);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new IndexRangeTask(action, from, mid, chunk),
+                    new IndexRangeTask(action, mid, to, chunk));
+        }
+    }
+
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    public void setParallelThreshold(int parallelThreshold) {
+        this.parallelThreshold = Math.max(1, parallelThreshold);
+    }
+
+    public boolean isParallelEnabled() {
+        return parallelEnabled;
+    }
+
+    public void setParallelEnabled(boolean parallelEnabled) {
+        this.parallelEnabled = parallelEnabled;
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+}
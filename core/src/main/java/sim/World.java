@@ -0,0 +1,516 @@
+package sim;
+
+import infra.GameClock;
+import infra.GameConfig;
+import infra.GameSession;
+import item.Item;
+import item.ItemSpawner;
+import item.ItemType;
+import map.FlowField;
+import map.InfluenceMap;
+import map.MapModel;
+import map.VisibilityTable;
+import model.*;
+import model.Tank.TankType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntConsumer;
+
+/**
+ * 无界面仿真世界（Headless Simulation Core）
+ * 持有一局游戏的全部状态：玩家、敌人、子弹、道具和地图。
+ * 不依赖 JavaFX 工具包，step() 推进一个固定逻辑帧，可以在普通线程里超实时运行
+ * （AI 调参、压力测试、回放校验），场景类只负责输入、音效、粒子和绘制。
+ */
+public class World {
+
+    // ========== 世界状态 ==========
+    private MapModel mapModel;                               // 地图模型
+    private Tile[][] map;                                    // 地图瓦片数组
+    private PlayerTank player;                               // 玩家坦克
+    private final List<Tank> enemyTanks = new ArrayList<>(); // 敌方坦克（对战模式下是玩家2）
+    private final BulletPool bullets;                        // 场上子弹（结构数组，按下标访问）
+    private final GameSession session;                       // 所属对局（时钟、随机数、配置覆盖）
+    private final GameClock clock;                           // 逻辑时钟，只随 step() 走动
+    private final ItemSpawner itemSpawner;
+    private final Random random;
+    private TickPipeline pipeline = new TickPipeline();       // 可并行阶段的调度器
+    private final SubsystemScheduler scheduler = new SubsystemScheduler(); // 各子系统按各自频率执行
+    private final AiScheduler aiScheduler;                    // 敌人决策的分时调度（按优先级排队，每帧有预算）
+    private final CollisionWorld collision = new CollisionWorld(enemyTanks); // 地形 + 坦克的碰撞查询
+    private final SeparationSolver separation = new SeparationSolver(collision); // 坦克防重叠
+    private final FlowField flowField = new FlowField();                 // 所有敌人共享的寻路流场（目标：玩家）
+    private final VisibilityTable visibility = new VisibilityTable();    // 格子到格子的视线表（AI 视野）
+    private final InfluenceMap influence = new InfluenceMap();           // 威胁/子弹道/敌人密度（AI 挑站位）
+    private final List<Tank> neighborBuffer = new ArrayList<>();      // 子弹命中粗筛的查询结果（复用，避免每次分配）
+    private double bulletStepFraction = 1.0;                            // 当前子弹子步的比例（给 bulletUpdater 用）
+    private final IntConsumer bulletUpdater;                            // 预先建好的子弹更新回调，子步里不分配
+
+    // ========== 运行参数 ==========
+    /** 对战模式：enemyTanks 由真人操控（不跑 AI），死亡后不移除，复活交给场景 */
+    private boolean versusMode = false;
+    private WorldListener listener = new WorldListener() {};
+
+    // ========== 常量 ==========
+    private static final int BOMB_DAMAGE = 50;        // 单人模式炸弹：全图敌人
+    private static final int VERSUS_BOMB_DAMAGE = 20; // 对战模式炸弹：只炸对手
+
+    public World() {
+        this(new GameSession());
+    }
+
+    public World(GameSession session) {
+        this.session = session;
+        this.clock = session.getClock();
+        this.random = session.getRandom();
+        this.itemSpawner = new ItemSpawner(session);
+        this.bullets = new BulletPool(session.getInt(GameSession.BULLET_CAPACITY, GameConfig.MAX_BULLETS));
+        this.bulletUpdater = i -> bullets.update(i, mapModel, bulletStepFraction);
+        this.aiScheduler = new AiScheduler(scheduler.getTickSeconds(),
+                session.getInt(GameSession.AI_BUDGET_MICROS, GameConfig.AI_BUDGET_MICROS));
+        pipeline.setParallelEnabled(session.getBoolean(GameSession.PARALLEL_ENABLED, true));
+        registerSubsystems();
+    }
+
+    /**
+     * 按执行顺序注册子系统：道具 → 玩家 → 敌人 → 子弹（含命中结算）→ 清理
+     */
+    private void registerSubsystems() {
+        scheduler.register("items", GameConfig.ITEM_HZ, 1, (tick, dt) -> updateItems());
+        scheduler.register("player", GameConfig.TARGET_FPS, 0, (tick, dt) -> updatePlayer());
+        scheduler.register("enemies", GameConfig.TARGET_FPS, 0, (tick, dt) -> updateEnemies(tick));
+        scheduler.register("bullets", GameConfig.PHYSICS_HZ, 0, (tick, dt) -> {
+            updateBullets(dt / scheduler.getTickSeconds());
+            checkBulletTankCollisions(tick);
+            destroyHitBricks();
+        });
+        scheduler.register("cleanup", GameConfig.TARGET_FPS, 0, (tick, dt) -> cleanupObjects());
+    }
+
+    // ========== 世界搭建 ==========
+
+    /**
+     * 切换地图（新关卡/新波次），同时清空子弹和道具
+     */
+    public void loadMap(MapModel mapModel) {
+        this.mapModel = mapModel;
+        this.map = mapModel.getTiles();
+        collision.setMap(mapModel);
+        visibility.update(mapModel);
+        bullets.clear();
+        itemSpawner.clear();
+    }
+
+    /**
+     * 清空所有动态对象（敌人、子弹、道具），玩家保留
+     */
+    public void clearEntities() {
+        enemyTanks.clear();
+        aiScheduler.clear();
+        collision.invalidateTanks();
+        bullets.clear();
+        itemSpawner.clear();
+    }
+
+    public void setPlayer(PlayerTank player) {
+        this.player = player;
+        collision.setPlayer(player);
+        if (player != null) {
+            player.setClock(clock);
+            player.resetInterpolation();
+        }
+    }
+
+    public void addEnemy(Tank enemy) {
+        if (enemy != null) {
+            enemy.setClock(clock);
+            enemy.resetInterpolation();
+            if (enemy instanceof EnemyTank) {
+                ((EnemyTank) enemy).setFlowField(flowField);
+                ((EnemyTank) enemy).setVisibility(visibility);
+                ((EnemyTank) enemy).setInfluence(influence);
+                aiScheduler.add((EnemyTank) enemy, clock.getTicks());
+            }
+            enemyTanks.add(enemy);
+            collision.invalidateTanks();
+        }
+    }
+
+    /**
+     * 按类型创建一个敌方坦克并加入世界
+     */
+    public Tank spawnEnemy(TankType type, double x, double y) {
+        Tank enemy;
+        switch (type) {
+            case ENEMY_HEAVY: enemy = new HeavyTank(x, y); break;
+            case ENEMY_FAST: enemy = new FastTank(x, y); break;
+            default: enemy = new NormalTank(x, y); break;
+        }
+        // AI 随机数从世界的种子派生，同一种子的对局可复现
+        ((EnemyTank) enemy).reseed(random.nextLong());
+        addEnemy(enemy);
+        return enemy;
+    }
+
+    // ========== 核心：推进一个逻辑帧 ==========
+
+    /**
+     * 推进一个固定逻辑帧（1 / TARGET_FPS 秒）
+     * 顺序：道具 → 玩家 → 敌人 → 子弹 → 命中结算 → 清理，各子系统频率见 registerSubsystems()
+     *
+     * 阶段划分（并行阶段只写元素自己，共享数据只读）：
+     *   道具（30Hz）、玩家  串行
+     *   敌人流场、视线表    串行，玩家换格子/地形变化时才重建
+     *   影响力图            串行，每帧增量更新（威胁锥、子弹道、敌人密度）
+     *   敌人 AI 决策        串行，AiScheduler 按优先级取到点的坦克，每帧不超过预算
+     *   敌人移动            并行（读：地图；写：自己），没轮到思考的坦克沿用上次的操作
+     *   开火、坦克防重叠    串行，按列表顺序合并，保证结果确定
+     *   子弹积分（120Hz）   并行（读：地图；写：自己、hitBrick）
+     *   命中结算、砖块破坏  串行，每个子步一次（先结算坦克，墙前的坦克挡住的子弹不再破坏砖块）
+     */
+    public void step() {
+        clock.tick();
+        if (map == null) return;
+
+        savePreviousPositions();
+        scheduler.run(clock.getTicks());
+    }
+
+    /**
+     * 空转一帧：只推进时钟（触发到期的延时任务），不模拟任何实体
+     * 用于过关/波次转场这类“画面停住但计时要继续”的阶段
+     */
+    public void idle() {
+        savePreviousPositions();
+        clock.tick();
+    }
+
+    /**
+     * 记录本帧开始时各实体的位置，渲染层据此在两帧之间插值
+     */
+    private void savePreviousPositions() {
+        if (player != null) {
+            player.savePreviousPosition();
+        }
+        for (Tank enemy : enemyTanks) {
+            enemy.savePreviousPosition();
+        }
+        bullets.savePreviousPositions();
+    }
+
+    private void updateItems() {
+        if (player == null) return;
+
+        if (versusMode) {
+            Tank[] pickers = new Tank[enemyTanks.size() + 1];
+            pickers[0] = player;
+            for (int i = 0; i < enemyTanks.size(); i++) {
+                pickers[i + 1] = enemyTanks.get(i);
+            }
+            itemSpawner.update(pickers);
+        } else {
+            itemSpawner.update(player);
+        }
+
+        for (Item item : itemSpawner.getCollectedItems()) {
+            if (item.getType() == ItemType.BOMB) {
+                detonateBomb(item);
+            }
+            listener.onItemCollected(item);
+        }
+    }
+
+    private void updatePlayer() {
+        if (player == null || !player.isAlive()) return;
+
+        if (player.isFiring()) {
+            fireFrom(player);
+        }
+        player.update(mapModel);
+    }
+
+    private void updateEnemies(long tick) {
+        // 阶段 0（串行）：玩家换了格子或地形变了才重建流场、修补视线表，影响力图增量更新，之后整帧只读
+        if (!versusMode && player != null && player.isAlive()) {
+            flowField.update(mapModel, player.getCenterX(), player.getCenterY());
+            visibility.update(mapModel);
+            influence.update(mapModel, visibility, player, bullets, enemyTanks);
+        }
+
+        // 阶段 1（串行）：到点的敌人做决策，每帧有时间预算；AI 开火的子弹暂存在坦克自己身上（prepareShot）
+        if (!versusMode) {
+            aiScheduler.run(tick, mapModel, player);
+        }
+
+        // 阶段 2（并行）：所有敌人按当前操作移动（只写自己）
+        pipeline.forEach(enemyTanks, this::moveEnemy);
+
+        // 阶段 3（串行）：按列表顺序收集子弹
+        for (int i = 0; i < enemyTanks.size(); i++) {
+            Tank enemy = enemyTanks.get(i);
+            if (!enemy.isAlive()) continue;
+
+            if (versusMode) {
+                // 真人操控：和玩家一样读开火意图
+                if (enemy.isFiring()) {
+                    fireFrom(enemy);
+                }
+            } else if (enemy.hasPendingShot()) {
+                int b = enemy.emitShot(bullets);
+                if (b >= 0) {
+                    listener.onBulletFired(enemy, b);
+                }
+            }
+        }
+
+        // 阶段 4（串行）：所有坦克都动过了，重建坦克网格，整体分离重叠的坦克
+        resolveAllTankOverlaps();
+    }
+
+    /**
+     * 单个敌人的移动（并行阶段调用，只能写自己的状态）
+     */
+    private void moveEnemy(Tank enemy) {
+        if (!enemy.isAlive()) return;
+        enemy.update(mapModel);
+    }
+
+    private void fireFrom(Tank tank) {
+        int b = tank.tryFire(mapModel, bullets);
+        if (b >= 0) {
+            listener.onBulletFired(tank, b);
+        }
+    }
+
+    /**
+     * @param stepFraction 本子步占一整帧的比例（120Hz 时为 0.5）
+     */
+    private void updateBullets(double stepFraction) {
+        // 阶段 1（并行）：子弹各自积分（每颗只写自己的槽位），撞到的砖块只记录不破坏，避免线程间互相看到半帧结果
+        bulletStepFraction = stepFraction;
+        pipeline.forRange(bullets.size(), bulletUpdater);
+    }
+
+    /**
+     * 统一破坏本子步被击中的砖块（串行，在命中结算之后：先撞到坦克的子弹已经把砖块记录清掉了）
+     */
+    private void destroyHitBricks() {
+        for (int i = 0; i < bullets.size(); i++) {
+            Tile brick = bullets.consumeHitBrick(i);
+            if (brick != null) {
+                brick.setDestroyed(true);
+            }
+        }
+    }
+
+    /**
+     * 子弹与坦克的命中结算
+     * 敌方子弹只查我方阵营的网格，我方子弹只查敌方阵营的网格，一颗子弹只结算一次
+     * 总开销约为 子弹数 × 子弹所在格子里的坦克数，而不是 子弹数 × 坦克数
+     *
+     * 本子步里撞砖、反弹次数用完而死掉的子弹也要扫：它的折线停在撞墙的那一点，
+     * 折线上扫到的坦克一定比墙先被碰到，这时坦克挨打、砖块保留。
+     */
+    private void checkBulletTankCollisions(long tick) {
+        // 坦克在子弹子步之间不会移动，阵营网格按帧号缓存，两个子步共用（中途死亡的坦克靠 isAlive 过滤）
+        for (int i = 0; i < bullets.size(); i++) {
+            if (!bullets.isAlive(i) && !bullets.hasMovedThisStep(i)) continue;
+
+            Tank target = findHitTarget(i, !bullets.isEnemy(i), tick);
+            if (target == null) continue;
+
+            target.takeDamage(bullets.getDamage(i));
+            bullets.kill(i);
+            bullets.consumeHitBrick(i); // 先打中了坦克，子弹没飞到墙上
+            listener.onTankHit(target, i);
+            if (target != player && !target.isAlive()) {
+                onEnemyKilled(target);
+            }
+        }
+    }
+
+    /**
+     * 子弹本次走过的折线（含反弹点）最先扫到的存活坦克，没有返回 null
+     * 扫掠检测：子弹一帧飞过坦克也能命中；同一时刻扫到多辆时取登记顺序靠前的，和原来的列表遍历一致
+     */
+    private Tank findHitTarget(int bullet, boolean enemySide, long tick) {
+        int points = bullets.getPathLength(bullet);
+        double size = bullets.getBulletSize();
+        double bx = bullets.getX(bullet);
+        double by = bullets.getY(bullet);
+
+        // 粗筛：整条折线的包围盒
+        double minX = bx, minY = by, maxX = bx, maxY = by;
+        for (int p = 0; p < points; p++) {
+            minX = Math.min(minX, bullets.getPathX(bullet, p));
+            minY = Math.min(minY, bullets.getPathY(bullet, p));
+            maxX = Math.max(maxX, bullets.getPathX(bullet, p));
+            maxY = Math.max(maxY, bullets.getPathY(bullet, p));
+        }
+        neighborBuffer.clear();
+        collision.queryFaction(enemySide, tick, minX, minY, maxX - minX + size, maxY - minY + size, neighborBuffer);
+        if (neighborBuffer.isEmpty()) return null;
+
+        if (points < 2) {
+            // 没有走过的路径（比如刚生成还没更新），按当前位置判定
+            for (int i = 0; i < neighborBuffer.size(); i++) {
+                Tank tank = neighborBuffer.get(i);
+                if (tank.isAlive() && tank.sweepEntryTime(bx, by, bx, by, size, size) >= 0) return tank;
+            }
+            return null;
+        }
+
+        // 细判：按折线段顺序扫掠，第一段里有命中就不再看后面的段
+        for (int seg = 0; seg + 1 < points; seg++) {
+            double x0 = bullets.getPathX(bullet, seg);
+            double y0 = bullets.getPathY(bullet, seg);
+            double x1 = bullets.getPathX(bullet, seg + 1);
+            double y1 = bullets.getPathY(bullet, seg + 1);
+
+            Tank best = null;
+            double bestT = Double.MAX_VALUE;
+            for (int i = 0; i < neighborBuffer.size(); i++) {
+                Tank tank = neighborBuffer.get(i);
+                if (!tank.isAlive()) continue;
+                double t = tank.sweepEntryTime(x0, y0, x1, y1, size, size);
+                if (t >= 0 && t < bestT) {
+                    bestT = t;
+                    best = tank;
+                }
+            }
+            if (best != null) return best;
+        }
+        return null;
+    }
+
+    private void cleanupObjects() {
+        if (!versusMode) {
+            enemyTanks.removeIf(enemy -> !enemy.isAlive());
+        }
+        bullets.removeDead();
+    }
+
+    // ========== 击杀与炸弹 ==========
+
+    private void onEnemyKilled(Tank enemy) {
+        if (!versusMode && enemy instanceof EnemyTank) {
+            itemSpawner.onEnemyDestroyed((EnemyTank) enemy);
+        }
+        listener.onEnemyDestroyed(enemy);
+    }
+
+    /**
+     * 炸弹结算
+     * 单人模式：全图敌人受到 50 点伤害；对战模式：只对拾取者的对手造成 20 点伤害
+     */
+    private void detonateBomb(Item item) {
+        if (versusMode) {
+            Tank picker = item.getCollector();
+            if (picker == player) {
+                for (Tank enemy : enemyTanks) {
+                    if (enemy.isAlive()) enemy.takeDamage(VERSUS_BOMB_DAMAGE);
+                }
+            } else if (player != null && player.isAlive()) {
+                player.takeDamage(VERSUS_BOMB_DAMAGE);
+            }
+            System.out.println("💣 对战炸弹爆炸！对手受到" + VERSUS_BOMB_DAMAGE + "点伤害");
+            return;
+        }
+
+        System.out.println("💣 炸弹爆炸！对全图敌人造成" + BOMB_DAMAGE + "点伤害");
+        for (int i = 0; i < enemyTanks.size(); i++) {
+            Tank enemy = enemyTanks.get(i);
+            if (!enemy.isAlive()) continue;
+
+            enemy.takeDamage(BOMB_DAMAGE);
+            if (!enemy.isAlive()) {
+                onEnemyKilled(enemy);
+            }
+        }
+    }
+
+    // ========== 坦克防重叠 ==========
+
+    /**
+     * 分离所有重叠的存活坦克（每帧敌人移动之后调用；基准测试和工具也可以直接调用）
+     * 几轮松弛迭代，推开量按地形裁剪，详见 SeparationSolver
+     */
+    public void resolveAllTankOverlaps() {
+        collision.invalidateTanks();
+        separation.solve(player, enemyTanks);
+    }
+
+    /**
+     * 坦克放在 (x, y) 是否合法：不越界、车身不压在障碍物上
+     */
+    public boolean isValidTankPosition(double x, double y) {
+        return collision.isTankPositionValid(x, y);
+    }
+
+    // ========== 出生点查找 ==========
+
+    /**
+     * 寻找一个安全的出生坐标（格子左上角像素）
+     * 从出生点空闲索引里均匀随机挑一格：只要范围内还有放得下、没被占的格子就一定找得到
+     * @param isPlayer true=地图最后 5 行（玩家），false=地图前 2/3（敌人）
+     * @return double[]{x, y}，范围内没有空位返回 null
+     */
+    public double[] findFreeSpawnPoint(boolean isPlayer) {
+        SpawnIndex index = collision.prepareSpawnIndex(GameConfig.TANK_SIZE + 5.0);
+        if (index == null) return null;
+
+        int startRow = isPlayer ? GameConfig.MAP_ROWS - 5 : 0;
+        int endRow = isPlayer ? GameConfig.MAP_ROWS : GameConfig.MAP_ROWS * 2 / 3;
+
+        int cell = index.pick(startRow, 0, endRow - 1, GameConfig.MAP_COLS - 1, random);
+        if (cell < 0) return null;
+        int r = cell / index.getCols();
+        int c = cell % index.getCols();
+        return new double[]{c * GameConfig.GRID_SIZE, r * GameConfig.GRID_SIZE};
+    }
+
+    /**
+     * 出生格只能是空地或草地
+     */
+    public boolean isSpawnableTile(int r, int c) {
+        return collision.isSpawnableCell(r, c);
+    }
+
+    /**
+     * 像素坐标 (x, y) 附近是否已经有活着的坦克
+     */
+    public boolean isPositionOccupied(double x, double y) {
+        return collision.isOccupied(x, y, GameConfig.TANK_SIZE + 5.0);
+    }
+
+    // ========== Getter / Setter ==========
+
+    public GameSession getSession() { return session; }
+    public MapModel getMapModel() { return mapModel; }
+    public Tile[][] getMap() { return map; }
+    public PlayerTank getPlayer() { return player; }
+    public List<Tank> getEnemyTanks() { return enemyTanks; }
+    public BulletPool getBullets() { return bullets; }
+    public ItemSpawner getItemSpawner() { return itemSpawner; }
+    public Random getRandom() { return random; }
+    public long getTickCount() { return clock.getTicks(); }
+    public GameClock getClock() { return clock; }
+    public TickPipeline getPipeline() { return pipeline; }
+    public SubsystemScheduler getScheduler() { return scheduler; }
+    public CollisionWorld getCollision() { return collision; }
+    public AiScheduler getAiScheduler() { return aiScheduler; }
+    public FlowField getFlowField() { return flowField; }
+    public InfluenceMap getInfluence() { return influence; }
+    public VisibilityTable getVisibility() { return visibility; }
+    public SeparationSolver getSeparation() { return separation; }
+    public void setPipeline(TickPipeline pipeline) { this.pipeline = pipeline; }
+    public boolean isVersusMode() { return versusMode; }
+    public void setVersusMode(boolean versusMode) { this.versusMode = versusMode; }
+    public WorldListener getListener() { return listener; }
+
+    public void setListener(WorldListener listener) {
+        this.listener = listener != null ? listener : new WorldListener() {};
+    }
+}
@@ -0,0 +1,24 @@
+package sim;
+
+import item.Item;
+import model.Tank;
+
+/**
+ * 仿真世界事件回调
+ * World 只负责逻辑，不碰音效/粒子/UI；需要表现层响应的事件通过这里通知出去。
+ * 所有方法都有空实现，场景按需重写即可（无界面运行时可以直接不设置监听器）。
+ */
+public interface WorldListener {
+
+    /** 有坦克成功开火（玩家或敌人），bullet 是子弹在 World.getBullets() 池里的下标，只在回调期间有效 */
+    default void onBulletFired(Tank shooter, int bullet) {}
+
+    /** 坦克被子弹命中（已扣血，可能已经死亡），bullet 同上 */
+    default void onTankHit(Tank victim, int bullet) {}
+
+    /** 敌方坦克被击毁（子弹或炸弹），场景在这里加分 */
+    default void onEnemyDestroyed(Tank enemy) {}
+
+    /** 道具被拾取（效果已生效，炸弹已由 World 结算） */
+    default void onItemCollected(Item item) {}
+}
@@ -1,6 +1,6 @@
 package controller;
 
-import infra.GameConfig;
+import infra.GameSession;
 import javafx.scene.Scene;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
@@ -19,6 +19,7 @@ import java.util.Set;
  */
 public class InputHandler {
     private BaseGameScene scene;
+    private final GameSession session; // 所属对局（判断是否已暂停）
     // 存储一次性按键监听（KeyCode -> 回调函数）
     private Map<KeyCode, Runnable> onceKeyListeners;
     private Set<KeyCode> pressedKeys = new HashSet<>();
@@ -34,8 +35,9 @@ public class InputHandler {
     //游戏结束状态，是否返回
     private boolean r;
 
-    public InputHandler(BaseGameScene scene) {
+    public InputHandler(BaseGameScene scene, GameSession session) {
         this.scene = scene;
+        this.session = session;
         // 初始化一次性按键监听容器（修复NullPointerException）
         this.onceKeyListeners = new HashMap<>();
     }
@@ -61,7 +63,7 @@ public class InputHandler {
         else if (code == KeyCode.ESCAPE) {
             escPressed = true;
             // 触发暂停逻辑
-            if (!GameConfig.isGamePaused()) {
+            if (!session.isPaused()) {
                 scene.pauseGameProcess();
                 // 【修复点】这里改为调用静态 show 方法，并传入 scene 参数
                 // 或者写成: new SettingsWindow(scene.getPrimaryStage(), scene).show();
@@ -76,12 +78,20 @@ public class InputHandler {
         // 我这里先保留你的原意，但通常是在 Released 里设为 false
 
         // 处理一次性按键监听
-        if (onceKeyListeners.containsKey(code)) {
-            Runnable callback = onceKeyListeners.get(code);
-            if (callback != null) callback.run();
-            onceKeyListeners.remove(code); // 执行后移除
-            event.consume();
-        }
+        handleOnceKey(event);
+    }
+
+    /**
+     * 只处理一次性按键监听（游戏结束后场景只把按键交给这里：R 重开、ESC 回主菜单）
+     * @return 是否有监听被触发
+     */
+    public boolean handleOnceKey(KeyEvent event) {
+        KeyCode code = event.getCode();
+        if (!onceKeyListeners.containsKey(code)) return false;
+        Runnable callback = onceKeyListeners.remove(code); // 执行前移除，回调里可以重新绑定
+        if (callback != null) callback.run();
+        event.consume();
+        return true;
     }
 
     public void handleKeyReleased(KeyEvent event) {
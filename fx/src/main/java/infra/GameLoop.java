@@ -0,0 +1,102 @@
+package infra; // <--- 改成了 infra
+
+import javafx.animation.AnimationTimer;
+
+/**
+ * 固定时间步长游戏循环 (Fixed Time-Step Loop)
+ * 放在 infra 包很合适，因为它是驱动游戏的“发动机”，属于基础设置。
+ */
+public abstract class GameLoop extends AnimationTimer {
+
+    private final GameSession session; // 所属对局（读取暂停状态和配置覆盖）
+    private long lastTime = 0;
+    private double accumulatedTime = 0;
+
+    // 直接使用同包下的配置，不需要 import GameConfig
+    // 逻辑帧时间：1秒 / 60帧 = 16,666,666 纳秒
+    private static final long TIME_PER_FRAME = 1_000_000_000L / GameConfig.TARGET_FPS;
+
+    // 单次 handle 最多追赶的逻辑帧数（可按场景调整）
+    private int maxStepsPerFrame;
+    // 累计被丢弃的逻辑帧数（调试卡顿用）
+    private long droppedSteps = 0;
+
+    public GameLoop(GameSession session) {
+        this.session = session;
+        this.maxStepsPerFrame = Math.max(1,
+                session.getInt(GameSession.MAX_STEPS_PER_FRAME, GameConfig.MAX_STEPS_PER_FRAME));
+    }
+
+    @Override
+    public void handle(long now) {
+
+        // 暂停状态不执行任何逻辑
+        if (session.isPaused()) {
+            return;
+        }
+
+        if (lastTime == 0) {
+            lastTime = now;
+            return;
+        }
+
+        long elapsed = now - lastTime;
+        lastTime = now;
+
+        accumulatedTime += elapsed;
+
+        // 追赶逻辑：如果卡顿了，就连续计算多次物理逻辑，但最多 maxStepsPerFrame 次
+        int steps = 0;
+        while (accumulatedTime >= TIME_PER_FRAME && steps < maxStepsPerFrame) {
+            onUpdate();
+            accumulatedTime -= TIME_PER_FRAME;
+            steps++;
+        }
+
+        // 还没追平说明卡得太久：丢弃整帧部分，只保留不足一帧的余量，游戏时间“慢一拍”而不是越追越卡
+        if (accumulatedTime >= TIME_PER_FRAME) {
+            long dropped = (long) (accumulatedTime / TIME_PER_FRAME);
+            droppedSteps += dropped;
+            accumulatedTime -= dropped * TIME_PER_FRAME;
+        }
+
+        // 剩余的不足一帧的时间比例，用于在上一逻辑帧和当前逻辑帧之间插值绘制
+        onRender(accumulatedTime / TIME_PER_FRAME);
+    }
+
+    // 抽象方法：交给 BaseGameScene 去实现
+    public abstract void onUpdate(); // 逻辑 (60Hz)
+    public abstract void onRender(double alpha); // 绘图 (屏幕刷新率)，alpha ∈ [0, 1)
+
+    public double getAccumulatedTime() {
+        return accumulatedTime;
+    }
+
+    public void setAccumulatedTime(double accumulatedTime) {
+        this.accumulatedTime = accumulatedTime;
+    }
+
+    public int getMaxStepsPerFrame() {
+        return maxStepsPerFrame;
+    }
+
+    public void setMaxStepsPerFrame(int maxStepsPerFrame) {
+        this.maxStepsPerFrame = Math.max(1, maxStepsPerFrame);
+    }
+
+    public GameSession getSession() {
+        return session;
+    }
+
+    public long getDroppedSteps() {
+        return droppedSteps;
+    }
+
+    public long getLastTime() {
+        return lastTime;
+    }
+
+    public void setLastTime(long lastTime) {
+        this.lastTime = lastTime;
+    }
+}
\ No newline at end of file
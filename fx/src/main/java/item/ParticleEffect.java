@@ -85,10 +85,18 @@ public class ParticleEffect {
      * @param gc 图形上下文
      */
     public void render(GraphicsContext gc) {
+        render(gc, 1.0);
+    }
+
+    /**
+     * 按插值位置渲染特效
+     * @param alpha 上一逻辑帧到当前逻辑帧的插值比例
+     */
+    public void render(GraphicsContext gc, double alpha) {
         if (finished) return;
 
         for (Particle particle : particles) {
-            particle.render(gc);
+            particle.render(gc, alpha);
         }
     }
 
@@ -104,6 +112,7 @@ public class ParticleEffect {
      */
     private static class Particle {
         double x, y;
+        double prevX, prevY;    // 上一逻辑帧位置（渲染插值用）
         double vx, vy;
         float size;
         Color color;
@@ -113,6 +122,8 @@ public class ParticleEffect {
         Particle(double x, double y, double vx, double vy, float size, Color color, float life) {
             this.x = x;
             this.y = y;
+            this.prevX = x;
+            this.prevY = y;
             this.vx = vx;
             this.vy = vy;
             this.size = size;
@@ -122,6 +133,10 @@ public class ParticleEffect {
         }
 
         void update(float deltaTime) {
+            // 记录上一帧位置
+            prevX = x;
+            prevY = y;
+
             // 更新位置
             x += vx * deltaTime;
             y += vy * deltaTime;
@@ -136,7 +151,7 @@ public class ParticleEffect {
             size *= 0.95f;
         }
 
-        void render(GraphicsContext gc) {
+        void render(GraphicsContext gc, double interpolation) {
             if (life <= 0) return;
 
             // 根据剩余生命计算透明度
@@ -150,7 +165,9 @@ public class ParticleEffect {
 
             // 绘制粒子
             gc.setFill(renderColor);
-            gc.fillOval(x - size/2, y - size/2, size, size);
+            double renderX = prevX + (x - prevX) * interpolation;
+            double renderY = prevY + (y - prevY) * interpolation;
+            gc.fillOval(renderX - size/2, renderY - size/2, size, size);
         }
     }
 
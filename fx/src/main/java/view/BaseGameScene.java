@@ -3,7 +3,6 @@ package view;
 import game.AppLauncher;
 import item.Item;
 import item.ItemSpawner;
-import item.ItemType;
 import item.ParticleEffect;
 import model.PlayerTank;
 import ranking.PlayerRecord;
@@ -23,10 +22,14 @@ import javafx.scene.text.Text;
 import javafx.stage.Stage;
 import javafx.util.Duration;
 import map.MapModel;
-import model.Bullet;
+import model.BulletPool;
 import model.Tank;
 import controller.InputHandler;
+import sim.World;
+import sim.WorldListener;
+import infra.BackgroundExecutor;
 import infra.GameLoop;
+import infra.GameSession;
 import infra.GameConfig; // 新增导入
 import javafx.scene.control.Slider;
 import javafx.scene.control.CheckBox;
@@ -55,7 +58,7 @@ import static infra.GameConfig.SCREEN_HEIGHT;
  * 功能：整合地图渲染、坦克/子弹绘制、输入监听、UI显示等核心游戏场景逻辑
  * 
  */
-public abstract class BaseGameScene {
+public abstract class BaseGameScene implements WorldListener {
     // 核心场景属性
     protected Stage primaryStage;
     protected Scene scene;
@@ -72,6 +75,11 @@ public abstract class BaseGameScene {
     // 子弹层（顶层）
     protected Canvas bulletCanvas;
     protected GraphicsContext bulletGc; // 原bulletContext
+    // HUD层（最上层）：不随每帧清屏，只在显示的数据变化时重画
+    protected Canvas hudCanvas;
+    protected GraphicsContext hudGc;
+    private Object lastHudState;          // 上次画 HUD 时的数据快照
+    private static final Object HUD_HIDDEN = new Object();
 
     protected StackPane gameRoot;
     protected SpritePainter spritePainter;
@@ -79,25 +87,32 @@ public abstract class BaseGameScene {
 
 
     protected VBox pauseMenu;          // 暂停菜单容器
-    protected boolean isPaused = false; // 暂停状态标记
 
 
     // 提示文本相关
     private Text tipText;
     private Animation currentTipAnimation;
+    // ===================== 对局与仿真世界 =====================
+    protected GameSession session;                   // 本局上下文：暂停/结束状态、时钟、随机数（不再用 GameConfig 的静态标记）
+    protected World world;                           // 逻辑全部在 World 里，场景只负责输入和表现
     // ===================== 新增道具管理属性 =====================
-    protected ItemSpawner itemSpawner;               // 道具生成器
+    protected ItemSpawner itemSpawner;               // 道具生成器（即 world 持有的那一个）
     protected List<ParticleEffect> particleEffects;  // 粒子特效列表
+    // ===================== 后台任务 =====================
+    protected BackgroundExecutor backgroundExecutor; // 写记录、排行榜、地图预生成等 I/O 工作，随场景退出关闭
 
     private long pauseStartTime;
     // 构造方法（初始化流程优化）
     public BaseGameScene(Stage primaryStage) {
-        GameConfig.setGamePaused(false);
-
         this.primaryStage = primaryStage;
         this.spritePainter = new SpritePainter();
-        this.itemSpawner = new ItemSpawner();
+        this.session = new GameSession();
+        this.world = new World(session);
+        this.world.setListener(this);
+        this.itemSpawner = world.getItemSpawner();
         this.particleEffects = new ArrayList<>();
+        this.backgroundExecutor = new BackgroundExecutor("tank-io");
+        backgroundExecutor.submit(SoundManager.getInstance()::preloadEffects);
 
         // 1. 初始化提示文本
         initTipText();
@@ -136,8 +151,12 @@ public abstract class BaseGameScene {
         bulletCanvas = new Canvas(WIDTH, HEIGHT);
         bulletGc = bulletCanvas.getGraphicsContext2D();
 
-        // 按层级添加：地图 → 坦克 → 子弹 → 提示文本（从上到下=顶层到底层）
-        gameRoot.getChildren().addAll(mapCanvas, tankCanvas, bulletCanvas, tipText);
+        // 4. 创建HUD画布（最上层，按需重画）
+        hudCanvas = new Canvas(WIDTH, HEIGHT);
+        hudGc = hudCanvas.getGraphicsContext2D();
+
+        // 按层级添加：地图 → 坦克 → 子弹 → HUD → 提示文本（从上到下=底层到顶层）
+        gameRoot.getChildren().addAll(mapCanvas, tankCanvas, bulletCanvas, hudCanvas, tipText);
     }
 
     // ========== 实现通用clearCanvas方法（支持任意画布清空） ==========
@@ -215,44 +234,52 @@ public abstract class BaseGameScene {
 
     // ========== 游戏主循环控制 ==========
     private void startGameLoop() {
-        gameLoop = new GameLoop() {
+        gameLoop = new GameLoop(session) {
             @Override
             public void onUpdate() {
+                // 后台任务的完成回调统一在逻辑帧里执行（暂停时也照常收取）
+                backgroundExecutor.drainCompletions();
                 // ========== 【修改】暂停时不更新逻辑 ==========
-                if (!isPaused) {
+                if (!session.isPaused()) {
                     updateGameLogic();
                 }
                 // ==========================================
             }
 
             @Override
-            public void onRender() {
+            public void onRender(double alpha) {
                 clearAllLayers();
-                renderGameFrame();
+                renderGameFrame(alpha);
             }
         };
         gameLoop.start();
     }
     // 留给子类 (StageGameScene/TwoPlayerGameScene) 去具体实现
     protected abstract void updateGameLogic(); // 这里写坦克移动、碰撞检测
-    protected abstract void renderGameFrame(); // 这里调用 drawMap, drawTank 等
+    protected abstract void renderGameFrame(double alpha); // 这里调用 drawMap, drawTank 等；alpha 为两逻辑帧之间的插值比例
 
     private void initCommonInput() {
-        inputHandler = new InputHandler(this);
+        inputHandler = new InputHandler(this, session);
     }
 
     private void createScene() {
         scene = new Scene(gameRoot, WIDTH, HEIGHT);
 
         scene.setOnKeyPressed(e -> {
+            // 游戏结束后只响应结束画面绑定的一次性按键（R 重开、ESC 回主菜单），不能暂停也不能操作坦克
+            if (session.isGameOver()) {
+                inputHandler.handleOnceKey(e);
+                return;
+            }
+
             // ========== 【新增】优先拦截 ESC 键 ==========
             if (e.getCode() == KeyCode.ESCAPE) {
                 togglePause();
                 return; // 拦截，不传给 InputHandler
             }
 
-            // 如果暂停了或者游戏结束，禁止操作坦克
-            if (isPaused || GameConfig.isGameOver()) {
+            // 如果暂停了，禁止操作坦克
+            if (session.isPaused()) {
                 return;
             }
             // ==========================================
@@ -261,7 +288,7 @@ public abstract class BaseGameScene {
         });
 
         scene.setOnKeyReleased(e -> {
-            if (isPaused || GameConfig.isGameOver()) return;
+            if (session.isPaused() || session.isGameOver()) return;
             inputHandler.handleKeyReleased(e);
         });
     }
@@ -272,9 +299,9 @@ public abstract class BaseGameScene {
      * 切换暂停/继续状态
      */
     protected void togglePause() {
-        if (GameConfig.isGameOver()) return; // 游戏结束不能暂停
+        if (session.isGameOver()) return; // 游戏结束不能暂停
 
-        if (isPaused) {
+        if (session.isPaused()) {
             resumeGameProcess();
         } else {
             pauseGameProcess();
@@ -285,8 +312,7 @@ public abstract class BaseGameScene {
      * 暂停：停止逻辑、显示菜单、暂停音乐
      */
     public void pauseGameProcess() {
-        isPaused = true;
-        GameConfig.setGamePaused(true);
+        session.setPaused(true);
 
         // 显示菜单 (添加到界面最上层)
         if (!gameRoot.getChildren().contains(pauseMenu)) {
@@ -304,10 +330,9 @@ public abstract class BaseGameScene {
      * 恢复：恢复逻辑、移除菜单、恢复音乐
      */
     protected void resumeGameProcess() {
-        isPaused = false;
-        if (gameLoop != null && !GameConfig.isGameOver()) {
+        session.setPaused(false);
+        if (gameLoop != null && !session.isGameOver()) {
             gameLoop.start();
-            GameConfig.setGamePaused(false);
         }
 
         // 移除菜单
@@ -327,8 +352,13 @@ public abstract class BaseGameScene {
     }
     protected void resetScene() {
         stopCurrentTipAnimation();
+        // 上一局还没到期的延时任务（转场、Buff、道具刷新）全部作废
+        world.getClock().cancelAllTimers();
+        // 本局的暂停/结束标记清零（子类在 resetScene 之后调用 resumeGameProcess 时循环才会继续）
+        session.resetState();
         // 重置时调用分层清屏
         clearAllLayers();
+        hideHud();
         clearDynamicElements();
         resetInputState();
         resetModeSpecificData();
@@ -352,7 +382,7 @@ public abstract class BaseGameScene {
     private void clearDynamicElements() {
         if (gameRoot != null && !gameRoot.getChildren().isEmpty()) {
             // 保留所有分层画布和提示文本
-            gameRoot.getChildren().retainAll(mapCanvas, tankCanvas, bulletCanvas, tipText);
+            gameRoot.getChildren().retainAll(mapCanvas, tankCanvas, bulletCanvas, hudCanvas, tipText);
         }
     }
 
@@ -373,12 +403,12 @@ public abstract class BaseGameScene {
 
     protected void drawTank(Tank tank) {
         // 绘制到坦克层画布
-        // spritePainter.drawTank(tankGc, tank);
+        spritePainter.drawTank(tankGc, tank, 1.0);
     }
 
-    protected void drawBullet(Bullet bullet) {
-        // 绘制到子弹层画布（示例）
-        // spritePainter.drawBullet(bulletGc, bullet);
+    protected void drawBullets(BulletPool bullets) {
+        // 绘制到子弹层画布
+        spritePainter.drawBullets(bulletGc, bullets, 1.0);
     }
 
     // Getter方法
@@ -415,7 +445,8 @@ public abstract class BaseGameScene {
         PlayerRecord.GameMode gameMode = getCurrentGameMode();
         // 2. 核心：调用 RankingManager 添加记录（自动分文件存储+排序+截断）
         // 注意：survivalTime 是long类型，这里强转int（与 RankingManager 参数一致，若需long可修改 RankingManager）
-        RankingManager.addRecord(score, (int) survivalTime, gameMode);
+        // 排行榜是整表读写，放到后台执行器，不卡逻辑帧
+        backgroundExecutor.submit(() -> RankingManager.addRecord(score, (int) survivalTime, gameMode));
 
         // 可选：保留原有道具拾取记录（如需）
         String propRecord = String.format("拾取时间：%s, 道具类型：%s, 玩家位置：(%.2f, %.2f), 玩家血量：%d",
@@ -437,7 +468,7 @@ public abstract class BaseGameScene {
      * @param fileName 文件名
      */
     private void writeRecordToFile(String content, String fileName) {
-        new Thread(() -> {
+        backgroundExecutor.submit(() -> {
             java.io.BufferedWriter writer = null;
             try {
                 java.io.File file = new java.io.File(fileName);
@@ -465,7 +496,7 @@ public abstract class BaseGameScene {
                     }
                 }
             }
-        }).start();
+        });
     }
 
     // 4. 新增：PlayerRecord对象专用写入方法（推荐，便于排行榜解析）
@@ -484,6 +515,26 @@ public abstract class BaseGameScene {
     }
 
 
+    /**
+     * 离开场景（返回主菜单）时调用：停止主循环、取消所有延时任务、关闭后台执行器
+     * 已经开始的写文件任务会继续跑完，但它们的回调不会再执行
+     */
+    protected void disposeSession() {
+        if (gameLoop != null) {
+            gameLoop.stop();
+        }
+        world.getClock().cancelAllTimers();
+        backgroundExecutor.shutdown();
+    }
+
+    public GameSession getSession() {
+        return session;
+    }
+
+    public BackgroundExecutor getBackgroundExecutor() {
+        return backgroundExecutor;
+    }
+
     // ========== 新增：获取主舞台（给设置窗口用） ==========
     public Stage getPrimaryStage() {
         return primaryStage;
@@ -492,46 +543,65 @@ public abstract class BaseGameScene {
 
 
     /**
-     * 父类统一更新方法：处理道具拾取和特效逻辑
+     * 父类统一更新方法：推进粒子特效（道具拾取已经在 World.step() 里结算）
      */
-    // 5. 原有道具拾取记录：修改为兼容PlayerRecord（可选，优化）
     protected void updateBaseElements() {
-        PlayerTank player = getPlayerTank();
-        if (player == null) return;
-
-        itemSpawner.update(player);
-
-        for (Item item : itemSpawner.getCollectedItems()) {
-            particleEffects.add(new ParticleEffect(
-                    item.getX() + item.getWidth()/2,
-                    item.getY() + item.getHeight()/2,
-                    15, Color.GOLD, 0.5f
-            ));
-
-            // 可选：道具拾取记录也使用PlayerRecord（或保留原有字符串，这里演示兼容）
-            String propRecord = String.format("拾取时间：%s, 道具类型：%s, 玩家位置：(%.2f, %.2f), 玩家血量：%d",
-                    new PlayerRecord(0,0,PlayerRecord.GameMode.SINGLE_CHALLENGE).getFinishTimeStr(),
-                    item.getType().name(),
-                    player.getX(),
-                    player.getY(),
-                    player.getHealth()
-            );
-            writeRecordToFile(propRecord, "game_prop_record.txt");
-
-            if (item.getType() == ItemType.BOMB) {
-                handleBombEffect(item);
-            }
-        }
-
         particleEffects.removeIf(ParticleEffect::isFinished);
-        for (ParticleEffect effect : particleEffects) {
-            effect.update(0.016f);
-        }
+        // 每个特效只改自己的粒子，交给流水线并行更新（数量少时自动串行）
+        world.getPipeline().forEach(particleEffects, effect -> effect.update(0.016f));
     }
+
+    /**
+     * World 回调：道具被拾取，播放金色粒子并写入拾取记录
+     */
+    @Override
+    public void onItemCollected(Item item) {
+        particleEffects.add(new ParticleEffect(
+                item.getX() + item.getWidth()/2,
+                item.getY() + item.getHeight()/2,
+                15, Color.GOLD, 0.5f
+        ));
+
+        Tank picker = item.getCollector() != null ? item.getCollector() : getPlayerTank();
+        if (picker == null) return;
+
+        // 可选：道具拾取记录也使用PlayerRecord（或保留原有字符串，这里演示兼容）
+        String propRecord = String.format("拾取时间：%s, 道具类型：%s, 玩家位置：(%.2f, %.2f), 玩家血量：%d",
+                new PlayerRecord(0,0,PlayerRecord.GameMode.SINGLE_CHALLENGE).getFinishTimeStr(),
+                item.getType().name(),
+                picker.getX(),
+                picker.getY(),
+                picker.getHealth()
+        );
+        writeRecordToFile(propRecord, "game_prop_record.txt");
+    }
+
+    // ========== HUD 按需重画 ==========
+
+    /**
+     * 显示 HUD：state 是 HUD 上所有数据的快照（如 List.of(关卡, 分数, 血量...)），
+     * 和上次相同就什么都不做，不同才清空 HUD 层并调用 painter 重画
+     */
+    protected void renderHud(Object state, java.util.function.Consumer<GraphicsContext> painter) {
+        if (state.equals(lastHudState)) return;
+        lastHudState = state;
+        clearCanvas(hudGc);
+        painter.accept(hudGc);
+    }
+
+    /**
+     * 隐藏 HUD（结算画面等全屏遮罩出现时）
+     */
+    protected void hideHud() {
+        if (lastHudState == HUD_HIDDEN) return;
+        lastHudState = HUD_HIDDEN;
+        clearCanvas(hudGc);
+    }
+
     /**
      * 父类统一渲染方法
      */
-    protected void renderBaseElements() {
+    protected void renderBaseElements(double alpha) {
         // 绘制道具到坦克层
         for (Item item : itemSpawner.getActiveItems()) {
             spritePainter.drawItem(tankGc, item);
@@ -539,18 +609,13 @@ public abstract class BaseGameScene {
 
         // 绘制特效到子弹层（最顶层）
         for (ParticleEffect effect : particleEffects) {
-            spritePainter.drawParticleEffect(bulletGc, effect);
+            spritePainter.drawParticleEffect(bulletGc, effect, alpha);
         }
     }
 
     // 子类必须实现：返回当前的玩家坦克
     protected abstract PlayerTank getPlayerTank();
 
-    // 子类选择实现：处理炸弹爆炸对敌人的伤害
-    protected void handleBombEffect(Item item) {
-        // 默认留空，由具体场景类重写来传入敌人列表
-    }
-
     // 补充：修复 pause/resume 中 GameConfig 状态同步
     /**
      * 【升级版】创建带设置功能的暂停菜单
@@ -631,13 +696,9 @@ public abstract class BaseGameScene {
         btnExit.setOnMouseEntered(e -> btnExit.setStyle(hoverStyle));
         btnExit.setOnMouseExited(e -> btnExit.setStyle(btnStyle));
         btnExit.setOnAction(e -> {
-            // 【修复3】离开场景前，彻底停止当前游戏循环
-            if (gameLoop != null) {
-                gameLoop.stop();
-            }
-            // 重置暂停状态，防止污染下一次游戏
-            GameConfig.setGamePaused(false);
-            isPaused = false;
+            // 【修复3】离开场景前，彻底停止当前游戏循环和后台任务
+            disposeSession();
+            // 暂停状态跟着本局 session 一起丢弃，不会污染下一次游戏
 
             SoundManager.getInstance().stopGameMusic();
             SoundManager.getInstance().playBackgroundMusic();
@@ -757,11 +818,20 @@ public abstract class BaseGameScene {
     }
 
     public boolean isPaused() {
-        return isPaused;
+        return session.isPaused();
     }
 
     public void setPaused(boolean paused) {
-        isPaused = paused;
+        session.setPaused(paused);
+    }
+
+    /** 本局是否已经结束（标记在 session 上：结束后按键只交给一次性监听，暂停菜单不再弹出） */
+    public boolean isGameOver() {
+        return session.isGameOver();
+    }
+
+    public void setGameOver(boolean gameOver) {
+        session.setGameOver(gameOver);
     }
 
     public Text getTipText() {
@@ -780,6 +850,10 @@ public abstract class BaseGameScene {
         this.currentTipAnimation = currentTipAnimation;
     }
 
+    public World getWorld() {
+        return world;
+    }
+
     public ItemSpawner getItemSpawner() {
         return itemSpawner;
     }
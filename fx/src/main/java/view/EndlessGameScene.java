@@ -7,15 +7,12 @@ import map.MapFactory; // ✅ 1. 引入工厂
 import map.MapModel;
 import model.*;
 import model.Tank.TankType;
+import sim.SpawnIndex;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.stage.Stage;
-import item.Item;
-import item.ItemType;
 import ranking.PlayerRecord; // 新增：导入PlayerRecord
-import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Random;
 
@@ -25,12 +22,7 @@ import java.util.Random;
  */
 public class EndlessGameScene extends BaseGameScene {
 
-    // ========== 核心对象 ==========
-    private PlayerTank player;
-    private List<Tank> enemyTanks;
-    private List<Bullet> bullets;
-    private MapModel mapModel;
-    private Tile[][] map;
+    // 玩家、敌人、子弹、地图由父类的 world 持有
 
     // ========== 游戏状态 ==========
     private int currentWave;          // 当前波次
@@ -39,9 +31,15 @@ public class EndlessGameScene extends BaseGameScene {
     private int targetKills;          // 当前波次目标杀敌数
     private int maxEnemiesOnScreen;   // 场上最大同时存在敌人输
 
-    private boolean isGameOver;
     private boolean isWaveClearing;   // 是否正在切换波次中
 
+    // 下一波的地图在后台提前生成（字段不带初始值：父类构造里就会调用 startWave）
+    private int[][] prefetchedMapData;
+    private int prefetchedWave;
+    private long prefetchedSeed;
+    // 本局地图种子（取自 world 的随机数），第 n 波的地图只由它和波次决定：后台预生成和当场生成是同一张图，按本局种子可以复现
+    private long mapSeed;
+
     private Random random;
     private long lastSpawnTime;       // 上次生成敌人的时间
     private long gameStartTime;       // 新增：游戏开始时间戳（用于计算游玩时长）
@@ -52,21 +50,21 @@ public class EndlessGameScene extends BaseGameScene {
 
     public EndlessGameScene(Stage stage) {
         super(stage);
-        gameStartTime = System.currentTimeMillis(); // 初始化游戏开始时间
+        gameStartTime = world.getClock().millis(); // 初始化游戏开始时间（游戏时钟）
     }
 
     // ========== 1. 初始化逻辑 ==========
 
     @Override
     protected void initModeSpecificLogic() {
-        random = new Random();
-        enemyTanks = new ArrayList<>();
-        bullets = new ArrayList<>();
+        random = world.getRandom();
+        mapSeed = random.nextLong();
+        world.clearEntities();
 
         // 初始状态
         score = 0;
         currentWave = 1;
-        isGameOver = false;
+        setGameOver(false);
         // ========== 新增：播放无尽模式背景音乐 ==========
         SoundManager.getInstance().playGameMusic(); // 与闯关模式共用同一首音乐，可自定义路径
         System.out.println("🔥 无尽模式启动！准备迎接挑战...");
@@ -78,17 +76,17 @@ public class EndlessGameScene extends BaseGameScene {
         // 重玩时调用
         score = 0;
         currentWave = 1;
-        isGameOver = false;
+        setGameOver(false);
         enemiesKilledInWave = 0;
-        enemyTanks.clear();
-        bullets.clear();
-        gameStartTime = System.currentTimeMillis(); // 重置游戏开始时间
+        world.clearEntities();
+        gameStartTime = world.getClock().millis(); // 重置游戏开始时间
+        mapSeed = random.nextLong();
         startWave(currentWave);
     }
 
     @Override
     protected PlayerTank getPlayerTank() {
-        return player;
+        return world.getPlayer();
     }
 
     /**
@@ -99,6 +97,25 @@ public class EndlessGameScene extends BaseGameScene {
         return PlayerRecord.GameMode.ENDLESS_MODE;
     }
 
+    /**
+     * 在后台执行器上预生成某一波的地图，结果在逻辑帧里交回
+     */
+    private void prefetchMap(int wave) {
+        long seed = mapSeedFor(wave);
+        backgroundExecutor.submit(() -> MapFactory.getMap(wave, new Random(seed)), data -> {
+            prefetchedMapData = data;
+            prefetchedWave = wave;
+            prefetchedSeed = seed;
+        });
+    }
+
+    /**
+     * 第 wave 波地图的种子（每波独立一个 Random，后台线程不碰 world 的随机数）
+     */
+    private long mapSeedFor(int wave) {
+        return mapSeed ^ (wave * 0x9E3779B97F4A7C15L);
+    }
+
     /**
      * 开始新的一波
      */
@@ -114,14 +131,28 @@ public class EndlessGameScene extends BaseGameScene {
         System.out.println("\n=== 第 " + wave + " 波开始 ===");
         System.out.println("目标: 消灭 " + targetKills + " 个敌人");
 
-        // 1. 让工厂生产一张新图 (int[][])
-        int[][] randomMapData = MapFactory.getMap(wave);
+        // 1. 让工厂生产一张新图 (int[][])：后台已经预生成好就直接用，否则当场生成
+        int[][] randomMapData;
+        long mapSeedOfWave = mapSeedFor(wave);
+        if (prefetchedMapData != null && prefetchedWave == wave && prefetchedSeed == mapSeedOfWave) {
+            randomMapData = prefetchedMapData;
+        } else {
+            randomMapData = MapFactory.getMap(wave, new Random(mapSeedOfWave));
+        }
+        prefetchedMapData = null;
+        prefetchMap(wave + 1);
 
-        // 2. 把这张新图塞给 MapModel (这里调用的是接收数组的构造函数)
-        mapModel = new MapModel(randomMapData);
+        // 2. 把这张新图塞给 MapModel：第一波新建，之后复用同一个模型只换地形数组，交给 world（同时清空子弹和道具）
+        MapModel mapModel = world.getMapModel();
+        if (mapModel == null) {
+            mapModel = new MapModel(randomMapData);
+        } else {
+            mapModel.load(randomMapData);
+        }
+        world.loadMap(mapModel);
 
-        // 3. 把转换好的格子给渲染层
-        this.map = mapModel.getTiles();
+        // 3. 取出转换好的格子
+        Tile[][] map = world.getMap();
         // ==========================================
 
         // 🛠️ 调试代码：如果屏幕还是黑的，请看控制台有没有这句话
@@ -130,9 +161,8 @@ public class EndlessGameScene extends BaseGameScene {
         } else {
             System.err.println("❌ 严重错误: map 变量为空！");
         }
-        // 2. 清空当前子弹和敌人
-        bullets.clear();
-        enemyTanks.clear();
+        // 2. 清空当前敌人
+        world.getEnemyTanks().clear();
 
         // 3. 初始化/重置玩家
         initializePlayer();
@@ -165,12 +195,15 @@ public class EndlessGameScene extends BaseGameScene {
         double startX = gridC * GameConfig.GRID_SIZE + offset;
         double startY = gridR * GameConfig.GRID_SIZE + offset;
 
+        PlayerTank player = world.getPlayer();
         if (player == null) {
             player = new PlayerTank(startX, startY);
             player.setHealth(GameConfig.PLAYER_HEALTH);
+            world.setPlayer(player);
         } else {
             player.setX(startX);
             player.setY(startY);
+            player.resetInterpolation();
             player.stopAllMovement();
             int heal = (int)(GameConfig.PLAYER_HEALTH * 0.3);
             player.heal(heal);
@@ -187,53 +220,19 @@ public class EndlessGameScene extends BaseGameScene {
      * 确保坦克出生时绝对不会卡在墙里
      */
     private void forceClearArea(double x, double y) {
-        if (mapModel == null) return;
-
         // 坦克的尺寸
         double size = GameConfig.TANK_SIZE;
         // 稍微扩大一点清理范围，防止边缘摩擦
         double margin = 5.0;
 
-        // 计算坦克占据的左上角和右下角所在的格子行列
-        int startCol = (int)((x - margin) / GameConfig.GRID_SIZE);
-        int endCol = (int)((x + size + margin) / GameConfig.GRID_SIZE);
-        int startRow = (int)((y - margin) / GameConfig.GRID_SIZE);
-        int endRow = (int)((y + size + margin) / GameConfig.GRID_SIZE);
-
-        // 遍历这些格子，全部设为空地
-        for (int r = startRow; r <= endRow; r++) {
-            for (int c = startCol; c <= endCol; c++) {
-                // 边界检查
-                if (r >= 0 && r < GameConfig.MAP_ROWS && c >= 0 && c < GameConfig.MAP_COLS) {
-                    Tile t = mapModel.getTile(r, c);
-                    if (t != null && !t.getType().isTankPassable()) {
-                        // 发现障碍物！强制销毁！
-                        // 注意：这里需要 MapModel 支持修改，或者直接修改 Tile 对象
-                        // 如果 Tile 对象有 setType 方法最好，如果没有，可以用 destroy()
-
-                        // 方案 A: 如果是砖块，直接 destroy
-                        if (t.getType() == TileType.BRICK) {
-                            t.destroy();
-                        }
-                        // 方案 B: 如果是铁墙/水，我们需要更底层的修改 (假设 Tile 有 setDestroyed 或我们重新生成一个空 Tile)
-                        else {
-                            // 简单粗暴：直接覆盖一个新的空 Tile
-                            // 这需要 map 数组是 public 或者有 setTile 方法，
-                            // 这里演示直接修改 mapModel 内部引用的方式 (如果 map 是直接引用的)
-                            if (map != null) {
-                                map[r][c] = new Tile(r, c, TileType.EMPTY);
-                            }
-                        }
-                    }
-                }
-            }
-        }
+        // 坦克占据的格子（含余量）里的障碍物全部清掉：砖块打掉，铁墙/水改成空地
+        world.getCollision().clearTerrain(x - margin, y - margin, size + margin * 2, size + margin * 2);
     }
     // ========== 2. 游戏循环 (Update) ==========
 
     @Override
     protected void updateGameLogic() {
-        if (isGameOver) return;
+        if (isGameOver()) return;
         // 先调用父类更新道具逻辑
         super.updateBaseElements();
 
@@ -243,34 +242,28 @@ public class EndlessGameScene extends BaseGameScene {
             System.out.println("🎉 波次完成！即将进入下一波...");
             showTipText("WAVE COMPLETE!", 2.0);
 
-            // 2秒后进入下一波 (使用 JavaFX 线程安全方式)
-            new Thread(() -> {
-                try {
-                    Thread.sleep(2000);
-                } catch (InterruptedException e) {
-                }
-                javafx.application.Platform.runLater(() -> startWave(currentWave + 1));
-            }).start();
+            // 2秒后进入下一波 (游戏时钟计时，回调在逻辑帧里执行，天然在 JavaFX 线程)
+            world.getClock().scheduleSeconds(2.0, () -> startWave(currentWave + 1));
             return;
         }
 
-        if (isWaveClearing) return; // 转场中不更新逻辑
+        if (isWaveClearing) {
+            world.idle(); // 转场中不更新实体，只让时钟继续走
+            return;
+        }
 
         // 1. 动态生成敌人
         spawnEnemyLogic();
 
-        // 2. 更新实体
-        updatePlayer();
-        updateEnemies();
-        updateBullets();
-
-        // 3. 碰撞检测
-        checkCollisions();
+        // 2. 采集输入，推进一帧仿真（移动、AI、子弹、命中、道具都在 World 里）
+        updatePlayerInput();
+        world.step();
 
-        // 4. 检查玩家存活
+        // 3. 检查玩家存活
+        PlayerTank player = world.getPlayer();
         if (player != null && !player.isAlive()) {
-            if (!isGameOver) { // 确保只触发一次
-                isGameOver = true;
+            if (!isGameOver()) { // 确保只触发一次
+                setGameOver(true);
                 System.out.println("💀 游戏结束！");
 
                 // 停止背景音乐
@@ -288,7 +281,7 @@ public class EndlessGameScene extends BaseGameScene {
                 // 虽然 InputHandler 默认 ESC 是打开设置，但 bindKeyPressOnce 优先级更高且会 consume 事件
                 inputHandler.bindKeyPressOnce(javafx.scene.input.KeyCode.ESCAPE, () -> {
                     System.out.println("🏠 撤离战场...");
-                    gameLoop.stop(); // 停止发动机
+                    disposeSession(); // 停止发动机和后台任务
                     // 方案 B: 直接跳转回 AppLauncher 重新展示主菜单
                     try {
                         game.AppLauncher mainMenu = new game.AppLauncher();
@@ -306,7 +299,7 @@ public class EndlessGameScene extends BaseGameScene {
      */
     private void writeGameRecord() {
         // 计算游玩时长（秒）
-        long playTime = (System.currentTimeMillis() - gameStartTime) / 1000;
+        long playTime = (world.getClock().millis() - gameStartTime) / 1000;
         // 拾取道具总数（从itemSpawner中获取）
         int itemCount = itemSpawner.getActiveItems().size();
         // 无尽模式无"胜利"概念，isWin传false（可自定义为：波次>=10算胜利）
@@ -321,11 +314,12 @@ public class EndlessGameScene extends BaseGameScene {
      */
     private void spawnEnemyLogic() {
         // 只有当场上敌人少于上限，且还有剩余目标未击杀时，才生成
-        int enemiesLeftToSpawn = targetKills - enemiesKilledInWave - enemyTanks.size();
+        int enemiesOnScreen = world.getEnemyTanks().size();
+        int enemiesLeftToSpawn = targetKills - enemiesKilledInWave - enemiesOnScreen;
 
-        if (enemyTanks.size() < maxEnemiesOnScreen && enemiesLeftToSpawn > 0) {
-            long now = System.currentTimeMillis();
-            // 间隔 2 秒生成一只
+        if (enemiesOnScreen < maxEnemiesOnScreen && enemiesLeftToSpawn > 0) {
+            long now = world.getClock().millis();
+            // 间隔 2 秒生成一只（按游戏时钟，暂停时不会攒出一波敌人）
             if (now - lastSpawnTime > 2000) {
                 spawnEnemy();
                 lastSpawnTime = now;
@@ -363,14 +357,7 @@ public class EndlessGameScene extends BaseGameScene {
         if (roll < heavyChance) type = TankType.ENEMY_HEAVY;
         else if (roll < heavyChance + fastChance) type = TankType.ENEMY_FAST;
 
-        Tank enemy;
-        switch (type) {
-            case ENEMY_HEAVY: enemy = new HeavyTank(spawnX, spawnY); break;
-            case ENEMY_FAST: enemy = new FastTank(spawnX, spawnY); break;
-            default: enemy = new NormalTank(spawnX, spawnY); break;
-        }
-
-        enemyTanks.add(enemy);
+        world.spawnEnemy(type, spawnX, spawnY);
     }
     /**
      * 在地图上随机寻找一个空闲的格子
@@ -380,283 +367,62 @@ public class EndlessGameScene extends BaseGameScene {
 // 修改 findFreeGridTile 方法
 // 修改 findFreeGridTile 方法
     private int[] findFreeGridTile(boolean isPlayer) {
-        if (mapModel == null) return new int[]{1, 1};
-
-        int maxAttempts = 100;
-        // 设定最小安全距离（比如 10 个格子，防止贴脸）
-        double minSafeDistance = 10.0 * GameConfig.GRID_SIZE;
-
-        for (int i = 0; i < maxAttempts; i++) {
-            int c = random.nextInt(GameConfig.MAP_COLS);
-            int r = random.nextInt(GameConfig.MAP_ROWS);
+        PlayerTank player = world.getPlayer();
+        // 空闲索引已经排除了地形放不下和被坦克占着的格子
+        SpawnIndex index = world.getCollision().prepareSpawnIndex(GameConfig.TANK_SIZE + 5.0);
+        if (index == null) return new int[]{1, 1};
 
+        int cell;
+        if (isPlayer) {
             // 1. 如果是生成玩家，强制限制在左上角 (比如 6x6 区域)
-            if (isPlayer) {
-                c = random.nextInt(6);
-                r = random.nextInt(6);
-            }
-            // 2. 如果是生成敌人，必须远离玩家
-            else if (player != null && player.isAlive()) {
-                double dx = (c * GameConfig.GRID_SIZE) - player.getX();
-                double dy = (r * GameConfig.GRID_SIZE) - player.getY();
-                double dist = Math.sqrt(dx*dx + dy*dy);
-
-                // 如果离玩家太近，或者随机到了左上角老家，直接重来
-                if (dist < minSafeDistance || (c < 6 && r < 6)) {
-                    continue;
-                }
-            }
-
-            // 3. 基础检查：越界、是否是墙、是否重叠
-            if (r < 0 || r >= GameConfig.MAP_ROWS || c < 0 || c >= GameConfig.MAP_COLS) continue;
-            Tile t = mapModel.getTile(r, c);
-
-            // 只要是空地或草地
-            if (t != null && (t.getType() == TileType.EMPTY || t.getType() == TileType.GRASS)) {
-                if (!isPositionOccupiedByTank(c, r)) {
-                    return new int[]{r, c}; // 找到完美位置
-                }
+            cell = index.pick(0, 0, 5, 5, random);
+        } else {
+            // 2. 如果是生成敌人，必须远离玩家（至少 10 个格子，防止贴脸），也不能落在左上角老家
+            if (player != null && player.isAlive()) {
+                index.blockRadius(player.getX(), player.getY(), 10.0 * GameConfig.GRID_SIZE);
+                index.blockArea(0, 0, 5, 5);
             }
+            cell = index.pick(0, 0, GameConfig.MAP_ROWS - 1, GameConfig.MAP_COLS - 1, random);
         }
-        return null;
+        if (cell < 0) return null;
+        return new int[]{cell / index.getCols(), cell % index.getCols()};
     }
-    /**
-     * 检查某个网格坐标上是否已经有坦克霸占了
-     */
-    private boolean isPositionOccupiedByTank(int col, int row) {
-        // 转换成中心点像素用于检测
-        double centerX = col * GameConfig.GRID_SIZE + GameConfig.GRID_SIZE / 2.0;
-        double centerY = row * GameConfig.GRID_SIZE + GameConfig.GRID_SIZE / 2.0;
-        double checkRadius = GameConfig.GRID_SIZE / 1.5; // 检查半径
+    // ========== 3. 输入与 World 事件 ==========
 
-        // 检查玩家
+    private void updatePlayerInput() {
+        PlayerTank player = world.getPlayer();
         if (player != null && player.isAlive()) {
-            if (Math.abs(player.getCenterX() - centerX) < checkRadius &&
-                    Math.abs(player.getCenterY() - centerY) < checkRadius) {
-                return true;
-            }
-        }
-
-        // 检查其他敌人
-        for (Tank t : enemyTanks) {
-            if (t.isAlive()) {
-                if (Math.abs(t.getCenterX() - centerX) < checkRadius &&
-                        Math.abs(t.getCenterY() - centerY) < checkRadius) {
-                    return true;
-                }
-            }
-        }
-        return false;
-    }
-
-    /**
-     * 检查以 (row, col) 为左上角的 2x2 格子区域是否为空
-     * (因为坦克大小接近 40px，可能会稍微蹭到右边或下边的格子，保险起见查 2x2)
-     */
-    private boolean isAreaClear(int row, int col) {
-        if (mapModel == null) return false;
-
-        // 检查 2x2 区域
-        for (int r = row; r <= row + 1; r++) {
-            for (int c = col; c <= col + 1; c++) {
-                // 越界检查
-                if (r < 0 || r >= GameConfig.MAP_ROWS || c < 0 || c >= GameConfig.MAP_COLS) {
-                    continue; // 忽略越界
-                }
-
-                Tile t = mapModel.getTile(r, c);
-                // 如果有障碍物，返回 false
-                if (t != null && !t.getType().isTankPassable()) {
-                    return false;
-                }
-            }
-        }
-        return true;
-    }
-    // ========== 3. 更新与碰撞 (复用逻辑) ==========
-
-    private void updatePlayer() {
-        if (player.isAlive()) {
             // InputHandler 在 BaseGameScene 中定义
             player.setMovingForward(inputHandler.isWPressed());
             player.setMovingBackward(inputHandler.isSPressed());
             player.setRotatingLeft(inputHandler.isAPressed());
             player.setRotatingRight(inputHandler.isDPressed());
-
-            if (inputHandler.isJPressed()) {
-                Bullet b = player.tryFire(map);
-                if (b != null) bullets.add(b);
-                // ========== 新增：播放子弹发射音效 ==========
-                SoundManager.getInstance().playSoundEffect("explosion.wav"); // 复用子弹音效
-            }
-            player.update(map);
+            player.setFiring(inputHandler.isJPressed());
         }
     }
 
-    private void updateEnemies() {
-        // 使用 Config 中的时间步长计算 deltaTime (秒)
-        double deltaTime = GameConfig.TIME_PER_FRAME / 1_000_000_000.0;
-
-        for (Tank enemy : enemyTanks) {
-            if (!enemy.isAlive()) continue;
-
-            if (enemy instanceof EnemyTank) {
-                EnemyTank ai = (EnemyTank) enemy;
-                ai.updateAI(map, player, deltaTime);
-                Bullet b = ai.consumePendingBullet(); // 取出AI发射的子弹
-                if (b != null) bullets.add(b);
-            }
-            enemy.update(map);
-            checkTankTankCollision(enemy); // 防止重叠
-        }
-    }
-
-    private void updateBullets() {
-        Iterator<Bullet> it = bullets.iterator();
-        while (it.hasNext()) {
-            Bullet b = it.next();
-            b.update(map);
-            // 检查 Entity 的存活状态
-            if (!b.isAlive()) {
-                it.remove();
-            }
-        }
-    }
-
-    private void checkCollisions() {
-        for (Bullet b : bullets) {
-            if (!b.isAlive()) continue;
-
-            // 1. 敌方子弹打玩家
-            if (b.isEnemy && player.isAlive()) {
-                // 使用 Entity 自带的 intersects 方法
-                if (b.intersects(player)) {
-                    player.takeDamage(b.getDamage());
-                    b.setAlive(false);
-                }
-            }
-            // 2. 我方子弹打敌人
-            else if (!b.isEnemy) {
-                for (int i = enemyTanks.size() - 1; i >= 0; i--) {
-                    Tank e = enemyTanks.get(i);
-                    if (e.isAlive() && b.intersects(e)) {
-                        e.takeDamage(b.getDamage());
-                        b.setAlive(false);
-
-                        if (!e.isAlive()) {
-                            score += e.getScoreValue();
-                            enemiesKilledInWave++;
-                            // 【新增】触发道具掉落
-                            if (e instanceof EnemyTank) {
-                                itemSpawner.onEnemyDestroyed((EnemyTank) e);
-                            }
-
-                            enemyTanks.remove(i);
-                        }
-                        break; // 一颗子弹只打一个敌人
-                    }
-                }
-            }
-        }
-    }
-    /**
-     * 处理炸弹效果
-     */
     @Override
-    protected void handleBombEffect(Item item) {
-        if (item.getType() != ItemType.BOMB) return;
-
-        System.out.println("💣 炸弹爆炸！对全图敌人造成50点伤害");
-
-        // 创建临时列表收集被炸死的敌人
-        List<EnemyTank> killedEnemies = new ArrayList<>();
-
-        // 对当前所有敌人造成伤害
-        for (Tank enemy : enemyTanks) {
-            if (enemy.isAlive()) {
-                enemy.takeDamage(50);
-                System.out.println("  敌方坦克受到炸弹伤害，剩余血量: " + enemy.getHealth());
-
-                // 检查是否被炸死
-                if (!enemy.isAlive()) {
-                    if (enemy instanceof EnemyTank) {
-                        killedEnemies.add((EnemyTank) enemy);
-                    }
-                    // 增加分数和击杀计数
-                    score += enemy.getScoreValue();
-                    enemiesKilledInWave++;
-                    System.out.println("  炸弹击杀敌人，得分: " + enemy.getScoreValue());
-                }
-            }
-        }
-
-        // 触发被炸死敌人的道具掉落
-        for (EnemyTank killedEnemy : killedEnemies) {
-            itemSpawner.onEnemyDestroyed(killedEnemy);
-        }
-
-        // 移除死亡的敌人
-        enemyTanks.removeIf(e -> !e.isAlive());
-    }
-    // 简单的坦克防重叠
-    private void checkTankTankCollision(Tank t1) {
-        // 同样使用 Entity 自带的 intersects 方法
-        if (player.isAlive() && t1 != player && t1.intersects(player)) {
-            resolveOverlap(t1, player);
-        }
-        for (Tank t2 : enemyTanks) {
-            if (t1 != t2 && t1.intersects(t2)) {
-                resolveOverlap(t1, t2);
-            }
-        }
-    }
-
-    private void resolveOverlap(Tank t1, Tank t2) {
-        double dx = t1.getCenterX() - t2.getCenterX();
-        double dy = t1.getCenterY() - t2.getCenterY();
-        // 简单的推开逻辑
-        t1.setX(t1.getX() + (dx > 0 ? 1 : -1));
-        t1.setY(t1.getY() + (dy > 0 ? 1 : -1));
-    }
-
-    // ========== 4. 辅助方法：安全出生点查找 ==========
-
-    private double findSafeSpawnPoint(boolean isPlayer) {
-        int maxAttempts = 50;
-        for (int i = 0; i < maxAttempts; i++) {
-            double x = 50 + random.nextDouble() * (GameConfig.SCREEN_WIDTH - 100);
-            double y = isPlayer ?
-                    GameConfig.SCREEN_HEIGHT - 150 + random.nextDouble() * 100 :
-                    50 + random.nextDouble() * 300;
-
-            if (isPositionSafe(x, y)) return x;
+    public void onBulletFired(Tank shooter, int bullet) {
+        if (shooter.isPlayer()) {
+            // ========== 新增：播放子弹发射音效 ==========
+            SoundManager.getInstance().playSoundEffect("explosion.wav"); // 复用子弹音效
         }
-        return GameConfig.SCREEN_WIDTH / 2; // 兜底中间
     }
 
-    private boolean isPositionSafe(double x, double y) {
-        if (map == null) return true;
-        double size = GameConfig.TANK_SIZE;
-        // 检查坦克占用的四个角所在的格子
-        return checkTile(x, y) && checkTile(x + size, y) &&
-                checkTile(x, y + size) && checkTile(x + size, y + size);
-    }
-
-    private boolean checkTile(double x, double y) {
-        int c = (int)(x / GameConfig.GRID_SIZE);
-        int r = (int)(y / GameConfig.GRID_SIZE);
-        // 越界检查
-        if (r < 0 || r >= GameConfig.MAP_ROWS || c < 0 || c >= GameConfig.MAP_COLS) return false;
-
-        Tile t = map[r][c];
-        // 如果是空或者是可以通过的地形
-        return t == null || t.getType().isTankPassable();
+    @Override
+    public void onEnemyDestroyed(Tank enemy) {
+        // 子弹击杀和炸弹击杀都走这里：增加分数和击杀计数
+        score += enemy.getScoreValue();
+        enemiesKilledInWave++;
     }
 
     // ========== 5. 渲染 (Render) ==========
 
     @Override
-    protected void renderGameFrame() {
+    protected void renderGameFrame(double alpha) {
+        Tile[][] map = world.getMap();
+        PlayerTank player = world.getPlayer();
+
         // 1. 画地图 (调用 SpritePainter, 假设 BaseGameScene 中已初始化)
         if (spritePainter != null) {
             spritePainter.drawMapBackground(mapGc, map);
@@ -664,16 +430,14 @@ public class EndlessGameScene extends BaseGameScene {
 
         // 2. 画坦克 (绘制到 tankGc 中间层)
         if (player != null && player.isAlive()) {
-            player.draw(tankGc);
+            spritePainter.drawTank(tankGc, player, alpha);
         }
-        for (Tank e : enemyTanks) {
-            e.draw(tankGc);
+        for (Tank e : world.getEnemyTanks()) {
+            spritePainter.drawTank(tankGc, e, alpha);
         }
 
         // 3. 画子弹 (绘制到 bulletGc 顶层)
-        for (Bullet b : bullets) {
-            b.draw(bulletGc);
-        }
+        spritePainter.drawBullets(bulletGc, world.getBullets(), alpha);
 
         // 4. 画前景 (如草丛遮挡)
         if (spritePainter != null) {
@@ -681,13 +445,16 @@ public class EndlessGameScene extends BaseGameScene {
         }
 
 // 5. 调用父类绘制道具和粒子特效
-        super.renderBaseElements();
-        // 6. 画 UI / HUD
-        drawHUD(bulletGc);
-
+        super.renderBaseElements(alpha);
+        // 6. 画 UI / HUD（单独的 HUD 层，数据变化才重画）
         // 7. 游戏结束画面
-        if (isGameOver) {
+        if (isGameOver()) {
+            hideHud();
             drawGameOver(bulletGc);
+        } else {
+            int hp = player != null ? player.getHealth() : -1;
+            int maxHp = player != null ? player.getMaxHealth() : -1;
+            renderHud(java.util.List.of(currentWave, enemiesKilledInWave, targetKills, hp, maxHp, score), this::drawHUD);
         }
     }
 
@@ -719,6 +486,7 @@ public class EndlessGameScene extends BaseGameScene {
         gc.setStroke(Color.web("#e67e22"));
         gc.strokeRoundRect(WIDTH - 215, 15, 200, 90, 10, 10);
 
+        PlayerTank player = world.getPlayer();
         if (player != null) {
             gc.setFill(player.getHealthPercentage() > 0.3 ? Color.web("#2ecc71") : Color.web("#e74c3c"));
             gc.fillText("HP: " + player.getHealth() + " / " + player.getMaxHealth(), WIDTH - 195, 45);
@@ -868,11 +636,11 @@ public class EndlessGameScene extends BaseGameScene {
         // 重置无尽模式数据
         score = 0;
         currentWave = 1;
-        isGameOver = false;
+        setGameOver(false);
         enemiesKilledInWave = 0;
-        enemyTanks.clear();
-        bullets.clear();
-        gameStartTime = System.currentTimeMillis(); // 重置游戏开始时间
+        world.clearEntities();
+        gameStartTime = world.getClock().millis(); // 重置游戏开始时间
+        mapSeed = random.nextLong();
         startWave(currentWave);
         resumeGameProcess(); // 重置后恢复游戏
 
@@ -881,43 +649,27 @@ public class EndlessGameScene extends BaseGameScene {
     }
 
     public PlayerTank getPlayer() {
-        return player;
+        return world.getPlayer();
     }
 
     public void setPlayer(PlayerTank player) {
-        this.player = player;
+        world.setPlayer(player);
     }
 
     public List<Tank> getEnemyTanks() {
-        return enemyTanks;
-    }
-
-    public void setEnemyTanks(List<Tank> enemyTanks) {
-        this.enemyTanks = enemyTanks;
+        return world.getEnemyTanks();
     }
 
-    public List<Bullet> getBullets() {
-        return bullets;
-    }
-
-    public void setBullets(List<Bullet> bullets) {
-        this.bullets = bullets;
+    public BulletPool getBullets() {
+        return world.getBullets();
     }
 
     public MapModel getMapModel() {
-        return mapModel;
-    }
-
-    public void setMapModel(MapModel mapModel) {
-        this.mapModel = mapModel;
+        return world.getMapModel();
     }
 
     public Tile[][] getMap() {
-        return map;
-    }
-
-    public void setMap(Tile[][] map) {
-        this.map = map;
+        return world.getMap();
     }
 
     public int getCurrentWave() {
@@ -960,14 +712,6 @@ public class EndlessGameScene extends BaseGameScene {
         this.maxEnemiesOnScreen = maxEnemiesOnScreen;
     }
 
-    public boolean isGameOver() {
-        return isGameOver;
-    }
-
-    public void setGameOver(boolean gameOver) {
-        isGameOver = gameOver;
-    }
-
     public boolean isWaveClearing() {
         return isWaveClearing;
     }
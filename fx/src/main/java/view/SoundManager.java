@@ -6,6 +6,7 @@ import javafx.scene.media.MediaPlayer;
 import java.net.URL;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 音效管理类（单例模式）：支持 BGM 和 SFX 独立音量控制
@@ -20,7 +21,7 @@ public class SoundManager {
     // 资源路径映射
     private Map<String, String> soundPathMap;
 
-    // 音效缓存
+    // 音效缓存（可能被后台预加载线程写入）
     private Map<String, AudioClip> loadedEffects;
 
     // ========== 音量控制变量 ==========
@@ -30,7 +31,7 @@ public class SoundManager {
     // 私有构造
     private SoundManager() {
         initSoundMap();
-        loadedEffects = new HashMap<>();
+        loadedEffects = new ConcurrentHashMap<>();
     }
 
     public static SoundManager getInstance() {
@@ -93,18 +94,7 @@ public class SoundManager {
         if (!soundPathMap.containsKey(name)) return;
 
         try {
-            if (!loadedEffects.containsKey(name)) {
-                String path = soundPathMap.get(name);
-                URL url = getClass().getResource("/" + path);
-                if (url == null) {
-                    System.err.println("文件缺失: " + path);
-                    return;
-                }
-                AudioClip clip = new AudioClip(url.toExternalForm());
-                loadedEffects.put(name, clip);
-            }
-
-            AudioClip clip = loadedEffects.get(name);
+            AudioClip clip = loadEffect(name);
             if (clip != null) {
                 // 【关键】播放时使用 sfxVolume
                 clip.play(sfxVolume);
@@ -115,6 +105,34 @@ public class SoundManager {
         }
     }
 
+    /**
+     * 预加载全部短音效（由场景的后台执行器调用，避免第一次开火/爆炸时在逻辑帧里解码音频）
+     */
+    public void preloadEffects() {
+        for (String name : new String[]{"shoot", "explosion"}) {
+            try {
+                loadEffect(name);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private AudioClip loadEffect(String name) {
+        AudioClip clip = loadedEffects.get(name);
+        if (clip != null) return clip;
+
+        String path = soundPathMap.get(name);
+        URL url = getClass().getResource("/" + path);
+        if (url == null) {
+            System.err.println("文件缺失: " + path);
+            return null;
+        }
+        clip = new AudioClip(url.toExternalForm());
+        AudioClip existing = loadedEffects.putIfAbsent(name, clip);
+        return existing != null ? existing : clip;
+    }
+
     // ==================== 背景音乐控制 ====================
 
     public void playBackgroundMusic() {
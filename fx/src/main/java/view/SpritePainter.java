@@ -8,6 +8,9 @@ import infra.GameConfig;
 import item.Item;
 import item.ParticleEffect;
 
+import java.util.EnumMap;
+import java.util.Map;
+
 /**
  * 精灵绘制器 (Canvas版本)
  * 核心职责：每一帧被 render() 调用，负责在 Canvas 上画出地图、坦克和子弹
@@ -22,6 +25,7 @@ public class SpritePainter {
     private Image waterImage;
     private Image grassImage;
     private Image brokenBrickImage;
+    private final Map<Tank.TankType, Image> tankImages = new EnumMap<>(Tank.TankType.class);
 
     public SpritePainter() {
         // 初始化时加载所有地形图片
@@ -172,52 +176,156 @@ public class SpritePainter {
      * 难点：Canvas 旋转图片需要变换矩阵
      */
     public void drawTank(GraphicsContext gc, Tank tank) {
+        drawTank(gc, tank, 1.0);
+    }
+
+    /**
+     * 按插值位置绘制坦克：alpha = 0 画上一逻辑帧，alpha = 1 画当前逻辑帧
+     * （原来在 Tank.draw 里，模型层不再依赖 JavaFX，绘制统一放到客户端）
+     */
+    public void drawTank(GraphicsContext gc, Tank tank, double alpha) {
         if (tank == null || !tank.isAlive()) return; // 死了就不画
 
-        // 保存当前的画布状态 (以免旋转影响到后续绘制)
+        double x = tank.getRenderX(alpha);
+        double y = tank.getRenderY(alpha);
+        double w = tank.getWidth();
+        double h = tank.getHeight();
+
+        // 1. 处理无敌闪烁 (不可见周期变为半透明)
+        if (tank.isShielded() && !tank.isShieldBlinkVisible()) {
+            gc.setGlobalAlpha(0.4);
+        }
+
+        // 2. 绘制坦克本体：移动画布原点到坦克中心再旋转
+        Image tankImage = getTankImage(tank.getType());
         gc.save();
-        // 如果是玩家且处于无敌状态，改变透明度或添加特效
-        if (tank instanceof PlayerTank && ((PlayerTank) tank).isInvincible()) {
-            // 产生闪烁感：根据时间控制透明度
-            double alpha = 0.5 + 0.4 * Math.sin(System.currentTimeMillis() / 100.0);
-            gc.setGlobalAlpha(alpha);
+        gc.translate(x + w / 2, y + h / 2);
+        gc.rotate(tank.getDisplayRotation());
+        if (tankImage != null) {
+            gc.drawImage(tankImage, -w / 2, -h / 2, w, h);
+        } else {
+            gc.setFill(getFallbackColor(tank.getType()));
+            gc.fillRect(-w / 2, -h / 2, w, h);
+            gc.setFill(Color.BLACK); // 炮管
+            gc.fillRect(-2, -h / 2 - 10, 4, 15);
+        }
+        gc.restore();
 
-            // 可以在坦克脚下画一个金色的圆圈作为护盾感
+        // 3. 恢复透明度，绘制金色护盾圈
+        if (tank.isShielded()) {
+            gc.setGlobalAlpha(1.0);
+            gc.save();
             gc.setStroke(Color.GOLD);
             gc.setLineWidth(3);
-            gc.strokeOval(tank.getX() - 5, tank.getY() - 5, tank.getWidth() + 10, tank.getHeight() + 10);
+            gc.strokeOval(x - 5, y - 5, w + 10, h + 10);
+            gc.restore();
         }
 
-        // 1. 移动画布原点到坦克的【中心点】
-        double centerX = tank.getX() + tank.getWidth() / 2;
-        double centerY = tank.getY() + tank.getHeight() / 2;
+        // 4. 敌人血条
+        if (tank.getType() != Tank.TankType.PLAYER_GREEN) {
+            drawHealthBar(gc, tank, x, y);
+        }
+    }
 
-        // 移动原点
-        gc.translate(centerX, centerY);
+    private void drawHealthBar(GraphicsContext gc, Tank tank, double x, double y) {
+        double barWidth = 30;
+        double barHeight = 4;
+        double barX = x + (tank.getWidth() - barWidth) / 2;
+        double barY = y - 10;
+        double healthRatio = tank.getHealthPercentage();
+        Color barColor = healthRatio > 0.6 ? Color.LIMEGREEN : healthRatio > 0.3 ? Color.YELLOW : Color.RED;
+
+        gc.setFill(Color.rgb(100, 0, 0, 0.7));
+        gc.fillRect(barX, barY, barWidth, barHeight);
+        gc.setFill(barColor);
+        gc.fillRect(barX, barY, barWidth * healthRatio, barHeight);
+        gc.setStroke(Color.BLACK);
+        gc.setLineWidth(1);
+        gc.strokeRect(barX, barY, barWidth, barHeight);
+    }
 
-        // 2. 旋转画布
-        gc.rotate(tank.getDisplayRotation());
+    private Color getFallbackColor(Tank.TankType type) {
+        switch (type) {
+            case PLAYER_GREEN: return Color.LIMEGREEN;
+            case ENEMY_HEAVY: return Color.DODGERBLUE;
+            case ENEMY_FAST: return Color.PURPLE;
+            case ENEMY_NORMAL: return Color.GOLD;
+            default: return Color.GRAY;
+        }
+    }
 
-        // 3. 绘制坦克 (此时坐标系中心已经是坦克中心了，所以要画在 -w/2, -h/2 处)
-        // 区分敌我颜色
-        if (tank instanceof model.PlayerTank) {
-            gc.setFill(Color.YELLOW); // 玩家：黄色
-        } else {
-            gc.setFill(Color.RED);    // 敌人：红色
+    /**
+     * 坦克贴图（按类型缓存，第一次绘制时才加载；加载失败缓存 null，之后直接画色块）
+     */
+    private Image getTankImage(Tank.TankType type) {
+        if (tankImages.containsKey(type)) {
+            return tankImages.get(type);
+        }
+        Image image = null;
+        for (String path : getTankImagePaths(type)) {
+            try {
+                Image candidate = new Image(path);
+                if (!candidate.isError()) {
+                    image = candidate;
+                    System.out.println("✅ 坦克图片加载成功: " + path);
+                    break;
+                }
+            } catch (Exception e) {
+                // 继续尝试下一个
+            }
+        }
+        if (image == null) {
+            System.err.println("❌ " + type + " 坦克所有图片尝试失败，将使用图形绘制");
         }
+        tankImages.put(type, image);
+        return image;
+    }
 
-        // 画车身
-        double w = tank.getWidth();
-        double h = tank.getHeight();
-        gc.fillRect(-w / 2, -h / 2, w, h);
+    /**
+     * 主图片在前，备用图片在后（注意：图片文件名是 xxx.png.png（双重.png））
+     */
+    private String[] getTankImagePaths(Tank.TankType type) {
+        switch (type) {
+            case PLAYER_GREEN:
+                return new String[] {
+                        "/images/tank_green.png.png",
+                        "/images/tank_green.png",
+                        "/images/green_tank.png",
+                        "/images/player_tank.png",
+                };
+            case ENEMY_HEAVY:
+                return new String[] {
+                        "/images/tank_blue.png.png",
+                        "/images/tank_blue.png",
+                        "/images/blue_tank.png",
+                        "/images/heavy_tank.png",
+                        "/images/enemy_tank.png",
+                };
+            case ENEMY_FAST:
+                return new String[] { "/images/tank_purple.png.png" };
+            case ENEMY_NORMAL:
+                return new String[] { "/images/tank_yellow.png.png" };
+            default:
+                return new String[0];
+        }
+    }
 
-        // 画个炮管指示方向 (在右侧，因为0度默认向右)
-        gc.setFill(Color.BLACK);
-        gc.fillRect(0, -5, w / 2 + 5, 10);
+    /**
+     * 绘制子弹池里的所有存活子弹（按插值位置）：红色为敌，黄色为友
+     */
+    public void drawBullets(GraphicsContext gc, BulletPool bullets, double alpha) {
+        for (int i = 0; i < bullets.size(); i++) {
+            drawBullet(gc, bullets, i, alpha);
+        }
+    }
 
-        // 恢复画布状态
-        gc.restore();
+    public void drawBullet(GraphicsContext gc, BulletPool bullets, int i, double alpha) {
+        if (!bullets.isAlive(i)) return;
+        double size = bullets.getBulletSize();
+        gc.setFill(bullets.isEnemy(i) ? Color.RED : Color.YELLOW);
+        gc.fillOval(bullets.getRenderX(i, alpha), bullets.getRenderY(i, alpha), size, size);
     }
+
     /**
      * 绘制道具：支持缩放和透明度动画
      */
@@ -245,8 +353,15 @@ public class SpritePainter {
      * 绘制粒子特效
      */
     public void drawParticleEffect(GraphicsContext gc, ParticleEffect effect) {
+        drawParticleEffect(gc, effect, 1.0);
+    }
+
+    /**
+     * 按插值位置绘制粒子特效
+     */
+    public void drawParticleEffect(GraphicsContext gc, ParticleEffect effect, double alpha) {
         if (effect != null && !effect.isFinished()) {
-            effect.render(gc);
+            effect.render(gc, alpha);
         }
     }
 
@@ -1,7 +1,5 @@
 package view;
 
-import item.Item;
-import item.ItemType;
 import javafx.application.Platform;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
@@ -34,29 +32,22 @@ import java.util.Random;
  */
 public class StageGameScene extends BaseGameScene {
 
-    // ========== 游戏核心对象 ==========
-    private PlayerTank player;              // 玩家坦克
-    private List<Tank> enemyTanks;         // 敌人坦克列表
-    private List<Bullet> bullets;          // 子弹列表
-    private MapModel mapModel;             // 地图模型
-    private Tile[][] map;                  // 地图瓦片数组
+    // 玩家、敌人、子弹、地图都由父类的 world 持有，这里只保留闯关规则相关的状态
 
     // ========== 游戏状态变量 ==========
     private int currentLevel;              // 当前关卡编号（1-3）
     private int playerScore;               // 玩家当前得分
     private int playerHealth;              // 玩家当前血量（显示用）
-    private long levelStartTime;           // 关卡开始时间戳（毫秒）
+    private long levelStartTime;           // 关卡开始时间（游戏时钟，毫秒）
     private long gameElapsedTime;          // 游戏已进行时间（秒）
-    private boolean isGameOver;            // 游戏结束标志
     private boolean isLevelComplete;       // 关卡完成标志
     private int targetScore;               // 当前关卡目标分数
     // ========== 随机数生成器 ==========
-    private Random random;                 // 修复：延迟初始化
+    private Random random;                 // 本局 session 的随机数（initModeSpecificLogic 里取）
     // StageGameScene 类的成员变量中新增（在 levelStartTime 附近）
     private long gameGlobalStartTime; // 全局游戏开始时间戳（整个闯关流程的开始时间）
     private boolean isRecordWritten;
     // ========== 敌人AI相关 ==========
-    private static final long ENEMY_AI_UPDATE_INTERVAL = 1000; // 敌人AI更新间隔（毫秒）
     private long lastEnemyAIUpdateTime = 0; // 上次AI更新时间
 
     // ========== 界面常量 ==========
@@ -86,38 +77,36 @@ public class StageGameScene extends BaseGameScene {
         // 重置游戏状态
         playerScore = 0;
         playerHealth = GameConfig.PLAYER_HEALTH;
-        isGameOver = false;
+        setGameOver(false);
         isLevelComplete = false;
         isRecordWritten = false;
-        enemyTanks.clear();
-        bullets.clear();
+        world.clearEntities();
     }
 
     @Override
     protected PlayerTank getPlayerTank() {
-        return player;
+        return world.getPlayer();
     }
 
     @Override
     protected void initModeSpecificLogic() {
-        // 初始化随机数生成器（修复NullPointerException）
-        random = new Random();
+        // 随机数取自本局 session（修复NullPointerException；同一个种子可以复现）
+        random = world.getRandom();
 
         // 初始化游戏状态
         currentLevel = 1;
         playerScore = 0;
         playerHealth = GameConfig.PLAYER_HEALTH;
-        isGameOver = false;
+        setGameOver(false);
         isLevelComplete = false;
         isRecordWritten = false;
-        // 【核心重置点】：只有重新开始战役时，才同步当前系统时间
-        long now = System.currentTimeMillis();
+        // 【核心重置点】：只有重新开始战役时，才同步当前游戏时钟（逻辑时间，暂停不计时）
+        long now = world.getClock().millis();
         gameGlobalStartTime = now;
         gameElapsedTime = 0; // 界面立即显示 0
         System.out.println("🚀 战役重启：时间已归零，从第一关开始...");
-        // 初始化对象列表
-        enemyTanks = new ArrayList<>();
-        bullets = new ArrayList<>();
+        // 清空上一局残留的对象
+        world.clearEntities();
 
         System.out.println("🚀 开始初始化闯关模式...");
         // ========== 新增：播放背景音乐 ==========
@@ -140,9 +129,7 @@ public class StageGameScene extends BaseGameScene {
     // ========== 返回主菜单方法 ==========
     private void returnToMainMenu() {
         System.out.println("⚠️ 返回主菜单");
-        if (gameLoop != null) {
-            gameLoop.stop();
-        }
+        disposeSession();
         // ========== 新增：停止背景音乐 ==========
         SoundManager.getInstance().stopBackgroundMusic();
         // 这里需要调用返回主菜单的逻辑，你需要根据你的项目结构来实现
@@ -162,7 +149,7 @@ public class StageGameScene extends BaseGameScene {
 
         // 重置关卡状态
         isLevelComplete = false;
-        levelStartTime = System.currentTimeMillis();
+        levelStartTime = world.getClock().millis();
         gameElapsedTime = 0;
 
         // 获取当前关卡的目标分数
@@ -171,8 +158,8 @@ public class StageGameScene extends BaseGameScene {
         try {
             // 1. 加载地图
             System.out.println("📝 加载地图...");
-            mapModel = new MapModel(level);
-            map = mapModel.getTiles();
+            world.loadMap(new MapModel(level));
+            Tile[][] map = world.getMap();
             System.out.println("✅ 地图加载完成，尺寸: " + map.length + "x" + (map.length > 0 ? map[0].length : 0));
 
             // 2. 初始化玩家坦克
@@ -183,14 +170,12 @@ public class StageGameScene extends BaseGameScene {
             System.out.println("🤖 生成敌人坦克...");
             generateEnemyTanks(level);
 
-            // 4. 清空子弹和道具
-            bullets.clear();
-            itemSpawner.clear();
+            // 4. 清空特效（子弹和道具已随 loadMap 清空）
             particleEffects.clear();
 
             System.out.println("✅ 第 " + level + " 关加载完成！");
             System.out.println("   目标分数: " + targetScore);
-            System.out.println("   敌人数量: " + enemyTanks.size());
+            System.out.println("   敌人数量: " + world.getEnemyTanks().size());
             System.out.println("   玩家血量: " + playerHealth);
             System.out.println("   地图大小: " + GameConfig.MAP_ROWS + "x" + GameConfig.MAP_COLS);
 
@@ -216,7 +201,7 @@ public class StageGameScene extends BaseGameScene {
         double x, y;
 
         // 1. 尝试使用智能查找获取安全位置
-        double[] safePos = findFreeSpawnPoint(true);
+        double[] safePos = world.findFreeSpawnPoint(true);
 
         if (safePos != null) {
             x = safePos[0];
@@ -231,12 +216,15 @@ public class StageGameScene extends BaseGameScene {
         }
 
         // 2. 创建或重置玩家
+        PlayerTank player = world.getPlayer();
         if (player == null || level == 1) {
             player = new PlayerTank(x, y);
+            world.setPlayer(player);
             playerHealth = GameConfig.PLAYER_HEALTH;
         } else {
             player.x = x;
             player.y = y;
+            player.resetInterpolation();
             // 停止运动
             player.setMovingForward(false);
             player.setMovingBackward(false);
@@ -256,42 +244,7 @@ public class StageGameScene extends BaseGameScene {
 
     // 辅助：强制清理一片区域（兜底用）
     private void forceClearAreaAt(double pixelX, double pixelY) {
-        int c = (int) (pixelX / GameConfig.GRID_SIZE);
-        int r = (int) (pixelY / GameConfig.GRID_SIZE);
-        if (r >= 0 && r < GameConfig.MAP_ROWS && c >= 0 && c < GameConfig.MAP_COLS) {
-            map[r][c].setType(model.TileType.EMPTY);
-        }
-    }
-
-    /**
-     * 【通用工具】检查某个坐标放置坦克是否安全
-     * (这个方法可以直接复用给敌人生成逻辑)
-     */
-    private boolean isPositionSafe(double x, double y) {
-        if (map == null) return true;
-
-        // 检查坦克的四个角
-        double size = GameConfig.TANK_SIZE;
-        double[] cornersX = {x, x + size, x, x + size};
-        double[] cornersY = {y, y, y + size, y + size};
-
-        for (int i = 0; i < 4; i++) {
-            // 算出格子坐标
-            int col = (int) (cornersX[i] / GameConfig.GRID_SIZE);
-            int row = (int) (cornersY[i] / GameConfig.GRID_SIZE);
-
-            // 1. 检查边界
-            if (row < 0 || row >= GameConfig.MAP_ROWS || col < 0 || col >= GameConfig.MAP_COLS) {
-                return false;
-            }
-
-            // 2. 检查是否有障碍物 (墙、水、石)
-            Tile tile = map[row][col];
-            if (tile != null && !tile.getType().isTankPassable()) {
-                return false; // 只要有一个角碰到障碍，就不安全
-            }
-        }
-        return true; // 四个角都安全
+        world.getCollision().clearTerrain(pixelX, pixelY, 0, 0);
     }
 
     /**
@@ -299,7 +252,7 @@ public class StageGameScene extends BaseGameScene {
      * 根据关卡配置生成不同数量和类型的敌人
      */
     private void generateEnemyTanks(int level) {
-        enemyTanks.clear();
+        world.getEnemyTanks().clear();
 
         // 获取当前关卡的敌人配置
         EnemySpawn[] enemyConfigs = GameLevelConfig.getEnemyConfig(level);
@@ -313,15 +266,12 @@ public class StageGameScene extends BaseGameScene {
             System.out.println("   - " + type + ": " + count + " 辆");
 
             for (int i = 0; i < count; i++) {
-                // 生成敌人坦克
-                Tank enemy = createEnemyTank(type, level);
-                if (enemy != null) {
-                    enemyTanks.add(enemy);
-                }
+                // 生成敌人坦克（创建时已加入 world）
+                createEnemyTank(type, level);
             }
         }
 
-        System.out.println("✅ 生成 " + enemyTanks.size() + " 个敌人坦克");
+        System.out.println("✅ 生成 " + world.getEnemyTanks().size() + " 个敌人坦克");
     }
 
     /**
@@ -332,7 +282,7 @@ public class StageGameScene extends BaseGameScene {
      */
     private Tank createEnemyTank(TankType type, int level) {
         // 1. 使用智能算法寻找位置
-        double[] pos = findFreeSpawnPoint(false); // false 表示寻找敌人位置
+        double[] pos = world.findFreeSpawnPoint(false); // false 表示寻找敌人位置
 
         double x, y;
         if (pos != null) {
@@ -344,78 +294,13 @@ public class StageGameScene extends BaseGameScene {
             return null;
         }
 
-        // 2. 生成具体坦克对象
+        // 2. 生成具体坦克对象并加入世界
         try {
-            switch (type) {
-                case ENEMY_HEAVY:
-                    return new HeavyTank(x, y);
-                case ENEMY_FAST:
-                    return new FastTank(x, y);
-                default:
-                    return new NormalTank(x, y);
-            }
+            return world.spawnEnemy(type, x, y);
         } catch (Exception e) {
             e.printStackTrace();
             return null;
         }
-    }    /**
-     * 调整出生位置，确保不在地图障碍物上
-     */
-    /**
-     * 【核心修复】调整出生位置，确保不在地图障碍物上
-     * 使用 GameConfig.GRID_SIZE 和 TileType.isTankPassable 进行双重校验
-     */
-    private double adjustSpawnPosition(double x, double y, boolean isPlayer) {
-        // 如果地图还没加载好，直接返回原坐标
-        if (map == null || map.length == 0) return x;
-
-        double safeX = x;
-        double safeY = y;
-        int maxAttempts = 50; // 尝试50次，找不到就放弃
-        int attempt = 0;
-
-        // 坦克半径 (用于计算中心点)
-        double halfSize = GameConfig.TANK_SIZE / 2;
-
-        while (attempt < maxAttempts) {
-            boolean isSafe = true;
-
-            // 1. 计算坦克中心点所在的格子行列
-            // 注意：这里加上 halfSize 是为了用坦克的中心点来判断，而不是左上角
-            int col = (int) ((safeX + halfSize) / GameConfig.GRID_SIZE);
-            int row = (int) ((safeY + halfSize) / GameConfig.GRID_SIZE);
-
-            // 2. 检查边界 (是否超出地图)
-            if (row < 0 || row >= GameConfig.MAP_ROWS || col < 0 || col >= GameConfig.MAP_COLS) {
-                isSafe = false;
-            }
-            // 3. 检查地形 (是否撞墙/撞水)
-            else if (map[row][col] != null && !map[row][col].getType().isTankPassable()) {
-                isSafe = false;
-            }
-
-            // 4. 如果是安全的，直接返回这个坐标
-            if (isSafe) {
-                return safeX;
-            }
-
-            // 5. 如果不安全，重新随机一个新坐标
-            if (isPlayer) {
-                // 玩家：在地图下半部分随机找点
-                safeX = 100 + random.nextDouble() * (GameConfig.SCREEN_WIDTH - 200);
-                safeY = GameConfig.SCREEN_HEIGHT - 200 + random.nextDouble() * 100;
-            } else {
-                // 敌人：在地图上半部分随机找点 (避开玩家出生区)
-                safeX = 50 + random.nextDouble() * (GameConfig.SCREEN_WIDTH - 100);
-                safeY = 50 + random.nextDouble() * (GameConfig.SCREEN_HEIGHT / 2);
-            }
-
-            attempt++;
-        }
-
-        // 如果实在找不到安全点（比如地图全是墙），为了防止报错，只能返回原来的坐标
-        System.out.println("⚠️ 警告：尝试了50次也没找到安全出生点，将强制生成在: " + x + "," + y);
-        return x;
     }
 
     /**
@@ -428,25 +313,26 @@ public class StageGameScene extends BaseGameScene {
     @Override
     protected void updateGameLogic() {
         // 【修改核心】：将所有逻辑（包括时间计算）全部锁在状态判断之后
-        if (isGameOver || isLevelComplete) {
-            return; // 一旦死了或通关，直接退出方法，不执行任何代码
+        if (isGameOver()) {
+            return; // 一旦死了，直接退出方法，不执行任何代码
+        }
+        if (isLevelComplete) {
+            world.idle(); // 过关转场：实体不动，但时钟继续走，到点由时间轮触发 nextLevel
+            return;
         }
 
         // 只有没死的时候，才会执行到这里
         try {
             // 2. 【核心修改】：计算从第一关开始到现在的累计总时间
             // 使用 gameGlobalStartTime 而不是 levelStartTime
-            gameElapsedTime = (System.currentTimeMillis() - gameGlobalStartTime) / 1000;
+            gameElapsedTime = (world.getClock().millis() - gameGlobalStartTime) / 1000;
 
-            // 2. 调用父类更新道具逻辑
+            // 2. 调用父类更新粒子特效
             super.updateBaseElements();
 
-            // 3. 执行游戏物理逻辑
-            updatePlayerTank();
-            updateEnemyTanks();
-            updateBullets();
-            checkCollisions();
-            cleanupObjects();
+            // 3. 采集输入，推进一帧仿真（移动、AI、子弹、命中、道具都在 World 里）
+            updatePlayerInput();
+            world.step();
 
             // 4. 检查游戏状态（如果在这里判定玩家死亡，下一次进入方法就会被顶部的 if 拦截）
             checkGameState();
@@ -472,13 +358,16 @@ public class StageGameScene extends BaseGameScene {
      * 对应以前的 renderGame()
      */
     @Override
-    protected void renderGameFrame() {
+    protected void renderGameFrame(double alpha) {
         // 【注意】不需要再写 gc.fillRect(Color.BLACK) 了，父类已经帮你清空了！
 
         // 我们需要分别获取不同层的画笔
         // 你的 BaseGameScene 提供了 mapGc, tankGc, bulletGc
 
         try {
+            Tile[][] map = world.getMap();
+            PlayerTank player = world.getPlayer();
+
             // 1. 绘制地图底层 (画在 mapGc 上)
             if (map != null) {
                 spritePainter.drawMapBackground(mapGc, map);
@@ -486,33 +375,27 @@ public class StageGameScene extends BaseGameScene {
 
             // 2. 绘制坦克 (画在 tankGc 上)
             // 敌人
-            for (Tank enemy : enemyTanks) {
+            for (Tank enemy : world.getEnemyTanks()) {
                 if (enemy.isAlive()) {
-                    // 确保 Tank 类的 draw 方法支持传入 GraphicsContext
-                    // 或者使用 spritePainter.drawTank(tankGc, enemy);
-                    enemy.draw(tankGc);
+                    spritePainter.drawTank(tankGc, enemy, alpha);
                 }
             }
             // 玩家
             if (player != null && player.isAlive()) {
-                player.draw(tankGc);
+                spritePainter.drawTank(tankGc, player, alpha);
             }
 
             // 3. 绘制子弹 (画在 bulletGc 上)
-            for (Bullet bullet : bullets) {
-                if (bullet.alive) {
-                    bullet.draw(bulletGc);
-                }
-            }
+            spritePainter.drawBullets(bulletGc, world.getBullets(), alpha);
 
             // 4. 绘制地图前景 (草丛) (画在 tankGc 或 bulletGc 上均可，看遮挡关系)
             if (map != null) {
                 spritePainter.drawMapForeground(tankGc, map);
             }
 // 调用父类绘制道具和粒子
-            super.renderBaseElements();
+            super.renderBaseElements(alpha);
             // 5. 绘制道具和粒子特效 (调用父类方法)
-            super.renderBaseElements();
+            super.renderBaseElements(alpha);
 
             if (player != null) {
                 playerHealth = player.getHealth();
@@ -520,9 +403,13 @@ public class StageGameScene extends BaseGameScene {
 
 
 
-            // 6. 绘制 HUD (建议画在 bulletGc 上，或者你再加一个 uiCanvas)
-            // 这里暂时画在最顶层的 bulletGc 上，确保文字在最上面
-            drawHUD(bulletGc);
+            // 6. 绘制 HUD：画在单独的 HUD 层，数据不变就不重画；结算遮罩出现时隐藏
+            if (isGameOver() || isLevelComplete) {
+                hideHud();
+            } else {
+                renderHud(java.util.List.of(currentLevel, playerScore, targetScore, gameElapsedTime,
+                        playerHealth, world.getEnemyTanks().size()), this::drawHUD);
+            }
             drawGameStateMessages(bulletGc);
 
         } catch (Exception e) {
@@ -534,300 +421,44 @@ public class StageGameScene extends BaseGameScene {
     // ... restartGame, pauseGame 方法里对 gameLoop 的调用也要改 ...
 
     /**
-     * 更新玩家坦克
+     * 采集玩家输入（移动 + J 键开火意图），真正的移动和开火在 World.step() 里执行
      */
-    private void updatePlayerTank() {
+    private void updatePlayerInput() {
+        PlayerTank player = world.getPlayer();
         if (player == null || !player.isAlive()) {
             return;
         }
 
-        // 设置移动状态（基于输入）
         player.setMovingForward(inputHandler.isWPressed());
         player.setMovingBackward(inputHandler.isSPressed());
         player.setRotatingLeft(inputHandler.isAPressed());
         player.setRotatingRight(inputHandler.isDPressed());
-
-        // 处理射击（J键）
-        if (inputHandler.isJPressed()) {
-            Bullet bullet = player.tryFire(map);
-            if (bullet != null) {
-                bullets.add(bullet);
-                // ========== 新增：播放子弹发射音效 ==========
-                SoundManager.getInstance().playSoundEffect("explosion.wav"); // 替换为你的子弹音效文件路径
-                // System.out.println("🔫 玩家发射子弹");
-            }
-        }
-
-        // 更新玩家坦克位置
-        player.update(map);
-
-        // 同步血量显示
-        playerHealth = player.getHealth();
-    }
-
-    /**
-     * 更新敌人坦克（AI）
-     */
-// 在 StageGameScene.java 中替换这个方法
-
-    /**
-     * 更新敌人坦克（AI + 物理移动）
-     */
-    private void updateEnemyTanks() {
-        double deltaTime = 0.016;
-
-        for (int i = 0; i < enemyTanks.size(); i++) {
-            Tank enemy = enemyTanks.get(i);
-            if (!enemy.isAlive()) continue;
-
-            // 1. AI 思考
-            if (enemy instanceof EnemyTank) {
-                EnemyTank aiTank = (EnemyTank) enemy;
-                aiTank.updateAI(map, player, deltaTime);
-
-                // 【核心修复点】: 检查 AI 有没有发射子弹
-                // 如果 AI 的口袋里有子弹，拿出来，加到游戏世界的 bullets 列表里
-                Bullet newBullet = aiTank.consumePendingBullet();
-                if (newBullet != null) {
-                    bullets.add(newBullet);
-                    // System.out.println("⚠️ 敌人开火了！"); // 测试用
-                }
-            }
-
-            // 2. 物理移动
-            enemy.update(map);
-
-            // 3. 坦克碰撞处理
-            checkTankTankCollision(enemy);
-        }
-    }
-
-    /**
-     * 简单的坦克与坦克碰撞处理（推挤效果）
-     */
-    private void checkTankTankCollision(Tank currentTank) {
-        // 1. 检查与玩家的碰撞
-        if (player != null && player.isAlive() && currentTank != player) {
-            if (isColliding(currentTank, player)) {
-                resolveOverlap(currentTank, player);
-            }
-        }
-
-        // 2. 检查与其他敌人的碰撞
-        for (Tank other : enemyTanks) {
-            if (other != currentTank && other.isAlive()) {
-                if (isColliding(currentTank, other)) {
-                    resolveOverlap(currentTank, other);
-                }
-            }
-        }
-    }
-
-    /**
-     * 处理重叠：简单地把 currentTank 弹回去一点点
-     */
-    /**
-     * 【核心修复】安全的碰撞推挤逻辑
-     * 防止把坦克推到墙里面
-     */
-    private void resolveOverlap(Tank t1, Tank t2) {
-        double dx = t1.getCenterX() - t2.getCenterX();
-        double dy = t1.getCenterY() - t2.getCenterY();
-
-        // 如果完全重叠（极为罕见），给一个随机方向
-        if (dx == 0 && dy == 0) {
-            dx = 1;
-        }
-
-        // 计算推力力度 (比如每次推开 2 像素)
-        double pushSpeed = 2.0;
-
-        // 归一化向量，确定推的方向
-        double distance = Math.sqrt(dx * dx + dy * dy);
-        double unitX = dx / distance;
-        double unitY = dy / distance;
-
-        double moveX = unitX * pushSpeed;
-        double moveY = unitY * pushSpeed;
-
-        // === 策略 1: 尝试移动 T1 (被撞者/主动者) ===
-        // 计算 T1 的新位置
-        double t1NewX = t1.x + moveX;
-        double t1NewY = t1.y + moveY;
-
-        // 如果 T1 移动后是安全的 (不撞墙)，就移动 T1
-        if (isValidPosition(t1NewX, t1NewY)) {
-            t1.x = t1NewX;
-            t1.y = t1NewY;
-        }
-        // === 策略 2: 如果 T1 后面是墙，尝试移动 T2 (反向推) ===
-        else {
-            double t2NewX = t2.x - moveX;
-            double t2NewY = t2.y - moveY;
-
-            // 如果 T2 反方向移动是安全的，就移动 T2
-            if (isValidPosition(t2NewX, t2NewY)) {
-                t2.x = t2NewX;
-                t2.y = t2NewY;
-            }
-            // === 策略 3: 如果两人后面都是墙 (夹心饼干) ===
-            // 谁都别动，防止穿墙。
-        }
-    }
-
-    /**
-     * 检查坦克的某个位置是否合法 (不会撞墙/越界)
-     * 检查坦克的四个角
-     */
-    private boolean isValidPosition(double x, double y) {
-        // 1. 边界检查
-        if (x < 0 || x + GameConfig.TANK_SIZE > GameConfig.SCREEN_WIDTH ||
-                y < 0 || y + GameConfig.TANK_SIZE > GameConfig.SCREEN_HEIGHT) {
-            return false;
-        }
-
-        // 2. 墙壁碰撞检查 (检查四个角)
-        double[] cornersX = {x, x + GameConfig.TANK_SIZE, x, x + GameConfig.TANK_SIZE};
-        double[] cornersY = {y, y, y + GameConfig.TANK_SIZE, y + GameConfig.TANK_SIZE};
-
-        for (int i = 0; i < 4; i++) {
-            int col = (int) (cornersX[i] / GameConfig.GRID_SIZE);
-            int row = (int) (cornersY[i] / GameConfig.GRID_SIZE);
-
-            // 防止数组越界
-            if (row >= 0 && row < GameConfig.MAP_ROWS && col >= 0 && col < GameConfig.MAP_COLS) {
-                Tile tile = map[row][col];
-                // 如果碰到了不可通行的格子 (墙/水)
-                if (tile != null && !tile.getType().isTankPassable()) {
-                    return false;
-                }
-            }
-        }
-        return true; // 所有检查通过，位置合法
-    }
-
-    /**
-     * 更新子弹
-     */
-    private void updateBullets() {
-        for (Bullet bullet : bullets) {
-            if (bullet.alive) {
-                bullet.update(map);
-            }
-        }
+        player.setFiring(inputHandler.isJPressed());
     }
 
-    /**
-     * 检查碰撞
-     */
-    private void checkCollisions() {
-        // 子弹与坦克碰撞
-        checkBulletTankCollisions();
-
-        // 坦克与坦克碰撞（可选，防止重叠）
-        // checkTankTankCollisions(); // 暂时禁用，可能有问题
-    }
+    // ========== World 事件回调 ==========
 
-    /**
-     * 检查子弹与坦克的碰撞
-     */
-    private void checkBulletTankCollisions() {
-        for (int i = bullets.size() - 1; i >= 0; i--) {
-            Bullet bullet = bullets.get(i);
-            if (!bullet.alive) continue;
-
-            // 检查子弹与玩家坦克碰撞
-            if (player != null && player.isAlive() && bullet.isEnemy &&
-                    isColliding(bullet, player)) {
-                // 敌人子弹击中玩家
-                player.takeDamage(bullet.damage);
-                bullet.alive = false;
-                System.out.println("💥 玩家被击中，剩余血量: " + player.getHealth());
-                continue;
-            }
-
-            // 检查子弹与敌人坦克碰撞
-            for (int j = enemyTanks.size() - 1; j >= 0; j--) {
-                Tank enemy = enemyTanks.get(j);
-                if (enemy.isAlive() && !bullet.isEnemy &&
-                        isColliding(bullet, enemy)) {
-                    // 玩家子弹击中敌人
-                    enemy.takeDamage(bullet.damage);
-                    bullet.alive = false;
-
-                    // 如果敌人死亡，增加分数
-                    if (!enemy.isAlive()) {
-                        playerScore += enemy.getScoreValue();
-                        System.out.println("🎯 击毁敌人！得分: " + enemy.getScoreValue() +
-                                "，总分: " + playerScore);
-                        // 【新增】触发道具掉落
-                        if (enemy instanceof EnemyTank) {
-                            itemSpawner.onEnemyDestroyed((EnemyTank) enemy);
-                        }
-                    }
-                    break;
-                }
-            }
+    @Override
+    public void onBulletFired(Tank shooter, int bullet) {
+        if (shooter.isPlayer()) {
+            // ========== 新增：播放子弹发射音效 ==========
+            SoundManager.getInstance().playSoundEffect("explosion.wav"); // 替换为你的子弹音效文件路径
         }
     }
 
     @Override
-    protected void handleBombEffect(Item item) {
-        if (item.getType() != ItemType.BOMB) return;
-
-        System.out.println("💣 炸弹爆炸！对全图敌人造成50点伤害");
-
-        // 创建临时列表收集被炸死的敌人（用于触发道具掉落）
-        List<EnemyTank> killedEnemies = new ArrayList<>();
-
-        // 对当前所有敌人造成伤害
-        for (Tank enemy : enemyTanks) {
-            if (enemy.isAlive()) {
-                enemy.takeDamage(50);
-                System.out.println("  敌方坦克受到炸弹伤害，剩余血量: " + enemy.getHealth());
-
-                // 检查是否被炸死
-                if (!enemy.isAlive()) {
-                    if (enemy instanceof EnemyTank) {
-                        killedEnemies.add((EnemyTank) enemy);
-                    }
-                    // 增加分数
-                    playerScore += enemy.getScoreValue();
-                    System.out.println("  炸弹击杀敌人，得分: " + enemy.getScoreValue());
-                }
-            }
-        }
-
-        // 触发被炸死敌人的道具掉落
-        for (EnemyTank killedEnemy : killedEnemies) {
-            itemSpawner.onEnemyDestroyed(killedEnemy);
+    public void onTankHit(Tank victim, int bullet) {
+        if (victim.isPlayer()) {
+            playerHealth = victim.getHealth();
+            System.out.println("💥 玩家被击中，剩余血量: " + victim.getHealth());
         }
-
-        // 移除死亡的敌人
-        enemyTanks.removeIf(e -> !e.isAlive());
     }
 
-    /**
-     * 检查两个实体是否碰撞
-     */
-    private boolean isColliding(Entity a, Entity b) {
-        if (a == null || b == null) return false;
-
-        return a.x < b.x + b.width &&
-                a.x + a.width > b.x &&
-                a.y < b.y + b.height &&
-                a.y + a.height > b.y;
-    }
-
-    /**
-     * 清理已销毁的对象
-     */
-    private void cleanupObjects() {
-        // 清理死亡敌人
-        enemyTanks.removeIf(enemy -> !enemy.isAlive());
-
-        // 清理无效子弹
-        bullets.removeIf(bullet -> !bullet.alive);
+    @Override
+    public void onEnemyDestroyed(Tank enemy) {
+        playerScore += enemy.getScoreValue();
+        System.out.println("🎯 击毁敌人！得分: " + enemy.getScoreValue() +
+                "，总分: " + playerScore);
     }
 
     /**
@@ -835,8 +466,10 @@ public class StageGameScene extends BaseGameScene {
      */
     private void checkGameState() {
         // 检查玩家是否死亡
+        PlayerTank player = world.getPlayer();
+        playerHealth = player != null ? player.getHealth() : 0;
         if (player != null && !player.isAlive()) {
-            isGameOver = true;
+            setGameOver(true);
             System.out.println("💀 游戏结束！玩家被击败");
             // 新增：触发单人闯关记录写入（false 表示未通关）
             // --- 新增：死亡后的按键监听 ---
@@ -846,7 +479,7 @@ public class StageGameScene extends BaseGameScene {
             });
 
             inputHandler.bindKeyPressOnce(javafx.scene.input.KeyCode.ESCAPE, () -> {
-                gameLoop.stop();
+                disposeSession();
                 try {
                     new game.AppLauncher().start(primaryStage);
                 } catch (Exception e) { e.printStackTrace(); }
@@ -869,7 +502,7 @@ public class StageGameScene extends BaseGameScene {
      */
     private void checkLevelCompletion() {
         // 条件1：消灭所有敌人
-        boolean allEnemiesDefeated = enemyTanks.isEmpty();
+        boolean allEnemiesDefeated = world.getEnemyTanks().isEmpty();
 
         // 条件2：达到目标分数
         boolean scoreReached = playerScore >= targetScore;
@@ -887,21 +520,14 @@ public class StageGameScene extends BaseGameScene {
                 // 【移到这里】只有通关全服才写入胜利记录 + 计算时间分
                 writeSingleGameRecord(true);
 
-                isGameOver = true;
+                setGameOver(true);
                 this.pauseGameProcess();
                 Platform.runLater(this::showGameOverDialog);
                 return;
             }
 
-            // 延迟2秒后进入下一关
-            new Thread(() -> {
-                try {
-                    Thread.sleep(2000);
-                    Platform.runLater(this::nextLevel);
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                }
-            }).start();
+            // 延迟2秒后进入下一关（游戏时钟计时，暂停期间不会跳关）
+            world.getClock().scheduleSeconds(2.0, this::nextLevel);
         }
     }
     /**
@@ -920,7 +546,7 @@ public class StageGameScene extends BaseGameScene {
             // --- 修改重点：通关游戏后的交互逻辑 ---
             System.out.println("🎊🎊🎊 恭喜通关所有关卡！ 🎊🎊🎊");
             isLevelComplete = true; // 确保触发渲染
-            isGameOver = true;     // 借用 gameOver 状态停止逻辑更新
+            setGameOver(true);     // 借用 gameOver 状态停止逻辑更新
 
             // 1. 停止背景音乐
             view.SoundManager.getInstance().stopBackgroundMusic();
@@ -935,7 +561,7 @@ public class StageGameScene extends BaseGameScene {
             // 3. 绑定 ESC 键：返回 AppLauncher 主界面
             inputHandler.bindKeyPressOnce(javafx.scene.input.KeyCode.ESCAPE, () -> {
                 System.out.println("🏠 返回主基地...");
-                gameLoop.stop();
+                disposeSession();
                 try {
                     game.AppLauncher mainMenu = new game.AppLauncher();
                     mainMenu.start(primaryStage);
@@ -1080,7 +706,7 @@ public class StageGameScene extends BaseGameScene {
             drawHealthHearts(gc, WIDTH - 210, 70, playerHealth);
 
             gc.setFill(Color.WHITE);
-            gc.fillText("剩余敌人: " + enemyTanks.size(), WIDTH - 210, 100);
+            gc.fillText("剩余敌人: " + world.getEnemyTanks().size(), WIDTH - 210, 100);
 
         } catch (Exception e) {
             System.err.println("❌ 绘制HUD异常: " + e.getMessage());
@@ -1155,7 +781,7 @@ public class StageGameScene extends BaseGameScene {
 
     // 美化游戏状态提示
     private void drawGameStateMessages(GraphicsContext gc) {
-        if (gc == null || (!isGameOver && !isLevelComplete)) return;
+        if (gc == null || (!isGameOver() && !isLevelComplete)) return;
 
         double centerX = WIDTH / 2;
         double centerY = HEIGHT / 2;
@@ -1171,8 +797,8 @@ public class StageGameScene extends BaseGameScene {
         gc.fillRect(0, 0, WIDTH, HEIGHT);
 
         // 标题文字
-        String title = isGameOver && playerHealth <= 0 ? "MISSION FAILED" : "LEVEL COMPLETE";
-        Color titleColor = isGameOver ? Color.web("#e74c3c") : Color.web("#f39c12");
+        String title = isGameOver() && playerHealth <= 0 ? "MISSION FAILED" : "LEVEL COMPLETE";
+        Color titleColor = isGameOver() ? Color.web("#e74c3c") : Color.web("#f39c12");
 
         gc.setFont(Font.font("Impact", FontWeight.BOLD, 80));
         gc.setEffect(new javafx.scene.effect.DropShadow(20, titleColor));
@@ -1289,20 +915,16 @@ public class StageGameScene extends BaseGameScene {
         return gameElapsedTime;
     }
 
-    public boolean isGameOver() {
-        return isGameOver;
-    }
-
     public boolean isLevelComplete() {
         return isLevelComplete;
     }
 
     public List<Tank> getEnemyTanks() {
-        return enemyTanks;
+        return world.getEnemyTanks();
     }
 
-    public List<Bullet> getBullets() {
-        return bullets;
+    public BulletPool getBullets() {
+        return world.getBullets();
     }
 
     // StageGameScene 中重写 resetScene（如果需要），或确保 resetModeSpecificData 完整
@@ -1312,104 +934,6 @@ public class StageGameScene extends BaseGameScene {
         restartGame(); // 重启当前关卡
     }
 
-    // ==========================================
-    //   新增：智能出生点查找逻辑
-    // ==========================================
-
-    /**
-     * 【核心优化】寻找一个安全的出生坐标
-     *
-     * @param isPlayer true表示为玩家寻找(底部/左上)，false表示为敌人寻找(顶部/随机)
-     * @return double[]{x, y} 或者 null (如果找不到)
-     */
-    private double[] findFreeSpawnPoint(boolean isPlayer) {
-        int maxAttempts = 100;
-
-        // 定义出生区域范围
-        // 玩家通常在地图底部出生，敌人通常在顶部或随机
-        int startRow, endRow;
-
-        if (isPlayer) {
-            // 玩家：尝试在地图最后 5 行寻找
-            startRow = GameConfig.MAP_ROWS - 5;
-            endRow = GameConfig.MAP_ROWS;
-        } else {
-            // 敌人：尝试在地图前 2/3 区域寻找，留出底部给玩家缓冲
-            startRow = 0;
-            endRow = GameConfig.MAP_ROWS * 2 / 3;
-        }
-
-        for (int i = 0; i < maxAttempts; i++) {
-            // 1. 随机一个网格坐标
-            int c = random.nextInt(GameConfig.MAP_COLS);
-            int r = startRow + random.nextInt(endRow - startRow);
-
-            // 边界保护
-            if (r < 0) r = 0;
-            if (r >= GameConfig.MAP_ROWS) r = GameConfig.MAP_ROWS - 1;
-
-            // 2. 【第一层检查】检查地形是否空旷
-            // 我们检查 2x2 的小区域（因为坦克体积可能略大于1个格子），或者只检查中心点
-            // 这里严谨一点，检查该位置是否适合放坦克
-            if (isAreaClearForTank(r, c)) {
-
-                // 计算像素坐标
-                double x = c * GameConfig.GRID_SIZE;
-                double y = r * GameConfig.GRID_SIZE;
-
-                // 3. 【第二层检查】检查是否与其他坦克重叠
-                if (!isPositionOccupied(x, y)) {
-                    // 找到完美位置！
-                    return new double[]{x, y};
-                }
-            }
-        }
-
-        return null; // 实在找不到
-    }
-
-    /**
-     * 检查以 (r,c) 为起点的网格区域是否是墙
-     */
-    private boolean isAreaClearForTank(int r, int c) {
-        // 检查当前格子
-        if (!isTilePassable(r, c)) return false;
-
-        // 如果坦克比较大，可能还需要检查右边和下边的格子
-        // 简单起见，我们假设坦克主要占据当前格子，但为了防卡墙，我们要求四周不能全是墙
-        // 这里只检查中心格子必须是 EMPTY 或 GRASS
-        Tile t = map[r][c];
-        return t != null && (t.getType() == model.TileType.EMPTY || t.getType() == model.TileType.GRASS);
-    }
-
-    private boolean isTilePassable(int r, int c) {
-        if (r < 0 || r >= GameConfig.MAP_ROWS || c < 0 || c >= GameConfig.MAP_COLS) return false;
-        Tile t = map[r][c];
-        return t != null && t.getType().isTankPassable();
-    }
-
-    /**
-     * 检查像素坐标 (x,y) 处是否已经有其他坦克占位了
-     */
-    private boolean isPositionOccupied(double x, double y) {
-        double margin = 5.0; // 容错距离
-
-        // 检查玩家
-        if (player != null && player.isAlive()) {
-            double dist = Math.sqrt(Math.pow(x - player.getX(), 2) + Math.pow(y - player.getY(), 2));
-            if (dist < GameConfig.TANK_SIZE + margin) return true;
-        }
-
-        // 检查所有敌人
-        for (Tank enemy : enemyTanks) {
-            if (enemy.isAlive()) {
-                double dist = Math.sqrt(Math.pow(x - enemy.getX(), 2) + Math.pow(y - enemy.getY(), 2));
-                if (dist < GameConfig.TANK_SIZE + margin) return true;
-            }
-        }
-        return false;
-    }
-
     // 实现新增抽象方法：返回当前游戏模式（单人闯关）
     @Override
     protected PlayerRecord.GameMode getCurrentGameMode() {
@@ -1434,7 +958,7 @@ public class StageGameScene extends BaseGameScene {
         } else {
             try {
                 // 1. 计算全局游玩时长
-                long totalPlayTimeMillis = System.currentTimeMillis() - gameGlobalStartTime;
+                long totalPlayTimeMillis = world.getClock().millis() - gameGlobalStartTime;
                 int totalPlayTimeSeconds = (int) (totalPlayTimeMillis / 1000);
                 totalPlayTimeSeconds = Math.max(0, totalPlayTimeSeconds);
 
@@ -1463,9 +987,12 @@ public class StageGameScene extends BaseGameScene {
                 if (this.playerScore < 0) this.playerScore = 0;
 
                 // 3. 写入排行榜 (使用更新后的 playerScore)
-                RankingManager.addRecord(this.playerScore, totalPlayTimeSeconds, PlayerRecord.GameMode.SINGLE_CHALLENGE);
-
-                System.out.println("📝 写入记录成功: 通关=" + isPassed + ", 最终显示分=" + this.playerScore);
+                int finalScore = this.playerScore;
+                int finalPlayTime = totalPlayTimeSeconds;
+                backgroundExecutor.submit(() -> {
+                    RankingManager.addRecord(finalScore, finalPlayTime, PlayerRecord.GameMode.SINGLE_CHALLENGE);
+                    return finalScore;
+                }, written -> System.out.println("📝 写入记录成功: 通关=" + isPassed + ", 最终显示分=" + written));
 
             } catch (Exception e) {
                 e.printStackTrace();
@@ -1485,35 +1012,19 @@ public class StageGameScene extends BaseGameScene {
     }
 
     public PlayerTank getPlayer() {
-        return player;
+        return world.getPlayer();
     }
 
     public void setPlayer(PlayerTank player) {
-        this.player = player;
-    }
-
-    public void setEnemyTanks(List<Tank> enemyTanks) {
-        this.enemyTanks = enemyTanks;
-    }
-
-    public void setBullets(List<Bullet> bullets) {
-        this.bullets = bullets;
+        world.setPlayer(player);
     }
 
     public MapModel getMapModel() {
-        return mapModel;
-    }
-
-    public void setMapModel(MapModel mapModel) {
-        this.mapModel = mapModel;
+        return world.getMapModel();
     }
 
     public Tile[][] getMap() {
-        return map;
-    }
-
-    public void setMap(Tile[][] map) {
-        this.map = map;
+        return world.getMap();
     }
 
     public void setCurrentLevel(int currentLevel) {
@@ -1540,10 +1051,6 @@ public class StageGameScene extends BaseGameScene {
         this.gameElapsedTime = gameElapsedTime;
     }
 
-    public void setGameOver(boolean gameOver) {
-        isGameOver = gameOver;
-    }
-
     public void setLevelComplete(boolean levelComplete) {
         isLevelComplete = levelComplete;
     }
@@ -2,7 +2,6 @@ package view;
 import ranking.RankingManager;
 import game.AppLauncher;
 import item.Item;
-import item.ItemSpawner;
 import item.ItemType;
 import item.ParticleEffect;
 import javafx.animation.AnimationTimer;
@@ -25,6 +24,7 @@ import javafx.scene.text.FontWeight;
 import javafx.stage.Stage;
 import javafx.stage.StageStyle;
 import infra.GameConfig;
+import infra.TimerHandle;
 import map.MapModel;
 import map.MapTileView;
 import model.*;
@@ -63,8 +63,6 @@ public class TwoPlayerGameScene extends BaseGameScene {
     private final double PLAYER1_BIRTH_Y = 300;
     private final double PLAYER2_BIRTH_X = 700;
     private final double PLAYER2_BIRTH_Y = 280;
-    private List<Bullet> bulletList = new ArrayList<>();
-    private boolean gameOver = false;
     private String winner = "";
     private int player1Lives = 3;
     private int player2Lives = 3;
@@ -73,10 +71,10 @@ public class TwoPlayerGameScene extends BaseGameScene {
     private MapTileView mapTileView;
     private static final int TWO_PLAYER_LEVEL = 1;
     private Scene scene;
-    private ItemSpawner itemSpawner;
-    private List<ParticleEffect> particleEffects;
     // 新增：游戏开始时间戳（用于计算游玩时长）
     private long gameStartTime;
+    // 道具定时生成任务（注意：initModeSpecificLogic 在父类构造中调用，这里不能写初始值）
+    private TimerHandle itemSpawnTimer;
 
     // 修复1：构造代码块（优先于所有构造方法执行，强制初始化mapTileView）
     {
@@ -86,8 +84,8 @@ public class TwoPlayerGameScene extends BaseGameScene {
         mapTileView.setLayoutY(0);
         mapTileView.setWidth(GameConfig.SCREEN_WIDTH);
         mapTileView.setHeight(GameConfig.SCREEN_HEIGHT);
-        // 初始化游戏开始时间
-        gameStartTime = System.currentTimeMillis();
+        // 初始化游戏开始时间（此时 world 已由父类构造完成）
+        gameStartTime = world.getClock().millis();
     }
 
     public TwoPlayerGameScene(Stage primaryStage) {
@@ -95,97 +93,10 @@ public class TwoPlayerGameScene extends BaseGameScene {
         initScene();
         // 新增：首次进入双人模式时，播放背景音乐
         settingsWindow = new SettingsWindow(primaryStage, this);        SoundManager.getInstance().playGameMusic();
-        // 新增：初始化道具系统
-        itemSpawner = new ItemSpawner();
-        particleEffects = new ArrayList<>();
-        // 新增：启动道具生成
-        scheduleItemSpawn();
+        // 道具系统、粒子特效复用父类（world 持有的 itemSpawner），道具生成计时器已在 initModeSpecificLogic 中启动
     }
 
-    // 3. 添加道具更新方法
-    private void updateItems() {
-        // 检查玩家1的道具拾取
-        Iterator<Item> iterator = itemSpawner.getActiveItems().iterator();
-        while (iterator.hasNext()) {
-            Item item = iterator.next();
-
-            // 更新道具动画
-            item.updateAnimation();
-
-            // 检查玩家1是否拾取道具
-            if (player1.isAlive() && item.checkCollision(player1)) {
-                if (item.applyEffect((PlayerTank) player1)) {
-                    // 生成金色粒子特效
-                    particleEffects.add(new ParticleEffect(
-                            item.getX() + item.getWidth()/2,
-                            item.getY() + item.getHeight()/2,
-                            15, Color.GOLD, 0.5f
-                    ));
-
-                    // 如果是炸弹，对玩家2造成伤害
-                    if (item.getType() == ItemType.BOMB) {
-                        applyBombEffect(item, player1);
-                    }
-
-                    System.out.println("🎁 玩家1拾取道具: " + item.getType().getName());
-                    iterator.remove();
-                    continue;
-                }
-            }
-
-            // 检查玩家2是否拾取道具
-            if (player2.isAlive() && item.checkCollision(player2)) {
-                if (item.applyEffect((Tank) player2)) {
-                    // 生成金色粒子特效
-                    particleEffects.add(new ParticleEffect(
-                            item.getX() + item.getWidth()/2,
-                            item.getY() + item.getHeight()/2,
-                            15, Color.GOLD, 0.5f
-                    ));
-
-                    // 如果是炸弹，对玩家1造成伤害
-                    if (item.getType() == ItemType.BOMB) {
-                        applyBombEffect(item, player2);
-                    }
-
-                    System.out.println("🎁 玩家2拾取道具: " + item.getType().getName());
-                    iterator.remove();
-                }
-            }
-
-            // 检查道具是否过期
-            if (item.isExpired()) {
-                iterator.remove();
-                System.out.println("⏰ 道具过期消失: " + item.getType().getName());
-            }
-        }
-
-        // 更新粒子特效
-        particleEffects.removeIf(ParticleEffect::isFinished);
-        for (ParticleEffect effect : particleEffects) {
-            effect.update(0.016f); // 约60FPS
-        }
-    }
-
-    // 4. 添加炸弹效果处理方法
-    private void applyBombEffect(Item item, Tank picker) {
-        // 双人模式中，炸弹只对对方玩家造成20点伤害
-        if (item.getType() != ItemType.BOMB) return;
-
-        if (picker == player1) {
-            // 玩家1拾取了炸弹，对玩家2造成20点伤害
-            if (player2.isAlive()) {
-                player2.takeDamage(20);
-                System.out.println("💣 玩家1拾取炸弹，对玩家2造成20点伤害");
-            }
-        } else if (picker == player2) {
-            // 玩家2拾取了炸弹，对玩家1造成20点伤害
-            if (player1.isAlive()) {
-                player1.takeDamage(20);
-                System.out.println("💣 玩家2拾取炸弹，对玩家1造成20点伤害");
-            }
-        }
-    }
+    // 道具拾取、炸弹结算（对战模式只伤对手 20 点）都在 World.updateItems 里处理
 
     private void initScene() {
         StackPane root = new StackPane();
@@ -216,6 +127,8 @@ public class TwoPlayerGameScene extends BaseGameScene {
         }
         convertMapModelToTileArray();
         mapTileView.render(twoPlayerMap); // 此时绝对非null，不会报错
+        world.setVersusMode(true);
+        world.loadMap(twoPlayerMap);
         initTwoPlayers();
         // 新增：启动道具生成
         scheduleItemSpawn();
@@ -223,57 +136,58 @@ public class TwoPlayerGameScene extends BaseGameScene {
 
     @Override
     protected void resetModeSpecificData() {
-        gameOver = false;
+        // 对话框“重新开始”不走 resetScene，这里自己作废上一局的延时任务
+        world.getClock().cancelAllTimers();
+        setGameOver(false);
         winner = "";
         player1Lives = 3;
         player2Lives = 3;
-        bulletList.clear();
-        // 新增：清理道具
-        itemSpawner.clear();
+        // 新增：清理道具和子弹
+        world.clearEntities();
         particleEffects.clear();
         initTwoPlayers();
         twoPlayerMap.reset(TWO_PLAYER_LEVEL);
         convertMapModelToTileArray();
+        world.loadMap(twoPlayerMap);
         mapTileView.render(twoPlayerMap);
         mapTileView.reloadImages();
         twoPlayerMap.setCampaignMode(false);
 
         // 重置游戏开始时间
-        gameStartTime = System.currentTimeMillis();
+        gameStartTime = world.getClock().millis();
+        // 重新开始道具生成计时
+        scheduleItemSpawn();
 
         SoundManager.getInstance().playBGM();
     }
 
+    // ========== World 事件回调 ==========
+
     /**
-     * 【修复版】射击逻辑
-     * 使用 Tank.tryFire() 来接管射击，自动应用冷却时间和墙壁检测
+     * 射击由 World 调用 Tank.tryFire() 处理（冷却时间和墙壁检测），这里只负责音效
      */
-    private void shootBullet(Tank tank) {
-        if (gameOver || tank == null) return;
-
-        // 核心修改：调用 tank 自带的尝试开火方法
-        // 它会检查冷却时间 (Fire Cooldown) 和 枪口是否卡墙
-        // 如果冷却没好，或者枪口在墙里，它会返回 null
-        Bullet bullet = tank.tryFire(twoPlayerTileMap);
-
-        // 只有成功生成了子弹（即满足冷却条件），才添加到列表中并播放音效
-        if (bullet != null) {
-            bulletList.add(bullet);
-            SoundManager.getInstance().playSoundEffect("shoot");
-        }
+    @Override
+    public void onBulletFired(Tank shooter, int bullet) {
+        SoundManager.getInstance().playSoundEffect("shoot");
     }
+
+    @Override
+    public void onTankHit(Tank victim, int bullet) {
+        SoundManager.getInstance().playSoundEffect("explosion");
+    }
+
     // 8. 添加双人模式道具生成逻辑（例如通过随机事件生成）
     private void spawnItemRandomly() {
         // 双人模式的道具生成逻辑
         // 例如：每30秒有一定概率生成道具
-        long currentTime = System.currentTimeMillis();
+        long currentTime = world.getClock().millis();
         long lastSpawnTime = 0;
 
         if (currentTime - lastSpawnTime > 30000) { // 30秒
-            if (Math.random() < 0.3) { // 30%概率
-                double x = Math.random() * (GameConfig.SCREEN_WIDTH - GameConfig.GRID_SIZE);
-                double y = Math.random() * (GameConfig.SCREEN_HEIGHT - GameConfig.GRID_SIZE);
-                Item item = Item.createRandomItem(x, y);
+            if (world.getRandom().nextDouble() < 0.3) { // 30%概率
+                double x = world.getRandom().nextDouble() * (GameConfig.SCREEN_WIDTH - GameConfig.GRID_SIZE);
+                double y = world.getRandom().nextDouble() * (GameConfig.SCREEN_HEIGHT - GameConfig.GRID_SIZE);
+                Item item = Item.createRandomItem(x, y, world.getClock(), world.getRandom());
 
                 // 需要修改ItemSpawner以支持手动添加道具
                 // 这里先简单添加到activeItems（需要修改ItemSpawner的访问权限）
@@ -285,28 +199,27 @@ public class TwoPlayerGameScene extends BaseGameScene {
 
     // 添加计时器定期生成道具
     private void scheduleItemSpawn() {
-        // 使用 JavaFX 的 Timeline 代替 AnimationTimer，更简单
-        javafx.animation.Timeline timeline = new javafx.animation.Timeline(
-                new javafx.animation.KeyFrame(
-                        javafx.util.Duration.seconds(20 + Math.random() * 10), // 20-30秒间隔
-                        e -> spawnRandomItem()
-                )
-        );
-        timeline.setCycleCount(javafx.animation.Animation.INDEFINITE);
-        timeline.play();
+        // 使用游戏时钟的时间轮：暂停时不计时，重复调用只保留一个计时任务
+        if (itemSpawnTimer != null) {
+            itemSpawnTimer.cancel();
+        }
+        itemSpawnTimer = world.getClock().scheduleSeconds(20 + world.getRandom().nextDouble() * 10, () -> { // 20-30秒间隔
+            spawnRandomItem();
+            scheduleItemSpawn();
+        });
     }
 
     // ==========================================
     //   【优化】道具生成：防卡墙安全检查
     // ==========================================
     private void spawnRandomItem() {
-        if (gameOver) return;
+        if (isGameOver()) return;
 
         // 尝试 20 次寻找一个合法位置
         for (int i = 0; i < 20; i++) {
             // 随机坐标
-            double x = 50 + Math.random() * (GameConfig.SCREEN_WIDTH - 100);
-            double y = 50 + Math.random() * (GameConfig.SCREEN_HEIGHT - 100);
+            double x = 50 + world.getRandom().nextDouble() * (GameConfig.SCREEN_WIDTH - 100);
+            double y = 50 + world.getRandom().nextDouble() * (GameConfig.SCREEN_HEIGHT - 100);
 
             // 检查该位置是否是空地
             if (isValidItemPosition(x, y)) {
@@ -336,24 +249,13 @@ public class TwoPlayerGameScene extends BaseGameScene {
         int c = (int) (x / GameConfig.GRID_SIZE);
         int r = (int) (y / GameConfig.GRID_SIZE);
 
-        // 边界检查
-        if (r < 0 || r >= GameConfig.MAP_ROWS || c < 0 || c >= GameConfig.MAP_COLS) {
-            return false;
-        }
-
-        Tile tile = twoPlayerTileMap[r][c];
-        if (tile == null) return true;
-
-        // 获取地形类型
-        TileType type = tile.getType();
-
         // 允许生成在：空地、草地
-        // 禁止生成在：墙、钢块、水
-        return type == TileType.EMPTY || type == TileType.GRASS;
+        // 禁止生成在：墙、钢块、水、地图外
+        return world.getCollision().isSpawnableCell(r, c);
     }
     // 添加辅助方法获取随机道具类型
     private ItemType getRandomItemType() {
-        double rand = Math.random();
+        double rand = world.getRandom().nextDouble();
         if (rand < 0.4) {
             return ItemType.HEAL;           // 40% 概率
         } else if (rand < 0.7) {
@@ -363,36 +265,8 @@ public class TwoPlayerGameScene extends BaseGameScene {
         }
     }
 
-    private void checkCollisions() {
-        List<Bullet> removeBulletList = new ArrayList<>();
-        for (Bullet bullet : bulletList) {
-            if (!bullet.alive) continue;
-
-            if (!bullet.isEnemy && player2.isAlive() && isCollide(bullet, player2)) {
-                player2.takeDamage(bullet.getDamage());
-                bullet.alive = false;
-                removeBulletList.add(bullet);
-                SoundManager.getInstance().playSoundEffect("explosion");
-                continue;
-            }
-
-            if (bullet.isEnemy && player1.isAlive() && isCollide(bullet, player1)) {
-                player1.takeDamage(bullet.getDamage());
-                bullet.alive = false;
-                removeBulletList.add(bullet);
-                SoundManager.getInstance().playSoundEffect("explosion");
-                continue;
-            }
-        }
-        bulletList.removeAll(removeBulletList);
-
-        if (player1.isAlive() && player2.isAlive() && isCollide(player1, player2)) {
-            resolveTankOverlap(player1, player2);
-        }
-    }
-
     private void showGameOverDialog() {
-        if (!gameOver) {
+        if (!isGameOver()) {
             return;
         }
 
@@ -479,6 +353,7 @@ public class TwoPlayerGameScene extends BaseGameScene {
                 // 1. 停止游戏背景音乐，避免与主菜单音频冲突
                 SoundManager.getInstance().stopGameMusic();
                 SoundManager.getInstance().playBackgroundMusic();
+                disposeSession();
                 // 2. 核心修改：重新初始化 AppLauncher 主菜单
                 AppLauncher mainMenu = new AppLauncher();
                 mainMenu.start(primaryStage);
@@ -497,6 +372,14 @@ public class TwoPlayerGameScene extends BaseGameScene {
 
     private void initTwoPlayers() {
         player1 = new PlayerTank(PLAYER1_BIRTH_X, PLAYER1_BIRTH_Y);
+        player2 = new NormalTank(PLAYER2_BIRTH_X, PLAYER2_BIRTH_Y);
+
+        // 玩家1作为 world 的玩家，玩家2放在对手列表里（对战模式下不跑 AI，由键盘操控）
+        // 先加入 world 拿到游戏时钟，下面的护盾才能按逻辑时间计时
+        world.setPlayer((PlayerTank) player1);
+        world.getEnemyTanks().clear();
+        world.addEnemy(player2);
+
         player1.setSpeed(3);
         player1.setHealth(3);
         player1.setAlive(true);
@@ -504,7 +387,6 @@ public class TwoPlayerGameScene extends BaseGameScene {
         player1.buffFireRate(600);
         player1.activateShield(3.0);
 
-        player2 = new NormalTank(PLAYER2_BIRTH_X, PLAYER2_BIRTH_Y);
         player2.setSpeed(3);
         player2.setHealth(3);
         player2.setAlive(true);
@@ -520,7 +402,7 @@ public class TwoPlayerGameScene extends BaseGameScene {
 
         // 按下按键：标记为正在射击
         scene.setOnKeyPressed(e -> {
-            if (gameOver) return;
+            if (isGameOver()) return;
 
             switch (e.getCode()) {
                 // P1 移动
@@ -543,7 +425,7 @@ public class TwoPlayerGameScene extends BaseGameScene {
 
         // 松开按键：取消射击状态
         scene.setOnKeyReleased(e -> {
-            if (gameOver) return;
+            if (isGameOver()) return;
             switch (e.getCode()) {
                 case W: player1.setMovingForward(false); break;
                 case S: player1.setMovingBackward(false); break;
@@ -563,27 +445,6 @@ public class TwoPlayerGameScene extends BaseGameScene {
     }
 
 
-    private boolean isCollide(Bullet bullet, Tank tank) {
-        return bullet.getX() >= tank.getX() && bullet.getX() <= tank.getX() + tank.getWidth()
-                && bullet.getY() >= tank.getY() && bullet.getY() <= tank.getY() + tank.getHeight();
-    }
-
-    private boolean isCollide(Tank t1, Tank t2) {
-        return t1.getX() < t2.getX() + t2.getWidth() && t1.getX() + t1.getWidth() > t2.getX()
-                && t1.getY() < t2.getY() + t2.getHeight() && t1.getY() + t1.getHeight() > t2.getY();
-    }
-
-    private void resolveTankOverlap(Tank t1, Tank t2) {
-        double pushForce = t1.getSpeed();
-        double dx = t1.getCenterX() - t2.getCenterX();
-        double dy = t1.getCenterY() - t2.getCenterY();
-        if (Math.abs(dx) > Math.abs(dy)) {
-            t1.setX(t1.getX() + (dx > 0 ? pushForce : -pushForce));
-        } else {
-            t1.setY(t1.getY() + (dy > 0 ? pushForce : -pushForce));
-        }
-    }
-
     private double getTextWidth(GraphicsContext gc, String text) {
         try {
             javafx.scene.text.Text tempText = new javafx.scene.text.Text(text);
@@ -597,32 +458,25 @@ public class TwoPlayerGameScene extends BaseGameScene {
 
     @Override
     protected void updateGameLogic() {
-        if (gameOver) return;
-
-        // 1. 更新移动
-        if (player1.isAlive()) player1.update(twoPlayerTileMap);
-        if (player2.isAlive()) player2.update(twoPlayerTileMap);
+        if (isGameOver()) return;
 
-        // 2. 【新增】处理连续射击逻辑
-        // 只要按键按着，且人活着，就尝试开火
+        // 1. 【新增】处理连续射击逻辑
+        // 只要按键按着，且人活着，World 就会尝试开火
         // (Tank.tryFire 内部有冷却时间控制，所以不用担心射速过快，它会自动处理)
-        if (player1.isAlive() && p1Shooting) {
-            shootBullet(player1);
-        }
-        if (player2.isAlive() && p2Shooting) {
-            shootBullet(player2);
-        }
+        player1.setFiring(p1Shooting);
+        player2.setFiring(p2Shooting);
+
+        // 2. 推进一帧仿真（移动、子弹、命中、防重叠、道具都在 World 里）
+        world.step();
+        super.updateBaseElements();
 
         // 3. 其他更新
-        updateBullets();
-        checkCollisions();
         checkTankDeathAndRebirth();
         checkGameOver();
         mapTileView.render(twoPlayerMap);
-        updateItems();
     }
     @Override
-    protected void renderGameFrame() {
+    protected void renderGameFrame(double alpha) {
         ObservableList<Node> rootChildren = scene.getRoot().getChildrenUnmodifiable();
         Canvas tankCanvas = (Canvas) rootChildren.get(1);
         Canvas bulletCanvas = (Canvas) rootChildren.get(2);
@@ -633,11 +487,9 @@ public class TwoPlayerGameScene extends BaseGameScene {
         GraphicsContext tankGc = tankCanvas.getGraphicsContext2D();
         GraphicsContext bulletGc = bulletCanvas.getGraphicsContext2D();
 
-        if (player1.isAlive()) player1.draw(tankGc);
-        if (player2.isAlive()) player2.draw(tankGc);
-        for (Bullet bullet : bulletList) {
-            if (bullet.alive) bullet.draw(bulletGc);
-        }
+        if (player1.isAlive()) spritePainter.drawTank(tankGc, player1, alpha);
+        if (player2.isAlive()) spritePainter.drawTank(tankGc, player2, alpha);
+        spritePainter.drawBullets(bulletGc, world.getBullets(), alpha);
         // 新增：绘制道具
         for (Item item : itemSpawner.getActiveItems()) {
             spritePainter.drawItem(tankGc, item);
@@ -645,10 +497,16 @@ public class TwoPlayerGameScene extends BaseGameScene {
 
         // 新增：绘制粒子特效
         for (ParticleEffect effect : particleEffects) {
-            spritePainter.drawParticleEffect(bulletGc, effect);
+            spritePainter.drawParticleEffect(bulletGc, effect, alpha);
+        }
+        if (isGameOver()) {
+            hideHud();
+            drawGameOverUI(tankGc);
+        } else {
+            // HUD 单独一层，生命数或战斗时间（秒）变化时才重画
+            long playTime = (world.getClock().millis() - gameStartTime) / 1000;
+            renderHud(java.util.List.of(player1Lives, player2Lives, playTime), this::drawPlayerHUD);
         }
-        drawPlayerHUD(tankGc);
-        if (gameOver) drawGameOverUI(tankGc);
     }
 
     private void clearCanvas(Canvas canvas) {
@@ -674,7 +532,7 @@ public class TwoPlayerGameScene extends BaseGameScene {
 
         gc.setFont(Font.font("Consolas", FontWeight.BOLD, 18));
         gc.setFill(Color.WHITE);
-        long playTime = (System.currentTimeMillis() - gameStartTime) / 1000;
+        long playTime = (world.getClock().millis() - gameStartTime) / 1000;
         String timeText = String.format("战斗时间: %02d:%02d", playTime/60, playTime%60);
         double timeWidth = getTextWidth(gc, timeText);
         gc.fillText(timeText, WIDTH/2 - timeWidth/2, 47);
@@ -750,7 +608,7 @@ public class TwoPlayerGameScene extends BaseGameScene {
         gc.setFont(Font.font("Microsoft YaHei", FontWeight.BOLD, 24));
         gc.setFill(Color.WHITE);
 
-        long playTime = (System.currentTimeMillis() - gameStartTime) / 1000;
+        long playTime = (world.getClock().millis() - gameStartTime) / 1000;
         String stats = String.format("战斗时长: %02d:%02d | 剩余生命: P1=%d, P2=%d",
                 playTime/60, playTime%60, player1Lives, player2Lives);
 
@@ -765,23 +623,12 @@ public class TwoPlayerGameScene extends BaseGameScene {
     }
 
 
-    private void updateBullets() {
-        List<Bullet> removeList = new ArrayList<>();
-        for (Bullet bullet : bulletList) {
-            if (!bullet.alive) {
-                removeList.add(bullet);
-                continue;
-            }
-            bullet.update(twoPlayerTileMap);
-        }
-        bulletList.removeAll(removeList);
-    }
-
     private void checkTankDeathAndRebirth() {
         if (!player1.isAlive() && player1Lives > 0) {
             player1Lives--;
             player1.setX(PLAYER1_BIRTH_X);
             player1.setY(PLAYER1_BIRTH_Y);
+            player1.resetInterpolation();
             player1.setHealth(3);
             player1.setAlive(true);
             player1.setLogicRotation(0.0);
@@ -793,6 +640,7 @@ public class TwoPlayerGameScene extends BaseGameScene {
             player2Lives--;
             player2.setX(PLAYER2_BIRTH_X);
             player2.setY(PLAYER2_BIRTH_Y);
+            player2.resetInterpolation();
             player2.setHealth(3);
             player2.setAlive(true);
             player2.setLogicRotation(180.0);
@@ -802,15 +650,15 @@ public class TwoPlayerGameScene extends BaseGameScene {
     }
 
     private void checkGameOver() {
-        if (player1Lives <= 0 && !gameOver) {
-            gameOver = true;
+        if (player1Lives <= 0 && !isGameOver()) {
+            setGameOver(true);
             winner = "玩家2（红色坦克）胜利！";
             // 新增：写入游戏记录
             writeGameRecord(false); // 玩家1失败，对应记录isWin=false
             this.pauseGameProcess();
             Platform.runLater(this::showGameOverDialog);
-        } else if (player2Lives <= 0 && !gameOver) {
-            gameOver = true;
+        } else if (player2Lives <= 0 && !isGameOver()) {
+            setGameOver(true);
             winner = "玩家1（蓝色坦克）胜利！";
             // 新增：写入游戏记录
             writeGameRecord(true); // 玩家1胜利，对应记录isWin=true
@@ -822,7 +670,7 @@ public class TwoPlayerGameScene extends BaseGameScene {
     // 新增：封装游戏记录写入逻辑
     private void writeGameRecord(boolean isPlayer1Win) {
         // 计算游玩时长（秒）
-        long playTimeSeconds = (System.currentTimeMillis() - gameStartTime) / 1000;
+        long playTimeSeconds = (world.getClock().millis() - gameStartTime) / 1000;
         // 2. 计算最终得分（自定义适配你的业务逻辑）
         int finalScore;
         if (isPlayer1Win) {
@@ -837,12 +685,14 @@ public class TwoPlayerGameScene extends BaseGameScene {
             itemCount = itemSpawner.getCollectedItems().size();
         }
 
-        // 4. 核心：调用 RankingManager 写入双人模式记录
-        RankingManager.addRecord(
-                finalScore,
-                (int) playTimeSeconds,
+        // 4. 核心：调用 RankingManager 写入双人模式记录（后台执行，不卡逻辑帧）
+        int recordScore = finalScore;
+        int recordTime = (int) playTimeSeconds;
+        backgroundExecutor.submit(() -> RankingManager.addRecord(
+                recordScore,
+                recordTime,
                 PlayerRecord.GameMode.DOUBLE_BATTLE
-        );
+        ));
 
     }
 
@@ -855,7 +705,7 @@ public class TwoPlayerGameScene extends BaseGameScene {
     @Override
     protected void resumeGameProcess() {
         super.resumeGameProcess();
-        if (gameLoop != null && !gameOver) {
+        if (gameLoop != null && !isGameOver()) {
             gameLoop.start();
             SoundManager.getInstance().resumeGameMusic();
         }
@@ -929,20 +779,8 @@ public class TwoPlayerGameScene extends BaseGameScene {
         return PLAYER2_BIRTH_Y;
     }
 
-    public List<Bullet> getBulletList() {
-        return bulletList;
-    }
-
-    public void setBulletList(List<Bullet> bulletList) {
-        this.bulletList = bulletList;
-    }
-
-    public boolean isGameOver() {
-        return gameOver;
-    }
-
-    public void setGameOver(boolean gameOver) {
-        this.gameOver = gameOver;
+    public BulletPool getBulletList() {
+        return world.getBullets();
     }
 
     public String getWinner() {
@@ -998,26 +836,6 @@ public class TwoPlayerGameScene extends BaseGameScene {
         this.scene = scene;
     }
 
-    @Override
-    public ItemSpawner getItemSpawner() {
-        return itemSpawner;
-    }
-
-    @Override
-    public void setItemSpawner(ItemSpawner itemSpawner) {
-        this.itemSpawner = itemSpawner;
-    }
-
-    @Override
-    public List<ParticleEffect> getParticleEffects() {
-        return particleEffects;
-    }
-
-    @Override
-    public void setParticleEffects(List<ParticleEffect> particleEffects) {
-        this.particleEffects = particleEffects;
-    }
-
     public long getGameStartTime() {
         return gameStartTime;
     }